@@ -0,0 +1,78 @@
+package com.inventory.management.backend.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch over {@code long} keys: a fixed {@code depth x width} grid of counters.
+ * An estimate never undercounts while every decrement cancels an earlier increment of the
+ * same key, and it overcounts by at most {@code e / width} of the total weight with
+ * probability {@code 1 - e^-depth}. Not thread-safe; callers guard it.
+ */
+final class CountMinSketch {
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL
+    };
+
+    private final int width;
+    private final int depth;
+    private final int mask;
+    private final long[] counts;
+
+    CountMinSketch(int width, int depth) {
+        if (Integer.bitCount(width) != 1 || depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Width must be a power of two and depth 1.." + SEEDS.length);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counts = new long[width * depth];
+    }
+
+    void add(long key, long weight) {
+        for (int row = 0; row < depth; row++) {
+            counts[row * width + column(key, row)] += weight;
+        }
+    }
+
+    long estimate(long key) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts[row * width + column(key, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Adds or, with a negative sign, removes everything counted by another sketch of the
+     * same shape. Sketches are linear, so this is exact.
+     */
+    void merge(CountMinSketch other, int sign) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += sign * other.counts[i];
+        }
+    }
+
+    void clear() {
+        Arrays.fill(counts, 0);
+    }
+
+    double relativeError() {
+        return Math.E / width;
+    }
+
+    long estimatedBytes() {
+        return 16 + 8L * counts.length;
+    }
+
+    private int column(long key, int row) {
+        // murmur3 finalizer over a per-row seeded key, the same mix LongObjectMap uses
+        long h = key ^ SEEDS[row];
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
@@ -0,0 +1,281 @@
+package com.inventory.management.backend.analytics;
+
+import com.inventory.management.backend.cache.CatalogStore;
+import com.inventory.management.backend.cache.ProductRecord;
+import com.inventory.management.backend.cache.SupplierRecord;
+import com.inventory.management.backend.cache.UserRecord;
+import com.inventory.management.backend.coherence.CoherenceListener;
+import com.inventory.management.backend.coherence.RemoteChanges;
+import com.inventory.management.backend.dto.TopMoverDto;
+import com.inventory.management.backend.event.TransactionRecordedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming top-movers: sliding-window heavy-hitter sketches of moved quantity and value
+ * per product, user and supplier, fed after each commit on this or another node and
+ * rebuilt from the effective journal on startup. Answers come from memory with a bounded overestimate instead of
+ * grouping over recent transactions.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MovementAnalytics implements CoherenceListener {
+    private static final String SELECT_ENTRIES = "SELECT t.id, t.product_id, t.user_id, "
+            + "COALESCE(t.supplier_id, p.supplier_id), t.quantity, t.total_price, t.transaction_date, "
+            + "t.entry_kind = 'REVERSAL' "
+            + "FROM transactions t JOIN products p ON p.id = t.product_id ";
+    private static final String SELECT_RECENT = SELECT_ENTRIES
+            + "WHERE t.transaction_date >= ? AND t.entry_kind <> 'REVERSAL' "
+            + "AND NOT EXISTS (SELECT 1 FROM transactions c WHERE c.corrects_transaction_id = t.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final CatalogStore catalogStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.analytics.top-movers.capacity:128}")
+    private int capacity;
+
+    @Value("${inventory.analytics.top-movers.sketch-width:1024}")
+    private int sketchWidth;
+
+    @Value("${inventory.analytics.top-movers.sketch-depth:4}")
+    private int sketchDepth;
+
+    private final SlidingHeavyHitters[][][] sketches =
+            new SlidingHeavyHitters[Window.values().length][Dimension.values().length][Metric.values().length];
+
+    // Transaction ids already counted while the rebuild overlaps live events
+    private volatile Set<Long> rebuildClaims;
+    // Held shared while recording, exclusively while the sketches are reset for a rebuild
+    private final ReentrantReadWriteLock resetLock = new ReentrantReadWriteLock();
+    // Other nodes' entries are only counted once a rebuild has started, it reads the earlier ones
+    private volatile boolean rebuilt;
+
+    public enum Dimension {
+        PRODUCT, USER, SUPPLIER
+    }
+
+    public enum Metric {
+        QUANTITY, VALUE
+    }
+
+    public enum Window {
+        HOUR(5 * 60_000L, 12),
+        DAY(60 * 60_000L, 24);
+
+        private final long bucketMillis;
+        private final int buckets;
+
+        Window(long bucketMillis, int buckets) {
+            this.bucketMillis = bucketMillis;
+            this.buckets = buckets;
+        }
+
+        long millis() {
+            return bucketMillis * buckets;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        for (Window window : Window.values()) {
+            for (Dimension dimension : Dimension.values()) {
+                for (Metric metric : Metric.values()) {
+                    sketches[window.ordinal()][dimension.ordinal()][metric.ordinal()] = new SlidingHeavyHitters(
+                            window.bucketMillis, window.buckets, capacity, sketchWidth, sketchDepth);
+                }
+            }
+        }
+        Gauge.builder("inventory.analytics.top_movers.memory", this, MovementAnalytics::estimatedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        long now = System.currentTimeMillis();
+        LocalDateTime since = toLocalDateTime(now - Window.DAY.millis());
+
+        resetLock.writeLock().lock();
+        try {
+            rebuildClaims = ConcurrentHashMap.newKeySet();
+            forEachSketch(SlidingHeavyHitters::clear);
+            rebuilt = true;
+        } finally {
+            resetLock.writeLock().unlock();
+        }
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            // Streams the rows instead of materialising a day of journal
+            JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+            streaming.setFetchSize(1000);
+            int[] rows = {0};
+            readOnly.executeWithoutResult(status -> streaming.query(SELECT_RECENT, rs -> {
+                // getLong reads a missing supplier as 0, the same "none" the sketches use
+                record(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getInt(5),
+                        rs.getBigDecimal(6), rs.getTimestamp(7).getTime(), now);
+                rows[0]++;
+            }, Timestamp.valueOf(since)));
+            log.info("Top-movers sketches rebuilt from {} journal entries in {} ms",
+                    rows[0], (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            rebuildClaims = null;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        int sign = event.isReversal() ? -1 : 1;
+        record(event.getTransactionId(), event.getProductId(), event.getUserId(),
+                event.getSupplierId() != null ? event.getSupplierId() : 0,
+                sign * event.getQuantity(), signed(event.getTotalPrice(), sign),
+                toEpochMillis(event.getTransactionDate()), System.currentTimeMillis());
+    }
+
+    @Override
+    public void onRemoteChanges(RemoteChanges changes) {
+        if (changes.transactions().isEmpty() || !rebuilt) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (List<Long> ids : RemoteChanges.chunks(changes.transactions())) {
+            String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+            jdbcTemplate.query(SELECT_ENTRIES + "WHERE t.id IN (" + placeholders + ")", rs -> {
+                int sign = rs.getBoolean(8) ? -1 : 1;
+                record(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), sign * rs.getInt(5),
+                        signed(rs.getBigDecimal(6), sign), rs.getTimestamp(7).getTime(), now);
+            }, ids.toArray());
+        }
+    }
+
+    @Override
+    public void onResync(long sinceVersion) {
+        // Journal entries carry no catalog version, start over from the last day
+        rebuild();
+    }
+
+    public List<TopMoverDto> getTopMovers(Dimension dimension, Metric metric, Window window, int limit) {
+        SlidingHeavyHitters.Result result = sketches[window.ordinal()][dimension.ordinal()][metric.ordinal()]
+                .top(Math.max(0, Math.min(limit, capacity)), System.currentTimeMillis());
+        BigDecimal maxOverestimate = amount(metric, result.maxOverestimate());
+        return result.top().stream()
+                .map(estimate -> toDto(dimension, estimate.key(), amount(metric, estimate.weight()), maxOverestimate))
+                .collect(Collectors.toList());
+    }
+
+    public long estimatedBytes() {
+        long[] bytes = {0};
+        forEachSketch(sketch -> bytes[0] += sketch.estimatedBytes());
+        return bytes[0];
+    }
+
+    private void forEachSketch(Consumer<SlidingHeavyHitters> action) {
+        for (SlidingHeavyHitters[][] byDimension : sketches) {
+            for (SlidingHeavyHitters[] byMetric : byDimension) {
+                for (SlidingHeavyHitters sketch : byMetric) {
+                    action.accept(sketch);
+                }
+            }
+        }
+    }
+
+    private void record(long transactionId, long productId, long userId, long supplierId,
+                        int quantity, BigDecimal value, long atMillis, long nowMillis) {
+        resetLock.readLock().lock();
+        try {
+            Set<Long> claims = rebuildClaims;
+            if (claims != null && !claims.add(transactionId)) {
+                return;
+            }
+
+            long quantityWeight = quantity;
+            long valueWeight = value == null ? 0 : value.movePointRight(2).longValue();
+            for (Window window : Window.values()) {
+                add(window, Dimension.PRODUCT, productId, quantityWeight, valueWeight, atMillis, nowMillis);
+                add(window, Dimension.USER, userId, quantityWeight, valueWeight, atMillis, nowMillis);
+                if (supplierId != 0) {
+                    add(window, Dimension.SUPPLIER, supplierId, quantityWeight, valueWeight, atMillis, nowMillis);
+                }
+            }
+        } finally {
+            resetLock.readLock().unlock();
+        }
+    }
+
+    private void add(Window window, Dimension dimension, long key, long quantity, long valueCents,
+                     long atMillis, long nowMillis) {
+        SlidingHeavyHitters[] byMetric = sketches[window.ordinal()][dimension.ordinal()];
+        byMetric[Metric.QUANTITY.ordinal()].add(key, quantity, atMillis, nowMillis);
+        if (valueCents != 0) {
+            byMetric[Metric.VALUE.ordinal()].add(key, valueCents, atMillis, nowMillis);
+        }
+    }
+
+    private TopMoverDto toDto(Dimension dimension, long id, BigDecimal amount, BigDecimal maxOverestimate) {
+        String name = null;
+        String sku = null;
+        switch (dimension) {
+            case PRODUCT -> {
+                ProductRecord product = catalogStore.getProduct(id);
+                if (product != null) {
+                    name = product.name();
+                    sku = product.sku();
+                }
+            }
+            case USER -> {
+                UserRecord user = catalogStore.getUser(id);
+                name = user != null ? user.username() : null;
+            }
+            case SUPPLIER -> {
+                SupplierRecord supplier = catalogStore.getSupplier(id);
+                name = supplier != null ? supplier.name() : null;
+            }
+        }
+        return new TopMoverDto(id, name, sku, amount, maxOverestimate);
+    }
+
+    private static BigDecimal amount(Metric metric, long weight) {
+        return metric == Metric.VALUE ? BigDecimal.valueOf(weight, 2) : BigDecimal.valueOf(weight);
+    }
+
+    private static BigDecimal signed(BigDecimal value, int sign) {
+        return value == null || sign > 0 ? value : value.negate();
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        // Transaction dates are server-local, like LocalDateTime.now() in Transaction.prepare
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
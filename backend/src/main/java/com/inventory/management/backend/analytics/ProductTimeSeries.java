@@ -0,0 +1,147 @@
+package com.inventory.management.backend.analytics;
+
+import com.inventory.management.backend.dto.ProductTimeSeriesDto;
+import com.inventory.management.backend.entity.Product;
+import com.inventory.management.backend.repository.ProductRepository;
+import com.inventory.management.backend.service.StockCounterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stock level and price history of one product, rebuilt from the journal on request in
+ * one scan. The level is walked back from the current stock through the entries newest
+ * first and downsampled into buckets as it goes, so the answer stays the same size
+ * however many entries the product has.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductTimeSeries {
+    private final ProductTimeSeriesStore store;
+    private final ProductRepository productRepository;
+    private final StockCounterService stockCounterService;
+
+    @Value("${inventory.timeseries.max-points:1000}")
+    private int maxPoints;
+
+    /**
+     * Buckets between {@code from}, by default when the product was created, and
+     * {@code to}, by default now.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ProductTimeSeriesDto getTimeSeries(Long productId, LocalDateTime from, LocalDateTime to, int points) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : product.getCreatedAt();
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (points < 1 || points > maxPoints) {
+            throw new IllegalArgumentException("points must be between 1 and " + maxPoints);
+        }
+
+        long spanSeconds = Math.max(1, Duration.between(start, end).toSeconds());
+        long bucketSeconds = Math.max(1, (spanSeconds + points - 1) / points);
+        TimeSeriesBuckets buckets = new TimeSeriesBuckets((int) ((spanSeconds + bucketSeconds - 1) / bucketSeconds));
+
+        long startMillis = Timestamp.valueOf(start).getTime();
+        long endMillis = Timestamp.valueOf(end).getTime();
+        long bucketMillis = bucketSeconds * 1000;
+        // Same snapshot as the scan, so the current stock matches the newest entry read
+        long[] level = {stockCounterService.getStock(product)};
+        long[] closing = {level[0]};
+        TieGroup group = new TieGroup();
+        store.scanBackwards(productId, start, rs -> {
+            boolean in = rs.getBoolean(2);
+            boolean reversal = rs.getBoolean(3);
+            long quantity = rs.getLong(5);
+            Timestamp at = rs.getTimestamp(7);
+            long effect = (in ? quantity : -quantity) * (reversal ? -1 : 1);
+
+            if (at.getTime() > endMillis) {
+                closing[0] = level[0] - effect;
+            } else {
+                if (!at.equals(group.at)) {
+                    group.flush(buckets);
+                    group.at = at;
+                    group.bucket = (int) Math.min(buckets.size - 1, (at.getTime() - startMillis) / bucketMillis);
+                }
+                buckets.stock(group.bucket, level[0] - effect, level[0]);
+                if (reversal) {
+                    group.reversed.add(rs.getLong(4));
+                } else {
+                    BigDecimal price = rs.getBigDecimal(6);
+                    if (price != null) {
+                        group.add(rs.getLong(1), in, price);
+                    }
+                }
+            }
+            level[0] -= effect;
+        });
+        group.flush(buckets);
+        buckets.fillGaps(level[0]);
+
+        ProductTimeSeriesDto dto = new ProductTimeSeriesDto();
+        dto.setProductId(productId);
+        dto.setFrom(start);
+        dto.setTo(end);
+        dto.setBucketSeconds(bucketSeconds);
+        dto.setPoints(buckets.size);
+        dto.setOpeningStock(level[0]);
+        dto.setClosingStock(closing[0]);
+        dto.setStockMin(buckets.stockMin);
+        dto.setStockMax(buckets.stockMax);
+        dto.setStockLast(buckets.stockLast);
+        dto.setEntries(buckets.entries);
+        dto.setPurchasePriceMin(buckets.purchasePrice[TimeSeriesBuckets.MIN]);
+        dto.setPurchasePriceMax(buckets.purchasePrice[TimeSeriesBuckets.MAX]);
+        dto.setPurchasePriceLast(buckets.purchasePrice[TimeSeriesBuckets.LAST]);
+        dto.setSalePriceMin(buckets.salePrice[TimeSeriesBuckets.MIN]);
+        dto.setSalePriceMax(buckets.salePrice[TimeSeriesBuckets.MAX]);
+        dto.setSalePriceLast(buckets.salePrice[TimeSeriesBuckets.LAST]);
+        return dto;
+    }
+
+    /**
+     * Entries sharing one timestamp. A reversal carries the date of the entry it reverses,
+     * so prices are held until the timestamp changes and reversed entries are left out.
+     */
+    private static class TieGroup {
+        Timestamp at;
+        int bucket;
+        final Set<Long> reversed = new HashSet<>();
+        final List<Long> ids = new ArrayList<>();
+        final List<Boolean> inbound = new ArrayList<>();
+        final List<BigDecimal> prices = new ArrayList<>();
+
+        void add(long id, boolean in, BigDecimal price) {
+            ids.add(id);
+            inbound.add(in);
+            prices.add(price);
+        }
+
+        void flush(TimeSeriesBuckets buckets) {
+            for (int i = 0; i < ids.size(); i++) {
+                if (!reversed.contains(ids.get(i))) {
+                    buckets.price(inbound.get(i) ? buckets.purchasePrice : buckets.salePrice, bucket, prices.get(i));
+                }
+            }
+            reversed.clear();
+            ids.clear();
+            inbound.clear();
+            prices.clear();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.inventory.management.backend.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Reads one product's journal newest first over idx_transactions_product_date. Entries with
+ * the same date come in reverse id order, so every scan walks the same path. Reads run in
+ * the caller's transaction so the driver can fetch with a cursor.
+ */
+@Component
+@RequiredArgsConstructor
+class ProductTimeSeriesStore {
+    private static final int FETCH_SIZE = 5_000;
+
+    // Every entry including reversals, so undoing them in order walks back the booked stock
+    private static final String ENTRIES_SINCE = "SELECT t.id, t.type = 'IN', t.entry_kind = 'REVERSAL', "
+            + "t.corrects_transaction_id, t.quantity, t.unit_price, t.transaction_date FROM transactions t "
+            + "WHERE t.product_id = ? AND t.transaction_date >= ? ORDER BY t.transaction_date DESC, t.id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    void scanBackwards(long productId, LocalDateTime from, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(ENTRIES_SINCE);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setLong(1, productId);
+            ps.setTimestamp(2, Timestamp.valueOf(from));
+            return ps;
+        }, handler);
+    }
+}
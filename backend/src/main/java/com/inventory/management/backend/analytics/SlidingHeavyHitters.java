@@ -0,0 +1,155 @@
+package com.inventory.management.backend.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Heavy hitters over a sliding time window made of fixed buckets. Each bucket keeps its
+ * own {@link SpaceSaving} candidates and {@link CountMinSketch}; the window sketch is the
+ * running sum of the live buckets, so expiring a bucket subtracts it and a query needs one
+ * sketch lookup per candidate. Memory is fixed by the bucket count and sketch shape.
+ */
+final class SlidingHeavyHitters {
+    private final long bucketMillis;
+    private final Bucket[] buckets;
+    private final CountMinSketch window;
+    private long windowTotal;
+
+    SlidingHeavyHitters(long bucketMillis, int bucketCount, int capacity, int width, int depth) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket(capacity, width, depth);
+        }
+        this.window = new CountMinSketch(width, depth);
+    }
+
+    /**
+     * Counts a weight at the given time; negative weights take back an earlier count made
+     * for the same time. Times outside the window are ignored.
+     */
+    synchronized void add(long key, long weight, long atMillis, long nowMillis) {
+        long current = Math.floorDiv(nowMillis, bucketMillis);
+        expire(current);
+        // Clock skew between nodes may date a movement slightly ahead, count it as now
+        long index = Math.min(Math.floorDiv(atMillis, bucketMillis), current);
+        if (index <= current - buckets.length) {
+            return;
+        }
+
+        Bucket bucket = buckets[(int) Math.floorMod(index, (long) buckets.length)];
+        if (bucket.index != index) {
+            bucket.reset(index);
+        }
+        bucket.candidates.add(key, weight);
+        bucket.counts.add(key, weight);
+        bucket.total += weight;
+        window.add(key, weight);
+        windowTotal += weight;
+    }
+
+    synchronized Result top(int limit, long nowMillis) {
+        expire(Math.floorDiv(nowMillis, bucketMillis));
+
+        // Candidates arrive in key order, so keeping the first of equal weights breaks ties by key
+        long[] topKeys = new long[limit];
+        long[] topWeights = new long[limit];
+        int size = 0;
+        for (long key : collectCandidates()) {
+            long estimate = window.estimate(key);
+            if (estimate <= 0 || (size == limit && (limit == 0 || estimate <= topWeights[size - 1]))) {
+                continue;
+            }
+            int position = size < limit ? size++ : size - 1;
+            while (position > 0 && topWeights[position - 1] < estimate) {
+                topKeys[position] = topKeys[position - 1];
+                topWeights[position] = topWeights[position - 1];
+                position--;
+            }
+            topKeys[position] = key;
+            topWeights[position] = estimate;
+        }
+
+        List<Estimate> top = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            top.add(new Estimate(topKeys[i], topWeights[i]));
+        }
+        long maxOverestimate = (long) Math.ceil(window.relativeError() * windowTotal);
+        return new Result(top, windowTotal, maxOverestimate);
+    }
+
+    synchronized void clear() {
+        for (Bucket bucket : buckets) {
+            bucket.reset(Long.MIN_VALUE);
+        }
+        window.clear();
+        windowTotal = 0;
+    }
+
+    long estimatedBytes() {
+        long bytes = window.estimatedBytes();
+        for (Bucket bucket : buckets) {
+            bytes += bucket.counts.estimatedBytes() + bucket.candidates.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    private void expire(long current) {
+        for (Bucket bucket : buckets) {
+            if (bucket.index != Long.MIN_VALUE && bucket.index <= current - buckets.length) {
+                window.merge(bucket.counts, -1);
+                windowTotal -= bucket.total;
+                bucket.reset(Long.MIN_VALUE);
+            }
+        }
+    }
+
+    private long[] collectCandidates() {
+        int count = 0;
+        for (Bucket bucket : buckets) {
+            count += bucket.candidates.size();
+        }
+        long[] all = new long[count];
+        int offset = 0;
+        for (Bucket bucket : buckets) {
+            offset = bucket.candidates.copyKeys(all, offset);
+        }
+
+        Arrays.sort(all);
+        int distinct = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[distinct++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, distinct);
+    }
+
+    record Estimate(long key, long weight) {
+    }
+
+    record Result(List<Estimate> top, long windowTotal, long maxOverestimate) {
+    }
+
+    private static final class Bucket {
+        final SpaceSaving candidates;
+        final CountMinSketch counts;
+        long index = Long.MIN_VALUE;
+        long total;
+
+        Bucket(int capacity, int width, int depth) {
+            candidates = new SpaceSaving(capacity);
+            counts = new CountMinSketch(width, depth);
+        }
+
+        void reset(long newIndex) {
+            if (index != Long.MIN_VALUE) {
+                candidates.clear();
+                counts.clear();
+                total = 0;
+            }
+            index = newIndex;
+        }
+    }
+}
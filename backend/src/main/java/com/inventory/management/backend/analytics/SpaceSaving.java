@@ -0,0 +1,120 @@
+package com.inventory.management.backend.analytics;
+
+import com.inventory.management.backend.cache.LongObjectMap;
+
+/**
+ * Space-Saving heavy-hitter summary with a fixed number of counters. Every key whose
+ * weight exceeds {@code total / capacity} is guaranteed to hold a counter; a new key
+ * beyond capacity takes over the smallest counter. Used only to pick candidates, their
+ * weights come from a {@link CountMinSketch}. Not thread-safe; callers guard it.
+ */
+final class SpaceSaving {
+    // Counters live in fixed slots; a min-heap of slot numbers finds the smallest in O(1)
+    private final long[] keys;
+    private final long[] weights;
+    private final int[] heap;
+    private final int[] heapPosition;
+    private final LongObjectMap<Integer> slots;
+    private int size;
+
+    SpaceSaving(int capacity) {
+        keys = new long[capacity];
+        weights = new long[capacity];
+        heap = new int[capacity];
+        heapPosition = new int[capacity];
+        slots = new LongObjectMap<>(capacity);
+    }
+
+    void add(long key, long weight) {
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            // Corrections only take back what was added, a floor of zero is enough
+            weights[slot] = Math.max(0, weights[slot] + weight);
+            if (weight > 0) {
+                siftDown(heapPosition[slot]);
+            } else {
+                siftUp(heapPosition[slot]);
+            }
+            return;
+        }
+        if (weight <= 0) {
+            return;
+        }
+        if (size < keys.length) {
+            int free = size++;
+            keys[free] = key;
+            weights[free] = weight;
+            heap[free] = free;
+            heapPosition[free] = free;
+            slots.put(key, free);
+            siftUp(free);
+            return;
+        }
+
+        int smallest = heap[0];
+        slots.remove(keys[smallest]);
+        keys[smallest] = key;
+        weights[smallest] += weight;
+        slots.put(key, smallest);
+        siftDown(0);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies the tracked keys into {@code target} at {@code offset}, returns the offset after them.
+     */
+    int copyKeys(long[] target, int offset) {
+        System.arraycopy(keys, 0, target, offset, size);
+        return offset + size;
+    }
+
+    void clear() {
+        slots.clear();
+        size = 0;
+    }
+
+    long estimatedBytes() {
+        // Counter and heap arrays plus the slot map's long and reference arrays, boxed slot numbers
+        return 24L * keys.length + 12L * slots.capacity() + 16L * keys.length;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (weights[heap[parent]] <= weights[heap[position]]) {
+                return;
+            }
+            swap(parent, position);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && weights[heap[child + 1]] < weights[heap[child]]) {
+                child++;
+            }
+            if (weights[heap[position]] <= weights[heap[child]]) {
+                return;
+            }
+            swap(position, child);
+            position = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int slotA = heap[a];
+        int slotB = heap[b];
+        heap[a] = slotB;
+        heap[b] = slotA;
+        heapPosition[slotB] = a;
+        heapPosition[slotA] = b;
+    }
+}
@@ -0,0 +1,144 @@
+package com.inventory.management.backend.analytics;
+
+import com.inventory.management.backend.dto.SupplierAnalyticsDto;
+import com.inventory.management.backend.dto.SupplierTrendPointDto;
+import com.inventory.management.backend.entity.Transaction;
+import com.inventory.management.backend.event.TransactionRecordedEvent;
+import com.inventory.management.backend.repository.SupplierRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Supplier performance from per-supplier daily inbound totals and per-product monthly
+ * rows, which every IN journal entry adjusts in its own transaction. Queries read a
+ * row per supplier and day in the period, however long the journal.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class SupplierAnalytics {
+    private static final int RATIO_SCALE = 4;
+
+    private final SupplierStatsStore store;
+    private final SupplierRepository supplierRepository;
+
+    public enum Granularity {
+        DAY, WEEK, MONTH
+    }
+
+    /**
+     * Adds an appended journal entry to its supplier's totals; reversals subtract.
+     */
+    public void record(TransactionRecordedEvent entry) {
+        if (entry.getType() != Transaction.TransactionType.IN || entry.getSupplierId() == null) {
+            return;
+        }
+        int sign = entry.isReversal() ? -1 : 1;
+        BigDecimal value = entry.getTotalPrice() != null ? entry.getTotalPrice() : BigDecimal.ZERO;
+        store.add(entry.getSupplierId(), entry.getProductId(), entry.getTransactionDate().toLocalDate(),
+                (long) sign * entry.getQuantity(), value.multiply(BigDecimal.valueOf(sign)), sign);
+    }
+
+    /**
+     * Recomputes the totals from the journal a month per transaction, so writers only wait
+     * for the month being rebuilt.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuild() {
+        return store.rebuild();
+    }
+
+    @Transactional(readOnly = true)
+    public SupplierAnalyticsDto getAnalytics(Long supplierId, LocalDate from, LocalDate to, Granularity granularity) {
+        checkPeriod(from, to);
+        String name = supplierRepository.findById(supplierId)
+                .orElseThrow(() -> new RuntimeException("Supplier not found"))
+                .getName();
+
+        List<SupplierStatsStore.Totals> totals = store.totals(supplierId, from, to, 1);
+        SupplierAnalyticsDto dto = totals.isEmpty()
+                ? toDto(new SupplierStatsStore.Totals(supplierId, name, 0, BigDecimal.ZERO, 0), from, to, 0,
+                        store.totalValue(from, to))
+                : toDto(totals.get(0), from, to, store.skuCounts(List.of(supplierId), from, to)
+                        .getOrDefault(supplierId, 0), store.totalValue(from, to));
+
+        List<SupplierTrendPointDto> trend = new ArrayList<>();
+        for (SupplierStatsStore.Point point : store.trend(supplierId, from, to, granularity.name().toLowerCase())) {
+            trend.add(new SupplierTrendPointDto(point.periodStart(), point.quantity(), point.value(),
+                    unitPrice(point.value(), point.quantity())));
+        }
+        dto.setTrend(trend);
+        dto.setUnitPriceChange(priceChange(trend));
+        return dto;
+    }
+
+    /**
+     * Suppliers with inbound entries in the period, largest inbound value first.
+     */
+    @Transactional(readOnly = true)
+    public List<SupplierAnalyticsDto> getRanking(LocalDate from, LocalDate to, int limit) {
+        checkPeriod(from, to);
+        List<SupplierStatsStore.Totals> totals = store.totals(null, from, to, limit);
+        BigDecimal totalValue = store.totalValue(from, to);
+        Map<Long, Integer> skuCounts = store.skuCounts(
+                totals.stream().map(SupplierStatsStore.Totals::supplierId).toList(), from, to);
+
+        List<SupplierAnalyticsDto> ranking = new ArrayList<>(totals.size());
+        for (SupplierStatsStore.Totals supplier : totals) {
+            SupplierAnalyticsDto dto = toDto(supplier, from, to,
+                    skuCounts.getOrDefault(supplier.supplierId(), 0), totalValue);
+            dto.setRank(ranking.size() + 1);
+            ranking.add(dto);
+        }
+        return ranking;
+    }
+
+    private static void checkPeriod(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+
+    private static SupplierAnalyticsDto toDto(SupplierStatsStore.Totals totals, LocalDate from, LocalDate to,
+                                              int skuCount, BigDecimal totalValue) {
+        SupplierAnalyticsDto dto = new SupplierAnalyticsDto();
+        dto.setSupplierId(totals.supplierId());
+        dto.setSupplierName(totals.supplierName());
+        dto.setFrom(from);
+        dto.setTo(to);
+        dto.setReceivedQuantity(totals.quantity());
+        dto.setReceivedValue(totals.value());
+        dto.setEntries(totals.entries());
+        dto.setAverageUnitPrice(unitPrice(totals.value(), totals.quantity()));
+        dto.setSkuCount(skuCount);
+        dto.setShareOfInboundValue(totalValue.signum() > 0
+                ? totals.value().divide(totalValue, RATIO_SCALE, RoundingMode.HALF_UP)
+                : null);
+        return dto;
+    }
+
+    private static BigDecimal unitPrice(BigDecimal value, long quantity) {
+        return quantity > 0 ? value.divide(BigDecimal.valueOf(quantity), RATIO_SCALE, RoundingMode.HALF_UP) : null;
+    }
+
+    private static BigDecimal priceChange(List<SupplierTrendPointDto> trend) {
+        List<BigDecimal> prices = trend.stream()
+                .map(SupplierTrendPointDto::getAverageUnitPrice)
+                .filter(price -> price != null && price.signum() > 0)
+                .toList();
+        if (prices.size() < 2) {
+            return null;
+        }
+        BigDecimal first = prices.get(0);
+        return prices.get(prices.size() - 1).subtract(first).divide(first, RATIO_SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventory.management.backend.analytics;
+
+import com.inventory.management.backend.jobs.ClusterJob;
+import com.inventory.management.backend.jobs.JobContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Recomputes the supplier aggregates from the journal. The first run fills them for an
+ * existing journal; later runs repair entries attributed through a product whose
+ * supplier has since changed.
+ */
+@Component
+@RequiredArgsConstructor
+public class SupplierStatsRebuildJob implements ClusterJob {
+    public static final String NAME = "supplier-stats-rebuild";
+
+    private final SupplierAnalytics supplierAnalytics;
+
+    @Value("${inventory.analytics.supplier-stats.rebuild-interval-ms:604800000}")
+    private long intervalMs;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.ofMillis(intervalMs);
+    }
+
+    @Override
+    public void run(JobContext context) {
+        supplierAnalytics.rebuild();
+    }
+}
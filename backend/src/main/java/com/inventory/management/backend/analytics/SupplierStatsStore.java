@@ -0,0 +1,164 @@
+package com.inventory.management.backend.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * supplier_daily_stats and supplier_product_months over plain JDBC. Writers add deltas
+ * with upserts. A rebuild replaces both tables from the effective journal one calendar
+ * month at a time, each under a lock that only holds back writers of that month.
+ */
+@Component
+@RequiredArgsConstructor
+class SupplierStatsStore {
+    // First key of the per-month advisory locks, "SUPS"; the second is the month since 1970
+    private static final int MONTH_LOCK = 0x53555053;
+
+    // Both upserts in one statement, under the entry's month lock held shared until commit
+    private static final String ADD = "WITH month_lock AS (SELECT pg_advisory_xact_lock_shared(?, ?)), "
+            + "day_stats AS (INSERT INTO supplier_daily_stats (supplier_id, day, quantity, value, entries) "
+            + "SELECT CAST(? AS bigint), CAST(? AS date), CAST(? AS bigint), CAST(? AS numeric), CAST(? AS integer) "
+            + "FROM month_lock ON CONFLICT (supplier_id, day) DO UPDATE SET "
+            + "quantity = supplier_daily_stats.quantity + EXCLUDED.quantity, "
+            + "value = supplier_daily_stats.value + EXCLUDED.value, "
+            + "entries = supplier_daily_stats.entries + EXCLUDED.entries) "
+            + "INSERT INTO supplier_product_months (supplier_id, month, product_id, quantity, value) "
+            + "SELECT CAST(? AS bigint), CAST(? AS date), CAST(? AS bigint), CAST(? AS bigint), CAST(? AS numeric) "
+            + "FROM month_lock ON CONFLICT (supplier_id, month, product_id) DO UPDATE SET "
+            + "quantity = supplier_product_months.quantity + EXCLUDED.quantity, "
+            + "value = supplier_product_months.value + EXCLUDED.value";
+
+    // Effective IN entries with the same supplier attribution as TransactionRecordedEvent
+    private static final String INBOUND = "FROM transactions t JOIN products p ON p.id = t.product_id "
+            + "WHERE t.type = 'IN' AND COALESCE(t.supplier_id, p.supplier_id) IS NOT NULL "
+            + "AND t.entry_kind <> 'REVERSAL' AND NOT EXISTS (SELECT 1 FROM transactions c "
+            + "WHERE c.corrects_transaction_id IS NOT NULL AND c.corrects_transaction_id = t.id) "
+            + "AND t.transaction_date >= ? AND t.transaction_date < ? ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    record Totals(long supplierId, String supplierName, long quantity, BigDecimal value, int entries) {
+    }
+
+    record Point(LocalDate periodStart, long quantity, BigDecimal value) {
+    }
+
+    void add(long supplierId, long productId, LocalDate day, long quantity, BigDecimal value, int entries) {
+        LocalDate month = day.withDayOfMonth(1);
+        jdbcTemplate.update(ADD, MONTH_LOCK, monthKey(month), supplierId, day, quantity, value, entries,
+                supplierId, month, productId, quantity, value);
+    }
+
+    /**
+     * Recomputes both tables from the journal, each month in its own transaction; returns
+     * the number of months rebuilt.
+     */
+    int rebuild() {
+        LocalDate[] range = jdbcTemplate.queryForObject("SELECT LEAST(CAST((SELECT MIN(transaction_date) "
+                + "FROM transactions) AS date), (SELECT MIN(day) FROM supplier_daily_stats)), "
+                + "GREATEST(CAST((SELECT MAX(transaction_date) FROM transactions) AS date), "
+                + "(SELECT MAX(day) FROM supplier_daily_stats))", (rs, rowNum) -> new LocalDate[]{
+                rs.getObject(1, LocalDate.class), rs.getObject(2, LocalDate.class)});
+        if (range == null || range[0] == null) {
+            return 0;
+        }
+        TransactionTemplate monthTransaction = new TransactionTemplate(transactionManager);
+        int months = 0;
+        for (LocalDate month = range[0].withDayOfMonth(1); !month.isAfter(range[1]); month = month.plusMonths(1)) {
+            LocalDate start = month;
+            monthTransaction.executeWithoutResult(status -> rebuildMonth(start));
+            months++;
+        }
+        return months;
+    }
+
+    private void rebuildMonth(LocalDate month) {
+        // Waits for writers of the month still in flight and holds new ones back until commit;
+        // readers keep reading the previous contents meanwhile
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> {
+        }, MONTH_LOCK, monthKey(month));
+        LocalDate next = month.plusMonths(1);
+        LocalDateTime from = month.atStartOfDay();
+        LocalDateTime to = next.atStartOfDay();
+        jdbcTemplate.update("DELETE FROM supplier_daily_stats WHERE day >= ? AND day < ?", month, next);
+        jdbcTemplate.update("DELETE FROM supplier_product_months WHERE month = ?", month);
+        jdbcTemplate.update("INSERT INTO supplier_daily_stats (supplier_id, day, quantity, value, entries) "
+                + "SELECT COALESCE(t.supplier_id, p.supplier_id), CAST(t.transaction_date AS date), SUM(t.quantity), "
+                + "COALESCE(SUM(t.total_price), 0), COUNT(*) " + INBOUND + "GROUP BY 1, 2", from, to);
+        jdbcTemplate.update("INSERT INTO supplier_product_months (supplier_id, month, product_id, quantity, value) "
+                + "SELECT COALESCE(t.supplier_id, p.supplier_id), CAST(? AS date), t.product_id, SUM(t.quantity), "
+                + "COALESCE(SUM(t.total_price), 0) " + INBOUND + "GROUP BY 1, 3", month, from, to);
+    }
+
+    private static int monthKey(LocalDate month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1 - 1970 * 12;
+    }
+
+    /**
+     * Per-supplier totals between two days inclusive, largest value first; one supplier
+     * if {@code supplierId} is set.
+     */
+    List<Totals> totals(Long supplierId, LocalDate from, LocalDate to, int limit) {
+        List<Object> args = new ArrayList<>(List.of(from, to));
+        String sql = "SELECT d.supplier_id, s.name, SUM(d.quantity), SUM(d.value), SUM(d.entries) "
+                + "FROM supplier_daily_stats d JOIN suppliers s ON s.id = d.supplier_id "
+                + "WHERE d.day BETWEEN ? AND ? ";
+        if (supplierId != null) {
+            sql += "AND d.supplier_id = ? ";
+            args.add(supplierId);
+        }
+        sql += "GROUP BY d.supplier_id, s.name HAVING SUM(d.entries) > 0 ORDER BY SUM(d.value) DESC, d.supplier_id "
+                + "LIMIT ?";
+        args.add(limit);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Totals(rs.getLong(1), rs.getString(2), rs.getLong(3),
+                rs.getBigDecimal(4), rs.getInt(5)), args.toArray());
+    }
+
+    BigDecimal totalValue(LocalDate from, LocalDate to) {
+        BigDecimal total = jdbcTemplate.queryForObject("SELECT SUM(value) FROM supplier_daily_stats "
+                + "WHERE day BETWEEN ? AND ?", BigDecimal.class, from, to);
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
+    /**
+     * Distinct products each supplier delivered in the calendar months the period touches.
+     */
+    Map<Long, Integer> skuCounts(List<Long> supplierIds, LocalDate from, LocalDate to) {
+        Map<Long, Integer> counts = new HashMap<>();
+        if (supplierIds.isEmpty()) {
+            return counts;
+        }
+        jdbcTemplate.query("SELECT supplier_id, COUNT(DISTINCT product_id) FROM supplier_product_months "
+                + "WHERE supplier_id = ANY(?) AND month BETWEEN ? AND ? AND quantity > 0 GROUP BY supplier_id", ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", supplierIds.toArray()));
+            ps.setObject(2, from.withDayOfMonth(1));
+            ps.setObject(3, to);
+        }, rs -> {
+            counts.put(rs.getLong(1), rs.getInt(2));
+        });
+        return counts;
+    }
+
+    /**
+     * Inbound totals of one supplier per day, week or month, as named by PostgreSQL's
+     * date_trunc.
+     */
+    List<Point> trend(long supplierId, LocalDate from, LocalDate to, String unit) {
+        return jdbcTemplate.query("SELECT CAST(date_trunc(?, day) AS date), SUM(quantity), SUM(value) "
+                + "FROM supplier_daily_stats WHERE supplier_id = ? AND day BETWEEN ? AND ? GROUP BY 1 ORDER BY 1",
+                (rs, rowNum) -> new Point(rs.getObject(1, LocalDate.class), rs.getLong(2), rs.getBigDecimal(3)),
+                unit, supplierId, from, to);
+    }
+}
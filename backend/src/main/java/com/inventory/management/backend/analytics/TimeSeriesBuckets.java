@@ -0,0 +1,75 @@
+package com.inventory.management.backend.analytics;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Fixed-width buckets between two instants, filled from journal entries newest first.
+ * Each bucket keeps the lowest, highest and closing stock level and the price range of
+ * its IN and OUT entries, so a chart keeps its spikes however many entries it covers.
+ */
+class TimeSeriesBuckets {
+    final int size;
+    final long[] stockMin;
+    final long[] stockMax;
+    final long[] stockLast;
+    final int[] entries;
+    final BigDecimal[][] purchasePrice;
+    final BigDecimal[][] salePrice;
+
+    static final int MIN = 0;
+    static final int MAX = 1;
+    static final int LAST = 2;
+
+    TimeSeriesBuckets(int size) {
+        this.size = size;
+        stockMin = new long[size];
+        stockMax = new long[size];
+        stockLast = new long[size];
+        entries = new int[size];
+        purchasePrice = new BigDecimal[3][size];
+        salePrice = new BigDecimal[3][size];
+        Arrays.fill(stockMin, Long.MAX_VALUE);
+        Arrays.fill(stockMax, Long.MIN_VALUE);
+    }
+
+    /**
+     * Adds an entry that took the level from {@code before} to {@code after}; entries
+     * arrive newest first, so the first one in a bucket closes it.
+     */
+    void stock(int bucket, long before, long after) {
+        if (entries[bucket]++ == 0) {
+            stockLast[bucket] = after;
+        }
+        stockMin[bucket] = Math.min(stockMin[bucket], Math.min(before, after));
+        stockMax[bucket] = Math.max(stockMax[bucket], Math.max(before, after));
+    }
+
+    void price(BigDecimal[][] series, int bucket, BigDecimal price) {
+        if (series[LAST][bucket] == null) {
+            series[LAST][bucket] = price;
+            series[MIN][bucket] = price;
+            series[MAX][bucket] = price;
+            return;
+        }
+        series[MIN][bucket] = series[MIN][bucket].min(price);
+        series[MAX][bucket] = series[MAX][bucket].max(price);
+    }
+
+    /**
+     * Carries the level through buckets without entries, starting from the level at the
+     * start of the first bucket.
+     */
+    void fillGaps(long opening) {
+        long level = opening;
+        for (int bucket = 0; bucket < size; bucket++) {
+            if (entries[bucket] == 0) {
+                stockMin[bucket] = level;
+                stockMax[bucket] = level;
+                stockLast[bucket] = level;
+            } else {
+                level = stockLast[bucket];
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.inventory.management.backend.analytics;
+
+import com.inventory.management.backend.coalesce.Coalesced;
+import com.inventory.management.backend.dto.TransactionSummaryDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Transaction counts and values per hour, day, week, month or quarter in any timezone,
+ * optionally split by category, supplier and user, from one grouped query. Every group
+ * gets a row for each period, with zeros where it had no entries.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionSummaries {
+    private final TransactionSummaryStore store;
+
+    @Value("${inventory.summary.max-periods:10000}")
+    private int maxPeriods;
+
+    @Value("${inventory.summary.max-rows:100000}")
+    private int maxRows;
+
+    public enum Granularity {
+        HOUR("HOURLY"), DAY("DAILY"), WEEK("WEEKLY"), MONTH("MONTHLY"), QUARTER("QUARTERLY");
+
+        private final String label;
+
+        Granularity(String label) {
+            this.label = label;
+        }
+    }
+
+    public enum Dimension {
+        CATEGORY, SUPPLIER, USER
+    }
+
+    /**
+     * Summary from the start of {@code startDate} to the end of {@code endDate} in
+     * {@code zone}; the first period may start earlier when it is a week, month or quarter.
+     */
+    @Coalesced
+    @Transactional(readOnly = true)
+    public List<TransactionSummaryDto> summarize(LocalDate startDate, LocalDate endDate, Granularity granularity,
+                                                 ZoneId zone, Set<Dimension> groupBy) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        ZonedDateTime end = endDate.plusDays(1).atStartOfDay(zone);
+        List<ZonedDateTime> periods = new ArrayList<>();
+        for (ZonedDateTime period = truncate(startDate, granularity, zone); period.isBefore(end);
+             period = next(period, granularity, zone)) {
+            if (periods.size() == maxPeriods) {
+                throw new IllegalArgumentException("More than " + maxPeriods + " periods; choose a coarser granularity");
+            }
+            periods.add(period);
+        }
+        checkRows(periods.size(), 1);
+        Instant[] starts = periods.stream().map(ZonedDateTime::toInstant).toArray(Instant[]::new);
+
+        // Entry dates are local times of the zone the application runs in
+        ZoneId storedZone = ZoneId.systemDefault();
+        LocalDateTime from = startDate.atStartOfDay(zone).withZoneSameInstant(storedZone).toLocalDateTime();
+        LocalDateTime to = end.withZoneSameInstant(storedZone).toLocalDateTime();
+
+        List<TransactionSummaryDto> summary = new ArrayList<>();
+        TransactionSummaryDto[] group = new TransactionSummaryDto[starts.length];
+        TransactionSummaryStore.Row[] first = {null};
+        int[] groups = {0};
+        store.scan(granularity.name().toLowerCase(), zone, storedZone, from, to, groupBy, row -> {
+            if (first[0] == null || !sameGroup(first[0], row)) {
+                // Every group gets a row per period, so stop before the response outgrows the cap
+                checkRows(periods.size(), ++groups[0]);
+                if (first[0] != null) {
+                    fill(summary, group, first[0], periods, granularity);
+                }
+                Arrays.fill(group, null);
+                first[0] = row;
+            }
+            int index = Arrays.binarySearch(starts, row.periodStart());
+            // A period cut differently around a DST change falls into the one it starts in
+            index = index >= 0 ? index : Math.max(0, -index - 2);
+            if (group[index] == null) {
+                group[index] = summaryRow(row, periods.get(index), granularity);
+            }
+            add(group[index], row);
+        });
+        if (first[0] != null || groupBy.isEmpty()) {
+            fill(summary, group, first[0], periods, granularity);
+        }
+        return summary;
+    }
+
+    private void checkRows(int periods, int groups) {
+        if ((long) periods * groups > maxRows) {
+            throw new IllegalArgumentException("More than " + maxRows + " rows (" + periods + " periods for each of "
+                    + groups + " or more groups); choose a coarser granularity, a shorter range or fewer dimensions");
+        }
+    }
+
+    private static ZonedDateTime truncate(LocalDate date, Granularity granularity, ZoneId zone) {
+        LocalDate start = switch (granularity) {
+            case HOUR, DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case QUARTER -> date.withMonth(date.getMonth().firstMonthOfQuarter().getValue()).withDayOfMonth(1);
+        };
+        return start.atStartOfDay(zone);
+    }
+
+    private static ZonedDateTime next(ZonedDateTime period, Granularity granularity, ZoneId zone) {
+        LocalDate date = period.toLocalDate();
+        return switch (granularity) {
+            case HOUR -> period.plusHours(1);
+            case DAY -> date.plusDays(1).atStartOfDay(zone);
+            case WEEK -> date.plusWeeks(1).atStartOfDay(zone);
+            case MONTH -> date.plusMonths(1).atStartOfDay(zone);
+            case QUARTER -> date.plusMonths(3).atStartOfDay(zone);
+        };
+    }
+
+    private static boolean sameGroup(TransactionSummaryStore.Row a, TransactionSummaryStore.Row b) {
+        return Objects.equals(a.category(), b.category())
+                && Objects.equals(a.supplierId(), b.supplierId())
+                && Objects.equals(a.userId(), b.userId());
+    }
+
+    /**
+     * Appends a group's rows for every period, zero where it had no entries.
+     */
+    private static void fill(List<TransactionSummaryDto> summary, TransactionSummaryDto[] group,
+                             TransactionSummaryStore.Row key, List<ZonedDateTime> periods, Granularity granularity) {
+        for (int i = 0; i < group.length; i++) {
+            summary.add(group[i] != null ? group[i] : summaryRow(key, periods.get(i), granularity));
+        }
+    }
+
+    private static TransactionSummaryDto summaryRow(TransactionSummaryStore.Row key, ZonedDateTime period,
+                                                    Granularity granularity) {
+        TransactionSummaryDto dto = new TransactionSummaryDto();
+        dto.setDate(period.toLocalDate());
+        dto.setPeriodStart(period.toOffsetDateTime());
+        dto.setPeriod(granularity.label);
+        if (key != null) {
+            dto.setCategory(key.category());
+            dto.setSupplierId(key.supplierId());
+            dto.setSupplierName(key.supplierName());
+            dto.setUserId(key.userId());
+            dto.setUsername(key.username());
+        }
+        dto.setTotalTransactions(0L);
+        dto.setInTransactions(0L);
+        dto.setOutTransactions(0L);
+        dto.setTotalInValue(BigDecimal.ZERO);
+        dto.setTotalOutValue(BigDecimal.ZERO);
+        dto.setNetValue(BigDecimal.ZERO);
+        return dto;
+    }
+
+    private static void add(TransactionSummaryDto dto, TransactionSummaryStore.Row row) {
+        dto.setTotalTransactions(dto.getTotalTransactions() + row.total());
+        dto.setInTransactions(dto.getInTransactions() + row.in());
+        dto.setOutTransactions(dto.getOutTransactions() + row.out());
+        dto.setTotalInValue(dto.getTotalInValue().add(row.inValue()));
+        dto.setTotalOutValue(dto.getTotalOutValue().add(row.outValue()));
+        dto.setNetValue(dto.getTotalInValue().subtract(dto.getTotalOutValue()));
+    }
+}
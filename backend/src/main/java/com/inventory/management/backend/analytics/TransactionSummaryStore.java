@@ -0,0 +1,90 @@
+package com.inventory.management.backend.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Groups the effective journal by period and optional dimensions in one SQL statement.
+ * Periods are cut in the requested timezone by PostgreSQL's date_trunc, so hours stay
+ * hours and days start at local midnight across DST changes.
+ */
+@Component
+@RequiredArgsConstructor
+class TransactionSummaryStore {
+    private static final String EFFECTIVE = "t.entry_kind <> 'REVERSAL' AND NOT EXISTS (SELECT 1 FROM transactions c "
+            + "WHERE c.corrects_transaction_id IS NOT NULL AND c.corrects_transaction_id = t.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    record Row(Instant periodStart, String category, Long supplierId, String supplierName, Long userId,
+               String username, long total, long in, long out, BigDecimal inValue, BigDecimal outValue) {
+    }
+
+    /**
+     * Streams one row per period and dimension values with entries, ordered by the
+     * dimensions and then the period; {@code storedZone} is the zone entry dates are kept in.
+     */
+    void scan(String unit, ZoneId zone, ZoneId storedZone, LocalDateTime from, LocalDateTime to,
+              Set<TransactionSummaries.Dimension> groupBy, Consumer<Row> consumer) {
+        boolean byCategory = groupBy.contains(TransactionSummaries.Dimension.CATEGORY);
+        boolean bySupplier = groupBy.contains(TransactionSummaries.Dimension.SUPPLIER);
+        boolean byUser = groupBy.contains(TransactionSummaries.Dimension.USER);
+
+        List<String> keys = new ArrayList<>();
+        if (byCategory) {
+            keys.add("p.category");
+        }
+        if (bySupplier) {
+            keys.add("s.id");
+            keys.add("s.name");
+        }
+        if (byUser) {
+            keys.add("u.id");
+            keys.add("u.username");
+        }
+        keys.add("1");
+
+        String sql = "SELECT date_trunc(?, t.transaction_date AT TIME ZONE ?, ?), "
+                + (byCategory ? "p.category, " : "CAST(NULL AS varchar), ")
+                + (bySupplier ? "s.id, s.name, " : "CAST(NULL AS bigint), CAST(NULL AS varchar), ")
+                + (byUser ? "u.id, u.username, " : "CAST(NULL AS bigint), CAST(NULL AS varchar), ")
+                + "COUNT(*), SUM(CASE WHEN t.type = 'IN' THEN 1 ELSE 0 END), "
+                + "SUM(CASE WHEN t.type = 'OUT' THEN 1 ELSE 0 END), "
+                + "COALESCE(SUM(CASE WHEN t.type = 'IN' THEN t.total_price END), 0), "
+                + "COALESCE(SUM(CASE WHEN t.type = 'OUT' THEN t.total_price END), 0) "
+                + "FROM transactions t "
+                + (byCategory || bySupplier ? "JOIN products p ON p.id = t.product_id " : "")
+                + (bySupplier ? "LEFT JOIN suppliers s ON s.id = COALESCE(t.supplier_id, p.supplier_id) " : "")
+                + (byUser ? "JOIN users u ON u.id = t.user_id " : "")
+                + "WHERE t.transaction_date >= ? AND t.transaction_date < ? AND " + EFFECTIVE + " "
+                + "GROUP BY " + String.join(", ", keys) + " ORDER BY " + String.join(", ", keys);
+
+        jdbcTemplate.query(sql, rs -> {
+            consumer.accept(new Row(rs.getObject(1, OffsetDateTime.class).toInstant(), rs.getString(2),
+                    (Long) rs.getObject(3), rs.getString(4), (Long) rs.getObject(5), rs.getString(6),
+                    rs.getLong(7), rs.getLong(8), rs.getLong(9), rs.getBigDecimal(10), rs.getBigDecimal(11)));
+        }, unit, postgresZone(storedZone), postgresZone(zone), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    static String postgresZone(ZoneId zone) {
+        if (zone.normalized() instanceof ZoneOffset offset) {
+            // PostgreSQL reads numeric zone names with the POSIX sign, positive west of Greenwich
+            int seconds = offset.getTotalSeconds();
+            return seconds == 0 ? "UTC" : ZoneOffset.ofTotalSeconds(-seconds).getId();
+        }
+        return zone.getId();
+    }
+}
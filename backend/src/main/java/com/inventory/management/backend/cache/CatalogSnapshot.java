@@ -0,0 +1,16 @@
+package com.inventory.management.backend.cache;
+
+import java.util.List;
+
+/**
+ * Point-in-time copy of {@link CatalogStore}. Every change with a catalog version up to
+ * {@code version} is included; {@code schemaFingerprint} identifies the tables it was
+ * read from so a snapshot never outlives a recreated schema.
+ */
+public record CatalogSnapshot(
+        long version,
+        String schemaFingerprint,
+        List<ProductRecord> products,
+        List<SupplierRecord> suppliers,
+        List<UserRecord> users) {
+}
@@ -0,0 +1,262 @@
+package com.inventory.management.backend.cache;
+
+import com.inventory.management.backend.entity.User;
+import com.inventory.management.backend.service.CatalogVersionService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Warms {@link CatalogStore} on startup and keeps a compact binary snapshot of it on
+ * local disk. A restarted node maps the snapshot file and serves from it within
+ * milliseconds, then reads only the rows changed after the snapshot's catalog version,
+ * instead of loading the whole catalog from the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSnapshotService {
+    private static final int MAGIC = 0x494E5643; // "INVC"
+    private static final int FORMAT_VERSION = 1;
+
+    private final CatalogStore catalogStore;
+    private final CatalogVersionService catalogVersionService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${inventory.catalog.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.catalog.snapshot.file:${java.io.tmpdir}/inventory-catalog.snapshot}")
+    private String file;
+
+    private Path snapshotFile;
+    private volatile String schemaFingerprint;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long started = System.nanoTime();
+        snapshotFile = Paths.get(file).toAbsolutePath();
+        schemaFingerprint = readSchemaFingerprint();
+
+        Optional<CatalogSnapshot> snapshot = enabled ? readSnapshot() : Optional.empty();
+        if (snapshot.isPresent()) {
+            int caughtUp = catalogStore.loadFromSnapshot(snapshot.get());
+            log.info("Catalog store warmed from snapshot at version {} ({} products), {} changes caught up in {} ms",
+                    snapshot.get().version(), snapshot.get().products().size(), caughtUp, elapsedMs(started));
+        } else {
+            catalogStore.loadFromDatabase();
+            log.info("Catalog store loaded {} products from the database in {} ms",
+                    catalogStore.size(), elapsedMs(started));
+        }
+        log.info("Catalog store holds ~{} bytes per product",
+                catalogStore.size() == 0 ? 0 : catalogStore.estimatedBytes() / catalogStore.size());
+    }
+
+    @Scheduled(initialDelayString = "${inventory.catalog.snapshot.interval-ms:300000}",
+               fixedDelayString = "${inventory.catalog.snapshot.interval-ms:300000}")
+    public void writeSnapshot() {
+        if (!enabled || !catalogStore.isLoaded()) {
+            return;
+        }
+
+        // Version first: every change up to it is already applied to the store
+        CatalogSnapshot snapshot = catalogStore.snapshot(catalogVersionService.getVersion(), schemaFingerprint);
+        Path partial = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".part");
+        try {
+            Files.createDirectories(snapshotFile.getParent());
+            write(snapshot, partial);
+            Files.move(partial, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote catalog snapshot at version {} ({} bytes)", snapshot.version(), Files.size(snapshotFile));
+        } catch (IOException e) {
+            log.warn("Could not write catalog snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        // A snapshot taken on shutdown gives the next start the least to catch up
+        writeSnapshot();
+    }
+
+    private String readSchemaFingerprint() {
+        // Table oids change whenever the schema is recreated, e.g. with ddl-auto create-drop
+        return jdbcTemplate.queryForObject("SELECT string_agg(relname || ':' || oid, ',' ORDER BY relname) "
+                + "FROM pg_class WHERE relkind = 'r' AND pg_table_is_visible(oid) "
+                + "AND relname IN ('products', 'product_stock_shards', 'suppliers', 'users')", String.class);
+    }
+
+    private void write(CatalogSnapshot snapshot, Path target) throws IOException {
+        CRC32 checksum = new CRC32();
+        try (BufferedOutputStream buffered = new BufferedOutputStream(Files.newOutputStream(target), 64 * 1024)) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, checksum));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(snapshot.version());
+            writeString(out, snapshot.schemaFingerprint());
+
+            out.writeInt(snapshot.products().size());
+            for (ProductRecord product : snapshot.products()) {
+                out.writeLong(product.id());
+                writeString(out, product.name());
+                writeString(out, product.category());
+                writeString(out, product.sku());
+                writeString(out, product.description());
+                out.writeLong(product.priceInCents());
+                out.writeLong(product.priceOutCents());
+                out.writeInt(product.stock());
+                out.writeInt(product.minimumStock());
+                out.writeInt(product.stockShards());
+                out.writeLong(product.supplierId());
+                writeString(out, product.supplierName());
+                out.writeBoolean(product.active());
+                out.writeLong(product.createdAtMicros());
+                out.writeLong(product.updatedAtMicros());
+                out.writeLong(product.freshness());
+            }
+
+            out.writeInt(snapshot.suppliers().size());
+            for (SupplierRecord supplier : snapshot.suppliers()) {
+                out.writeLong(supplier.id());
+                writeString(out, supplier.name());
+                writeString(out, supplier.address());
+                writeString(out, supplier.phone());
+                writeString(out, supplier.email());
+                writeString(out, supplier.contactPerson());
+                out.writeBoolean(supplier.active());
+                out.writeLong(supplier.createdAtMicros());
+                out.writeLong(supplier.updatedAtMicros());
+                out.writeLong(supplier.freshness());
+            }
+
+            out.writeInt(snapshot.users().size());
+            for (UserRecord user : snapshot.users()) {
+                out.writeLong(user.id());
+                writeString(out, user.username());
+                writeString(out, user.email());
+                out.writeByte(user.role().ordinal());
+                out.writeBoolean(user.active());
+                out.writeLong(user.freshness());
+            }
+            out.flush();
+
+            // Trailer is outside the checksummed region
+            new DataOutputStream(buffered).writeLong(checksum.getValue());
+        }
+    }
+
+    private Optional<CatalogSnapshot> readSnapshot() {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return Optional.ofNullable(decode(buffer));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable catalog snapshot {}: {}", snapshotFile, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private CatalogSnapshot decode(ByteBuffer buffer) {
+        int bodyLength = buffer.limit() - Long.BYTES;
+        if (bodyLength < 0) {
+            log.warn("Ignoring truncated catalog snapshot {}", snapshotFile);
+            return null;
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.duplicate().limit(bodyLength));
+        if (buffer.getLong(bodyLength) != checksum.getValue()) {
+            log.warn("Ignoring catalog snapshot {} with a bad checksum", snapshotFile);
+            return null;
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            log.warn("Ignoring catalog snapshot {} in an unknown format", snapshotFile);
+            return null;
+        }
+
+        long version = buffer.getLong();
+        String fingerprint = readString(buffer);
+        if (!fingerprint.equals(schemaFingerprint)) {
+            log.info("Ignoring catalog snapshot {} taken against a different schema", snapshotFile);
+            return null;
+        }
+        if (version > catalogVersionService.getVersion()) {
+            log.warn("Ignoring catalog snapshot {} from the future (version {})", snapshotFile, version);
+            return null;
+        }
+
+        int productCount = buffer.getInt();
+        List<ProductRecord> products = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            products.add(new ProductRecord(buffer.getLong(), readString(buffer), readString(buffer),
+                    readString(buffer), readString(buffer), buffer.getLong(), buffer.getLong(),
+                    buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong(), readString(buffer),
+                    buffer.get() != 0, buffer.getLong(), buffer.getLong(), buffer.getLong()));
+        }
+
+        int supplierCount = buffer.getInt();
+        List<SupplierRecord> suppliers = new ArrayList<>(supplierCount);
+        for (int i = 0; i < supplierCount; i++) {
+            suppliers.add(new SupplierRecord(buffer.getLong(), readString(buffer), readString(buffer),
+                    readString(buffer), readString(buffer), readString(buffer), buffer.get() != 0,
+                    buffer.getLong(), buffer.getLong(), buffer.getLong()));
+        }
+
+        int userCount = buffer.getInt();
+        List<UserRecord> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            users.add(new UserRecord(buffer.getLong(), readString(buffer), readString(buffer),
+                    User.Role.values()[buffer.get()], buffer.get() != 0, buffer.getLong()));
+        }
+
+        return new CatalogSnapshot(version, fingerprint, products, suppliers, users);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long elapsedMs(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+}
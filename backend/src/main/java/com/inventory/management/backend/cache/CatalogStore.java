@@ -0,0 +1,527 @@
+package com.inventory.management.backend.cache;
+
+import com.inventory.management.backend.coherence.CoherenceListener;
+import com.inventory.management.backend.coherence.RemoteChanges;
+import com.inventory.management.backend.entity.User;
+import com.inventory.management.backend.event.ProductChangedEvent;
+import com.inventory.management.backend.event.StockChangedEvent;
+import com.inventory.management.backend.event.SupplierChangedEvent;
+import com.inventory.management.backend.event.UserChangedEvent;
+import com.inventory.management.backend.workload.WorkloadClass;
+import com.inventory.management.backend.workload.WorkloadContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process read replica of the product catalog, suppliers and the users behind
+ * access tokens. Records are read with plain JDBC (no entity hydration), either all at
+ * once or on top of a {@link CatalogSnapshot}, and refreshed after every committed
+ * change, local or reported by the coherence bus. Each record carries the highest
+ * catalog change marker it was read at, so a slow refresh can never overwrite a newer one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogStore implements CoherenceListener {
+    private static final String SELECT_PRODUCTS = "SELECT p.id, p.name, p.category, p.sku, p.description, "
+            + "p.price_in, p.price_out, p.stock, p.minimum_stock, p.stock_shards, s.id, s.name, p.active, "
+            + "p.created_at, p.updated_at, "
+            + "(SELECT COALESCE(SUM(sh.quantity), 0) FROM product_stock_shards sh WHERE sh.product_id = p.id), "
+            + "GREATEST(COALESCE(p.change_version, 0), COALESCE(s.change_version, 0), "
+            + "COALESCE((SELECT MAX(sh.change_version) FROM product_stock_shards sh WHERE sh.product_id = p.id), 0)) "
+            + "FROM products p LEFT JOIN suppliers s ON s.id = p.supplier_id";
+    private static final String PRODUCTS_CHANGED_SINCE = "p.id IN ("
+            + "SELECT id FROM products WHERE change_version > ? "
+            + "UNION SELECT id FROM products WHERE supplier_id IN (SELECT id FROM suppliers WHERE change_version > ?) "
+            + "UNION SELECT product_id FROM product_stock_shards WHERE change_version > ?)";
+    private static final String SELECT_SUPPLIERS = "SELECT id, name, address, phone, email, contact_person, active, "
+            + "created_at, updated_at, COALESCE(change_version, 0) FROM suppliers";
+    private static final String SELECT_USERS = "SELECT id, username, email, role, active, COALESCE(change_version, 0) "
+            + "FROM users";
+    private static final Comparator<ProductRecord> BY_ID = Comparator.comparingLong(ProductRecord::id);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongObjectMap<ProductRecord> products = new LongObjectMap<>();
+    private final LongObjectMap<ProductRecord> activeProducts = new LongObjectMap<>();
+    private final Map<String, LongObjectMap<ProductRecord>> activeByCategory = new HashMap<>();
+    private final LongObjectMap<LongObjectMap<ProductRecord>> activeBySupplier = new LongObjectMap<>();
+    // Keyed by case-folded SKU, the same matching as ProductRepository.existsBySkuIgnoreCase
+    private final Map<String, ProductRecord> activeBySku = new HashMap<>();
+    private final LongObjectMap<SupplierRecord> suppliers = new LongObjectMap<>();
+    // Inactive users stay in users so their freshness still guards against stale refreshes
+    private final LongObjectMap<UserRecord> users = new LongObjectMap<>();
+    private final Map<String, UserRecord> activeUsersByUsername = new HashMap<>();
+
+    // Categories and supplier names repeat across many products, keep one copy of each
+    private final Map<String, String> sharedStrings = new ConcurrentHashMap<>();
+    private final AtomicLong sharedStringBytes = new AtomicLong();
+    private long recordBytes;
+
+    private volatile boolean loaded;
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    void start() {
+        // Refreshes run after the writer's commit, they need a fresh transaction of their own
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+
+        Gauge.builder("inventory.catalog.products", this, CatalogStore::size).register(meterRegistry);
+        Gauge.builder("inventory.catalog.memory", this, CatalogStore::estimatedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public void loadFromDatabase() {
+        read(WorkloadClass.READ, status -> {
+            applyProducts(jdbcTemplate.query(SELECT_PRODUCTS, this::mapProduct));
+            applySuppliers(jdbcTemplate.query(SELECT_SUPPLIERS, this::mapSupplier));
+            applyUsers(jdbcTemplate.query(SELECT_USERS, this::mapUser));
+            return null;
+        });
+        loaded = true;
+    }
+
+    /**
+     * Serves the snapshot right away, then reads everything changed after it was taken.
+     * Returns the number of rows caught up.
+     */
+    public int loadFromSnapshot(CatalogSnapshot snapshot) {
+        applyProducts(snapshot.products().stream().map(this::withSharedStrings).toList());
+        applySuppliers(snapshot.suppliers());
+        applyUsers(snapshot.users());
+        loaded = true;
+        return catchUp(snapshot.version());
+    }
+
+    /**
+     * Reads everything changed after the given catalog version, returns the number of rows.
+     */
+    public int catchUp(long since) {
+        Integer caughtUp = read(WorkloadClass.READ, status -> {
+            List<ProductRecord> changedProducts = jdbcTemplate.query(
+                    SELECT_PRODUCTS + " WHERE " + PRODUCTS_CHANGED_SINCE, this::mapProduct, since, since, since);
+            List<SupplierRecord> changedSuppliers = jdbcTemplate.query(
+                    SELECT_SUPPLIERS + " WHERE change_version > ?", this::mapSupplier, since);
+            List<UserRecord> changedUsers = jdbcTemplate.query(
+                    SELECT_USERS + " WHERE change_version > ?", this::mapUser, since);
+            applyProducts(changedProducts);
+            applySuppliers(changedSuppliers);
+            applyUsers(changedUsers);
+            return changedProducts.size() + changedSuppliers.size() + changedUsers.size();
+        });
+        return caughtUp != null ? caughtUp : 0;
+    }
+
+    public CatalogSnapshot snapshot(long version, String schemaFingerprint) {
+        lock.readLock().lock();
+        try {
+            List<SupplierRecord> supplierList = new ArrayList<>(suppliers.size());
+            suppliers.forEachValue(supplierList::add);
+            return new CatalogSnapshot(version, schemaFingerprint, sorted(products), supplierList,
+                    new ArrayList<>(activeUsersByUsername.values()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public ProductRecord getProduct(long id) {
+        lock.readLock().lock();
+        try {
+            return products.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ProductRecord> getActiveProducts() {
+        lock.readLock().lock();
+        try {
+            return sorted(activeProducts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ProductRecord> getActiveProductsByCategory(String category) {
+        lock.readLock().lock();
+        try {
+            return sorted(activeByCategory.get(category));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ProductRecord> getActiveProductsBySupplier(long supplierId) {
+        lock.readLock().lock();
+        try {
+            return supplierId == 0 ? List.of() : sorted(activeBySupplier.get(supplierId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ProductRecord getActiveProductBySku(String sku) {
+        String key = skuKey(sku);
+        lock.readLock().lock();
+        try {
+            return activeBySku.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SupplierRecord getSupplier(long id) {
+        lock.readLock().lock();
+        try {
+            return suppliers.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<SupplierRecord> getSuppliers(boolean activeOnly) {
+        lock.readLock().lock();
+        try {
+            List<SupplierRecord> result = new ArrayList<>(suppliers.size());
+            suppliers.forEachValue(supplier -> {
+                if (supplier.active() || !activeOnly) {
+                    result.add(supplier);
+                }
+            });
+            result.sort(Comparator.comparingLong(SupplierRecord::id));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public UserRecord getUser(long id) {
+        lock.readLock().lock();
+        try {
+            return users.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public UserRecord getActiveUser(String username) {
+        lock.readLock().lock();
+        try {
+            return activeUsersByUsername.get(username);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            // Slot arrays of the primary map: one long key and one reference per slot
+            return recordBytes + sharedStringBytes.get() + products.capacity() * 12L;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        applyProducts(queryProducts("p.id = ?", event.getProductId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        applyProducts(queryProducts("p.id = ?", event.getProductId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSupplierChanged(SupplierChangedEvent event) {
+        applySuppliers(read(WorkloadClass.REFRESH, status ->
+                jdbcTemplate.query(SELECT_SUPPLIERS + " WHERE id = ?", this::mapSupplier, event.getSupplierId())));
+        applyProducts(queryProducts("p.supplier_id = ?", event.getSupplierId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        applyUsers(read(WorkloadClass.REFRESH, status ->
+                jdbcTemplate.query(SELECT_USERS + " WHERE id = ?", this::mapUser, event.getUserId())));
+    }
+
+    @Override
+    public void onRemoteChanges(RemoteChanges changes) {
+        if (!changes.touchesCatalog()) {
+            return;
+        }
+        // One query per kind and chunk of ids for the whole batch
+        read(WorkloadClass.READ, status -> {
+            for (List<Long> ids : RemoteChanges.chunks(changes.suppliers())) {
+                applySuppliers(jdbcTemplate.query(SELECT_SUPPLIERS + " WHERE " + in("id", ids),
+                        this::mapSupplier, ids.toArray()));
+            }
+            for (List<Long> ids : RemoteChanges.chunks(changes.products())) {
+                applyProducts(jdbcTemplate.query(SELECT_PRODUCTS + " WHERE " + in("p.id", ids),
+                        this::mapProduct, ids.toArray()));
+            }
+            for (List<Long> ids : RemoteChanges.chunks(changes.suppliers())) {
+                applyProducts(jdbcTemplate.query(SELECT_PRODUCTS + " WHERE " + in("p.supplier_id", ids),
+                        this::mapProduct, ids.toArray()));
+            }
+            for (List<Long> ids : RemoteChanges.chunks(changes.users())) {
+                applyUsers(jdbcTemplate.query(SELECT_USERS + " WHERE " + in("id", ids),
+                        this::mapUser, ids.toArray()));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void onResync(long sinceVersion) {
+        if (loaded) {
+            log.info("Catalog store caught up {} changes after version {}", catchUp(sinceVersion), sinceVersion);
+        }
+    }
+
+    private <T> T read(WorkloadClass workload, TransactionCallback<T> action) {
+        // After a local commit the writer still holds its connection. Its refresh borrows a
+        // second one from the refresh pool, so writers neither deadlock on their own pool nor
+        // wait behind saturated reads.
+        WorkloadClass previous = WorkloadContext.current();
+        WorkloadContext.set(workload);
+        try {
+            return readTransaction.execute(action);
+        } finally {
+            WorkloadContext.set(previous);
+        }
+    }
+
+    private List<ProductRecord> queryProducts(String condition, Long key) {
+        return read(WorkloadClass.REFRESH, status ->
+                jdbcTemplate.query(SELECT_PRODUCTS + " WHERE " + condition, this::mapProduct, key));
+    }
+
+    private void applyProducts(List<ProductRecord> records) {
+        lock.writeLock().lock();
+        try {
+            for (ProductRecord record : records) {
+                ProductRecord existing = products.get(record.id());
+                if (existing != null) {
+                    if (existing.freshness() > record.freshness()) {
+                        continue;
+                    }
+                    unindex(existing);
+                    recordBytes -= existing.estimatedBytes();
+                }
+                products.put(record.id(), record);
+                recordBytes += record.estimatedBytes();
+                index(record);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applySuppliers(List<SupplierRecord> records) {
+        lock.writeLock().lock();
+        try {
+            for (SupplierRecord record : records) {
+                SupplierRecord existing = suppliers.get(record.id());
+                if (existing == null || existing.freshness() <= record.freshness()) {
+                    suppliers.put(record.id(), record);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyUsers(List<UserRecord> records) {
+        lock.writeLock().lock();
+        try {
+            for (UserRecord record : records) {
+                UserRecord existing = users.get(record.id());
+                if (existing != null) {
+                    if (existing.freshness() > record.freshness()) {
+                        continue;
+                    }
+                    // Usernames can change, drop the old mapping before adding the new one
+                    activeUsersByUsername.remove(existing.username(), existing);
+                }
+                users.put(record.id(), record);
+                if (record.active()) {
+                    activeUsersByUsername.put(record.username(), record);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(ProductRecord record) {
+        if (!record.active()) {
+            return;
+        }
+        activeProducts.put(record.id(), record);
+        if (record.sku() != null) {
+            activeBySku.put(skuKey(record.sku()), record);
+        }
+        if (record.category() != null) {
+            activeByCategory.computeIfAbsent(record.category(), key -> new LongObjectMap<>()).put(record.id(), record);
+        }
+        if (record.hasSupplier()) {
+            LongObjectMap<ProductRecord> supplierProducts = activeBySupplier.get(record.supplierId());
+            if (supplierProducts == null) {
+                supplierProducts = new LongObjectMap<>();
+                activeBySupplier.put(record.supplierId(), supplierProducts);
+            }
+            supplierProducts.put(record.id(), record);
+        }
+    }
+
+    private void unindex(ProductRecord record) {
+        if (!record.active()) {
+            return;
+        }
+        activeProducts.remove(record.id());
+        if (record.sku() != null) {
+            activeBySku.remove(skuKey(record.sku()), record);
+        }
+        if (record.category() != null) {
+            LongObjectMap<ProductRecord> categoryProducts = activeByCategory.get(record.category());
+            categoryProducts.remove(record.id());
+            if (categoryProducts.isEmpty()) {
+                activeByCategory.remove(record.category());
+            }
+        }
+        if (record.hasSupplier()) {
+            LongObjectMap<ProductRecord> supplierProducts = activeBySupplier.get(record.supplierId());
+            supplierProducts.remove(record.id());
+            if (supplierProducts.isEmpty()) {
+                activeBySupplier.remove(record.supplierId());
+            }
+        }
+    }
+
+    private ProductRecord mapProduct(ResultSet rs, int rowNum) throws SQLException {
+        int stockShards = rs.getObject(10) != null ? rs.getInt(10) : 1;
+        int stock = stockShards > 1 ? rs.getInt(16) : rs.getInt(8);
+        return new ProductRecord(
+                rs.getLong(1),
+                rs.getString(2),
+                shared(rs.getString(3)),
+                rs.getString(4),
+                rs.getString(5),
+                ProductRecord.toCents(rs.getBigDecimal(6)),
+                ProductRecord.toCents(rs.getBigDecimal(7)),
+                stock,
+                rs.getInt(9),
+                stockShards,
+                rs.getLong(11),
+                shared(rs.getString(12)),
+                rs.getBoolean(13),
+                ProductRecord.toMicros(rs.getObject(14, LocalDateTime.class)),
+                ProductRecord.toMicros(rs.getObject(15, LocalDateTime.class)),
+                rs.getLong(17));
+    }
+
+    private SupplierRecord mapSupplier(ResultSet rs, int rowNum) throws SQLException {
+        return new SupplierRecord(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getString(6),
+                rs.getBoolean(7),
+                ProductRecord.toMicros(rs.getObject(8, LocalDateTime.class)),
+                ProductRecord.toMicros(rs.getObject(9, LocalDateTime.class)),
+                rs.getLong(10));
+    }
+
+    private UserRecord mapUser(ResultSet rs, int rowNum) throws SQLException {
+        return new UserRecord(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                User.Role.valueOf(rs.getString(4)),
+                rs.getBoolean(5),
+                rs.getLong(6));
+    }
+
+    private ProductRecord withSharedStrings(ProductRecord record) {
+        return new ProductRecord(record.id(), record.name(), shared(record.category()), record.sku(),
+                record.description(), record.priceInCents(), record.priceOutCents(), record.stock(),
+                record.minimumStock(), record.stockShards(), record.supplierId(), shared(record.supplierName()),
+                record.active(), record.createdAtMicros(), record.updatedAtMicros(), record.freshness());
+    }
+
+    private String shared(String value) {
+        if (value == null) {
+            return null;
+        }
+        return sharedStrings.computeIfAbsent(value, key -> {
+            sharedStringBytes.addAndGet(ProductRecord.stringBytes(key));
+            return key;
+        });
+    }
+
+    private static String skuKey(String sku) {
+        return sku.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String in(String column, List<Long> ids) {
+        return column + " IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+    }
+
+    private static List<ProductRecord> sorted(LongObjectMap<ProductRecord> records) {
+        if (records == null) {
+            return List.of();
+        }
+        List<ProductRecord> result = new ArrayList<>(records.size());
+        records.forEachValue(result::add);
+        result.sort(BY_ID);
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package com.inventory.management.backend.cache;
+
+import com.inventory.management.backend.coherence.CoherenceListener;
+import com.inventory.management.backend.coherence.RemoteChanges;
+import com.inventory.management.backend.entity.Product;
+import com.inventory.management.backend.entity.Supplier;
+import com.inventory.management.backend.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Keeps the Hibernate second-level cache coherent across nodes by evicting entities that
+ * the coherence bus reports as written elsewhere. The writing node's own entries are
+ * already updated by Hibernate.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheInvalidator implements CoherenceListener {
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void onRemoteChanges(RemoteChanges changes) {
+        evict(Product.class, changes.products());
+        evict(Supplier.class, changes.suppliers());
+        evict(User.class, changes.users());
+        if (!changes.suppliers().isEmpty() || !changes.users().isEmpty()) {
+            // This node's update timestamps never saw the remote writes
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+        }
+    }
+
+    @Override
+    public void onResync(long sinceVersion) {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private void evict(Class<?> entity, Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Cache cache = entityManagerFactory.getCache();
+        for (Long id : ids) {
+            cache.evict(entity, id);
+        }
+        meterRegistry.counter("inventory.cache.l2.remote_evictions", "entity", entity.getSimpleName())
+                .increment(ids.size());
+    }
+}
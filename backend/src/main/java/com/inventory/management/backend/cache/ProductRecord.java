@@ -0,0 +1,80 @@
+package com.inventory.management.backend.cache;
+
+import com.inventory.management.backend.dto.ProductDto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Immutable, flat copy of a product as served by {@link CatalogStore}. Prices are kept
+ * as cents, timestamps as epoch microseconds and a missing supplier as {@code 0}, so a
+ * record is one object plus its strings instead of an entity graph.
+ */
+public record ProductRecord(
+        long id,
+        String name,
+        String category,
+        String sku,
+        String description,
+        long priceInCents,
+        long priceOutCents,
+        int stock,
+        int minimumStock,
+        int stockShards,
+        long supplierId,
+        String supplierName,
+        boolean active,
+        long createdAtMicros,
+        long updatedAtMicros,
+        long freshness) {
+
+    // Object header plus the fields above with compressed references, rounded to 8 bytes
+    private static final int SHALLOW_BYTES = 104;
+
+    public boolean hasSupplier() {
+        return supplierId != 0;
+    }
+
+    public ProductDto toDto() {
+        return new ProductDto(id, name, category, sku, description,
+                BigDecimal.valueOf(priceInCents, 2), BigDecimal.valueOf(priceOutCents, 2),
+                stock, minimumStock, stockShards,
+                hasSupplier() ? supplierId : null, supplierName, active,
+                fromMicros(createdAtMicros), fromMicros(updatedAtMicros));
+    }
+
+    /**
+     * Bytes retained by this record, not counting category and supplier name strings
+     * which {@link CatalogStore} shares between records.
+     */
+    public long estimatedBytes() {
+        return SHALLOW_BYTES + stringBytes(name) + stringBytes(sku) + stringBytes(description);
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValueExact();
+    }
+
+    public static long toMicros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return Long.MIN_VALUE;
+        }
+        Instant instant = dateTime.toInstant(ZoneOffset.UTC);
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        if (micros == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    static long stringBytes(String value) {
+        // String object plus its byte[] (compact Latin-1 strings, 16 byte array header)
+        return value == null ? 0 : 24 + ((16 + value.length() + 7) & ~7);
+    }
+}
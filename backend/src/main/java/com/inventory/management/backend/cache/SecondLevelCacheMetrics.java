@@ -0,0 +1,48 @@
+package com.inventory.management.backend.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes hits, misses and the hit ratio of every Hibernate second-level cache region.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics {
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void register() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            FunctionCounter.builder("inventory.cache.l2.requests", regionStatistics, CacheRegionStatistics::getHitCount)
+                    .tags("region", region, "result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("inventory.cache.l2.requests", regionStatistics, CacheRegionStatistics::getMissCount)
+                    .tags("region", region, "result", "miss")
+                    .register(meterRegistry);
+            Gauge.builder("inventory.cache.l2.hit_ratio", regionStatistics, SecondLevelCacheMetrics::hitRatio)
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static double hitRatio(CacheRegionStatistics statistics) {
+        long hits = statistics.getHitCount();
+        long requests = hits + statistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) hits / requests;
+    }
+}
@@ -0,0 +1,24 @@
+package com.inventory.management.backend.cache;
+
+import com.inventory.management.backend.dto.SupplierDto;
+
+/**
+ * Immutable copy of a supplier as served by {@link CatalogStore}.
+ */
+public record SupplierRecord(
+        long id,
+        String name,
+        String address,
+        String phone,
+        String email,
+        String contactPerson,
+        boolean active,
+        long createdAtMicros,
+        long updatedAtMicros,
+        long freshness) {
+
+    public SupplierDto toDto() {
+        return new SupplierDto(id, name, address, phone, email, contactPerson, active,
+                ProductRecord.fromMicros(createdAtMicros), ProductRecord.fromMicros(updatedAtMicros));
+    }
+}
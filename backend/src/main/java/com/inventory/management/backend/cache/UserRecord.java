@@ -0,0 +1,17 @@
+package com.inventory.management.backend.cache;
+
+import com.inventory.management.backend.entity.User;
+
+/**
+ * What token authentication needs to know about a user. Password hashes are left out
+ * on purpose: logins always check credentials against the database, and records are
+ * written to the catalog snapshot file.
+ */
+public record UserRecord(
+        long id,
+        String username,
+        String email,
+        User.Role role,
+        boolean active,
+        long freshness) {
+}
@@ -0,0 +1,10 @@
+package com.inventory.management.backend.classification;
+
+import com.inventory.management.backend.entity.ProductClassification;
+
+/**
+ * ABC and XYZ class of a product from the latest classification run.
+ */
+public record Classification(long productId, ProductClassification.AbcClass abcClass,
+                             ProductClassification.XyzClass xyzClass) {
+}
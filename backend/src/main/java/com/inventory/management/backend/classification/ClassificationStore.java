@@ -0,0 +1,157 @@
+package com.inventory.management.backend.classification;
+
+import com.inventory.management.backend.entity.ProductClassification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streams products and journal entries into {@link ConsumptionColumns} and writes
+ * product_classifications, over plain JDBC. Reads run in the caller's transaction so
+ * the two scans see one snapshot and the driver can fetch with a cursor.
+ */
+@Component
+@RequiredArgsConstructor
+class ClassificationStore {
+    private static final int FETCH_SIZE = 10_000;
+    private static final int WRITE_CHUNK = 10_000;
+    // Classes are read in one pass over the whole table instead of an id list above this
+    private static final int SCAN_THRESHOLD = 10_000;
+
+    // Effective OUT entries in the window with the period they fall in, in table order
+    private static final String OUT_ENTRIES = "SELECT t.product_id, "
+            + "(CAST(t.transaction_date AS date) - CAST(? AS date)) / ?, t.quantity FROM transactions t "
+            + "WHERE t.type = 'OUT' AND t.transaction_date >= ? AND t.transaction_date < ? "
+            + "AND t.entry_kind <> 'REVERSAL' AND NOT EXISTS (SELECT 1 FROM transactions c "
+            + "WHERE c.corrects_transaction_id IS NOT NULL AND c.corrects_transaction_id = t.id)";
+
+    private static final String UPSERT = "INSERT INTO product_classifications (product_id, abc_class, xyz_class, "
+            + "consumption_value, demand_cv, classified_at) SELECT u.*, ? FROM unnest(?, ?, ?, ?, ?) AS u "
+            + "ON CONFLICT (product_id) DO UPDATE SET abc_class = EXCLUDED.abc_class, "
+            + "xyz_class = EXCLUDED.xyz_class, consumption_value = EXCLUDED.consumption_value, "
+            + "demand_cv = EXCLUDED.demand_cv, classified_at = EXCLUDED.classified_at";
+
+    private static final String[] ABC = {"A", "B", "C"};
+    private static final String[] XYZ = {"X", "Y", "Z"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Loads the active products into fresh columns; {@code start} is the first day of the
+     * window of {@code periods} periods.
+     */
+    ConsumptionColumns loadProducts(LocalDate start, int periods, int periodDays) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE active = true",
+                Integer.class);
+        ConsumptionColumns columns = new ConsumptionColumns(count != null ? count : 0, periods);
+        int[] next = {0};
+        stream("SELECT id, price_in, created_at FROM products WHERE active = true ORDER BY id", ps -> {
+        }, rs -> {
+            int ordinal = next[0]++;
+            columns.productIds[ordinal] = rs.getLong(1);
+            columns.unitCost[ordinal] = rs.getDouble(2);
+            long sinceStart = ChronoUnit.DAYS.between(start, rs.getObject(3, LocalDateTime.class).toLocalDate());
+            columns.firstPeriod[ordinal] = (int) Math.max(0, Math.min(periods, sinceStart / periodDays));
+        });
+        return columns;
+    }
+
+    /**
+     * Adds every effective OUT entry between {@code start} and {@code end} to the columns
+     * in one pass over the journal.
+     */
+    long scan(ConsumptionColumns columns, LocalDate start, LocalDate end, int periodDays) {
+        long[] rows = {0};
+        stream(OUT_ENTRIES, ps -> {
+            ps.setObject(1, start);
+            ps.setInt(2, periodDays);
+            ps.setObject(3, start.atStartOfDay());
+            ps.setObject(4, end.atStartOfDay());
+        }, rs -> {
+            rows[0]++;
+            int ordinal = columns.ordinal(rs.getLong(1));
+            if (ordinal >= 0) {
+                columns.add(ordinal, rs.getInt(2), rs.getInt(3));
+            }
+        });
+        return rows[0];
+    }
+
+    /**
+     * Writes the classes of every product in the columns and drops those of products that
+     * are no longer classified.
+     */
+    void save(ConsumptionColumns columns, LocalDateTime classifiedAt) {
+        for (int from = 0; from < columns.size; from += WRITE_CHUNK) {
+            int to = Math.min(from + WRITE_CHUNK, columns.size);
+            Object[] ids = new Object[to - from];
+            Object[] abc = new Object[to - from];
+            Object[] xyz = new Object[to - from];
+            Object[] values = new Object[to - from];
+            Object[] cvs = new Object[to - from];
+            for (int i = from; i < to; i++) {
+                ids[i - from] = columns.productIds[i];
+                abc[i - from] = ABC[columns.abc[i]];
+                xyz[i - from] = XYZ[columns.xyz[i]];
+                values[i - from] = BigDecimal.valueOf(columns.value[i]).setScale(2, RoundingMode.HALF_UP);
+                cvs[i - from] = Double.isNaN(columns.demandCv[i]) ? null : columns.demandCv[i];
+            }
+            jdbcTemplate.update(UPSERT, ps -> {
+                ps.setTimestamp(1, Timestamp.valueOf(classifiedAt));
+                ps.setArray(2, array(ps, "bigint", ids));
+                ps.setArray(3, array(ps, "varchar", abc));
+                ps.setArray(4, array(ps, "varchar", xyz));
+                ps.setArray(5, array(ps, "numeric", values));
+                ps.setArray(6, array(ps, "float8", cvs));
+            });
+        }
+        jdbcTemplate.update("DELETE FROM product_classifications WHERE classified_at < ?",
+                Timestamp.valueOf(classifiedAt));
+    }
+
+    Map<Long, Classification> find(Collection<Long> productIds) {
+        String select = "SELECT product_id, abc_class, xyz_class FROM product_classifications";
+        Map<Long, Classification> classes = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return classes;
+        }
+        RowCallbackHandler collect = rs -> classes.put(rs.getLong(1), new Classification(rs.getLong(1),
+                ProductClassification.AbcClass.valueOf(rs.getString(2)),
+                ProductClassification.XyzClass.valueOf(rs.getString(3))));
+        if (productIds.size() > SCAN_THRESHOLD) {
+            jdbcTemplate.query(select, collect);
+        } else {
+            jdbcTemplate.query(select + " WHERE product_id = ANY(?)",
+                    ps -> ps.setArray(1, array(ps, "bigint", productIds.toArray())), collect);
+        }
+        return classes;
+    }
+
+    private void stream(String sql, PreparedStatementSetter setter, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            setter.setValues(ps);
+            return ps;
+        }, handler);
+    }
+
+    private static Array array(PreparedStatement ps, String type, Object[] values) throws SQLException {
+        return ps.getConnection().createArrayOf(type, values);
+    }
+}
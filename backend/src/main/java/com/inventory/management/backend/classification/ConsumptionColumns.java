@@ -0,0 +1,108 @@
+package com.inventory.management.backend.classification;
+
+import java.util.Arrays;
+
+/**
+ * Consumption of every active product, one array per measure, indexed by the product's
+ * ordinal: its position in ascending id order. Filled by one scan of the journal, then
+ * classified in place.
+ */
+final class ConsumptionColumns {
+    static final byte A = 0, B = 1, C = 2;
+    static final byte X = 0, Y = 1, Z = 2;
+
+    final int size;
+    final int periods;
+    final long[] productIds;
+    final double[] unitCost;
+    // First period the product existed in; earlier periods are not zero demand
+    final int[] firstPeriod;
+    // periodQuantity[ordinal * periods + period]
+    final int[] periodQuantity;
+    final double[] value;
+
+    final byte[] abc;
+    final byte[] xyz;
+    // NaN without demand
+    final double[] demandCv;
+
+    ConsumptionColumns(int size, int periods) {
+        this.size = size;
+        this.periods = periods;
+        this.productIds = new long[size];
+        this.unitCost = new double[size];
+        this.firstPeriod = new int[size];
+        this.periodQuantity = new int[size * periods];
+        this.value = new double[size];
+        this.abc = new byte[size];
+        this.xyz = new byte[size];
+        this.demandCv = new double[size];
+    }
+
+    /**
+     * Ordinal of a product, or -1 if it is not one of the classified products.
+     */
+    int ordinal(long productId) {
+        int ordinal = Arrays.binarySearch(productIds, productId);
+        return ordinal >= 0 ? ordinal : -1;
+    }
+
+    void add(int ordinal, int period, int quantity) {
+        periodQuantity[ordinal * periods + period] += quantity;
+        value[ordinal] += quantity * unitCost[ordinal];
+        if (period < firstPeriod[ordinal]) {
+            firstPeriod[ordinal] = period;
+        }
+    }
+
+    /**
+     * A products make up the first {@code aShare} of total consumption value taken in
+     * descending order, B products the rest up to {@code bShare}. X and Y demand varies by
+     * at most {@code xMaxCv} and {@code yMaxCv} of its mean per period.
+     */
+    void classify(double aShare, double bShare, double xMaxCv, double yMaxCv) {
+        double[] sorted = value.clone();
+        Arrays.sort(sorted);
+        double total = 0;
+        for (double v : sorted) {
+            total += v;
+        }
+        double aCutoff = Double.POSITIVE_INFINITY;
+        double bCutoff = Double.POSITIVE_INFINITY;
+        double cumulative = 0;
+        for (int k = sorted.length - 1; k >= 0 && total > 0; k--) {
+            cumulative += sorted[k];
+            if (aCutoff == Double.POSITIVE_INFINITY && cumulative >= aShare * total) {
+                aCutoff = sorted[k];
+            }
+            if (cumulative >= bShare * total) {
+                bCutoff = sorted[k];
+                break;
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            double v = value[i];
+            abc[i] = v > 0 && v >= aCutoff ? A : v > 0 && v >= bCutoff ? B : C;
+
+            int first = firstPeriod[i];
+            int n = periods - first;
+            double sum = 0;
+            double sumOfSquares = 0;
+            for (int p = i * periods + first, end = (i + 1) * periods; p < end; p++) {
+                double q = periodQuantity[p];
+                sum += q;
+                sumOfSquares += q * q;
+            }
+            if (n <= 0 || sum == 0) {
+                demandCv[i] = Double.NaN;
+                xyz[i] = Z;
+                continue;
+            }
+            double mean = sum / n;
+            double cv = Math.sqrt(Math.max(sumOfSquares / n - mean * mean, 0)) / mean;
+            demandCv[i] = cv;
+            xyz[i] = cv <= xMaxCv ? X : cv <= yMaxCv ? Y : Z;
+        }
+    }
+}
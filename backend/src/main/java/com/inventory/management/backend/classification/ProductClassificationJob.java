@@ -0,0 +1,43 @@
+package com.inventory.management.backend.classification;
+
+import com.inventory.management.backend.jobs.ClusterJob;
+import com.inventory.management.backend.jobs.JobContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Reclassifies all products in one partition: ABC ranks every product against the
+ * total consumption value, so the catalog cannot be split into ranges.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductClassificationJob implements ClusterJob {
+    public static final String NAME = "product-classification";
+
+    private final ProductClassificationService productClassificationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.classification.interval-ms:86400000}")
+    private long intervalMs;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.ofMillis(intervalMs);
+    }
+
+    @Override
+    public void run(JobContext context) {
+        if (productClassificationService.classify(context::shouldStop)) {
+            meterRegistry.counter("inventory.classification.runs").increment();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.inventory.management.backend.classification;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Classifies every active product by consumption value (ABC) and by how much its demand
+ * varies from period to period (XYZ). The journal is read once per run, streamed into
+ * primitive columns indexed by product ordinal; no entities are loaded.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductClassificationService {
+    private final ClassificationStore store;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.classification.history-days:365}")
+    private int historyDays;
+
+    @Value("${inventory.classification.period-days:30}")
+    private int periodDays;
+
+    @Value("${inventory.classification.a-share:0.8}")
+    private double aShare;
+
+    @Value("${inventory.classification.b-share:0.95}")
+    private double bShare;
+
+    @Value("${inventory.classification.x-max-cv:0.5}")
+    private double xMaxCv;
+
+    @Value("${inventory.classification.y-max-cv:1.0}")
+    private double yMaxCv;
+
+    /**
+     * Reclassifies every active product from the complete periods up to today; false if
+     * stopped before the classes were written.
+     */
+    public boolean classify(BooleanSupplier shouldStop) {
+        int periods = Math.max(1, historyDays / periodDays);
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.minusDays((long) periods * periodDays);
+        LocalDateTime classifiedAt = LocalDateTime.now();
+
+        // One snapshot for both scans, so every entry's product is among the loaded ones
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+        long startedAt = System.nanoTime();
+        ConsumptionColumns columns = snapshot.execute(status -> {
+            ConsumptionColumns loaded = store.loadProducts(start, periods, periodDays);
+            long rows = store.scan(loaded, start, end, periodDays);
+            log.info("Classification scanned {} products and {} OUT entries in {} ms", loaded.size, rows,
+                    (System.nanoTime() - startedAt) / 1_000_000);
+            return loaded;
+        });
+        if (columns == null || shouldStop.getAsBoolean()) {
+            return false;
+        }
+
+        columns.classify(aShare, bShare, xMaxCv, yMaxCv);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> store.save(columns, classifiedAt));
+        return true;
+    }
+
+    public Map<Long, Classification> getClassifications(Collection<Long> productIds) {
+        return store.find(productIds);
+    }
+}
@@ -0,0 +1,15 @@
+package com.inventory.management.backend.coalesce;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only service query whose concurrent calls with equal arguments share one
+ * execution and its result. Callers must treat the result as read-only.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+}
@@ -0,0 +1,147 @@
+package com.inventory.management.backend.coalesce;
+
+import com.inventory.management.backend.coherence.CoherenceListener;
+import com.inventory.management.backend.coherence.RemoteChanges;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight for {@link Coalesced} queries: the first caller runs the query, callers
+ * arriving with equal arguments while it runs wait for and share its result. With a
+ * positive result TTL a finished result keeps answering equal calls for that long. A
+ * caller that has waited {@code join-timeout-ms} for a shared result runs the query itself.
+ * Runs outside the transaction interceptor, so joining callers never take a connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RequestCoalescingAspect implements CoherenceListener {
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<CallKey, Flight> flights = new ConcurrentHashMap<>();
+
+    @Value("${inventory.coalesce.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.coalesce.result-ttl-ms:0}")
+    private long resultTtlMs;
+
+    @Value("${inventory.coalesce.join-timeout-ms:30000}")
+    private long joinTimeoutMs;
+
+    @Around("@annotation(com.inventory.management.backend.coalesce.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        // A caller's own transaction may see uncommitted rows, which must not leak to others
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        CallKey key = new CallKey(joinPoint.getSignature().toLongString(), Arrays.asList(joinPoint.getArgs()));
+
+        while (true) {
+            Flight flight = new Flight();
+            Flight existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                count(operation, "executed");
+                return lead(joinPoint, key, flight);
+            }
+            if (existing.isExpired()) {
+                flights.remove(key, existing);
+                continue;
+            }
+            count(operation, existing.result.isDone() ? "cached" : "joined");
+            return await(joinPoint, operation, existing);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.coalesce.sweep-interval-ms:10000}")
+    public void evictExpired() {
+        flights.values().removeIf(Flight::isExpired);
+    }
+
+    @Override
+    public void onRemoteChanges(RemoteChanges changes) {
+        // Another node's write may change any kept result; queries still running are left alone
+        flights.values().removeIf(flight -> flight.result.isDone());
+    }
+
+    @Override
+    public void onResync(long sinceVersion) {
+        flights.values().removeIf(flight -> flight.result.isDone());
+    }
+
+    private Object lead(ProceedingJoinPoint joinPoint, CallKey key, Flight flight) throws Throwable {
+        try {
+            Object result = shareable(joinPoint.proceed());
+            if (resultTtlMs > 0) {
+                flight.expiresAt = System.nanoTime() + resultTtlMs * 1_000_000;
+            } else {
+                flights.remove(key, flight);
+            }
+            flight.result.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Failures are never cached, the next caller tries again
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(ProceedingJoinPoint joinPoint, String operation, Flight flight) throws Throwable {
+        try {
+            return flight.result.get(joinTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            // The leader is stuck; this caller's own query is no worse than waiting on
+            count(operation, "timed-out");
+            return joinPoint.proceed();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a shared query result", e);
+        }
+    }
+
+    private static Object shareable(Object result) {
+        // Every joined caller gets the same instance
+        return result instanceof List<?> list ? Collections.unmodifiableList(list) : result;
+    }
+
+    private void count(String operation, String outcome) {
+        meterRegistry.counter("inventory.coalesce.calls", "operation", operation, "outcome", outcome).increment();
+    }
+
+    private record CallKey(String method, List<Object> args) {
+    }
+
+    private static final class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile long expiresAt;
+
+        boolean isExpired() {
+            return result.isDone() && (result.isCompletedExceptionally() || expiresAt - System.nanoTime() <= 0);
+        }
+    }
+}
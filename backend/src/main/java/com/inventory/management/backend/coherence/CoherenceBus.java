@@ -0,0 +1,449 @@
+package com.inventory.management.backend.coherence;
+
+import com.inventory.management.backend.event.ProductChangedEvent;
+import com.inventory.management.backend.event.StockChangedEvent;
+import com.inventory.management.backend.event.SupplierChangedEvent;
+import com.inventory.management.backend.event.TransactionRecordedEvent;
+import com.inventory.management.backend.event.UserChangedEvent;
+import com.inventory.management.backend.service.CatalogVersionService;
+import com.inventory.management.backend.workload.WorkloadClass;
+import com.inventory.management.backend.workload.WorkloadContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cluster-wide invalidation bus on PostgreSQL LISTEN/NOTIFY. Committed product, stock,
+ * supplier, user and transaction writes are queued as compact keys ("P12", "T9041"),
+ * repeats folded, and flushed by a single thread every few milliseconds as one
+ * notification per batch, tagged with this node's committed catalog version. The same
+ * thread listens on the same dedicated connection and hands other nodes' batches to a
+ * separate apply thread, which runs every {@link CoherenceListener}. Batches that arrive
+ * while listeners are still busy are folded into one, so slow reloads never hold up
+ * this node's own flushes.
+ * <p>
+ * Notifications sent while a node is disconnected are lost to it, so after reconnecting it
+ * asks its listeners to resync from the catalog version it had reached. A sender whose
+ * queue overflows sends a resync request from its previous flush instead of the keys.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CoherenceBus {
+    private static final String CHANNEL = "inventory_coherence";
+    // NOTIFY payloads must stay below 8000 bytes
+    private static final int MAX_PAYLOAD = 7_900;
+    private static final char RESYNC = '*';
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    private final CatalogVersionService catalogVersionService;
+    private final List<CoherenceListener> listeners;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.coherence.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.coherence.flush-interval-ms:20}")
+    private int flushIntervalMs;
+
+    @Value("${inventory.coherence.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Object pendingLock = new Object();
+    private Set<String> pending = new LinkedHashSet<>();
+    private boolean overflowed;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread worker;
+    private ExecutorService applier;
+
+    // Received but not yet applied, folded into one batch
+    private final Object inboundLock = new Object();
+    private Inbound inbound;
+    private boolean applying;
+
+    // Owned by the worker thread
+    private long lastFlushedVersion;
+    private long resyncFrom = -1;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        // Listening starts before the catalog loads, so nothing committed in between is missed
+        lastFlushedVersion = catalogVersionService.getVersion();
+        running = true;
+        applier = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coherence-apply");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker = new Thread(this::run, "coherence-bus");
+        worker.setDaemon(true);
+        worker.start();
+        Gauge.builder("inventory.coherence.pending", this, CoherenceBus::pendingCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+        if (applier != null) {
+            applier.shutdownNow();
+        }
+        closeQuietly(connection);
+    }
+
+    // Ordered first: the key is queued while CatalogVersionService still holds the write's
+    // version as pending, so a flush never reports a version its batch does not cover
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        enqueue('P', event.getProductId());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        enqueue('P', event.getProductId());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSupplierChanged(SupplierChangedEvent event) {
+        enqueue('S', event.getSupplierId());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        enqueue('U', event.getUserId());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        enqueue('T', event.getTransactionId());
+    }
+
+    public int pendingCount() {
+        synchronized (pendingLock) {
+            return pending.size();
+        }
+    }
+
+    private void enqueue(char kind, Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        synchronized (pendingLock) {
+            if (overflowed) {
+                return;
+            }
+            if (pending.size() >= maxPending) {
+                // Cheaper for everyone to resync than to receive this many keys
+                overflowed = true;
+                pending.clear();
+                return;
+            }
+            pending.add(kind + Long.toString(id));
+        }
+    }
+
+    private void run() {
+        long delay = 1_000;
+        while (running) {
+            try (Connection listening = DriverManager.getConnection(url, username, password)) {
+                connection = listening;
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (resyncFrom >= 0) {
+                    handOff(Inbound.resync(resyncFrom, catalogVersionService.latestAllocated()));
+                    resyncFrom = -1;
+                }
+                delay = 1_000;
+                log.info("Coherence bus listening as node {}", nodeId);
+
+                PGConnection pgConnection = listening.unwrap(PGConnection.class);
+                try (PreparedStatement notify = listening.prepareStatement("SELECT pg_notify(?, ?)")) {
+                    notify.setString(1, CHANNEL);
+                    while (running) {
+                        flush(notify);
+                        receive(pgConnection.getNotifications(flushIntervalMs));
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                long reached = catalogVersionService.getVersion();
+                resyncFrom = resyncFrom >= 0 ? Math.min(resyncFrom, reached) : reached;
+                log.warn("Coherence bus lost its connection, resyncing from version {} after reconnecting in {} ms: {}",
+                        resyncFrom, delay, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        }
+    }
+
+    private void flush(PreparedStatement notify) throws SQLException {
+        // Read before taking the batch: anything queued later was still pending at this version
+        long version = catalogVersionService.getVersion();
+        Set<String> batch;
+        boolean resync;
+        synchronized (pendingLock) {
+            if (pending.isEmpty() && !overflowed) {
+                return;
+            }
+            batch = pending;
+            resync = overflowed;
+            pending = new LinkedHashSet<>();
+            overflowed = false;
+        }
+
+        String header = nodeId + " " + version + " ";
+        try {
+            if (resync) {
+                send(notify, header + RESYNC + lastFlushedVersion);
+            } else {
+                StringBuilder payload = new StringBuilder(header);
+                for (String key : batch) {
+                    if (payload.length() + key.length() + 1 > MAX_PAYLOAD) {
+                        send(notify, payload.toString());
+                        payload.setLength(header.length());
+                    }
+                    if (payload.length() > header.length()) {
+                        payload.append(',');
+                    }
+                    payload.append(key);
+                }
+                send(notify, payload.toString());
+            }
+            lastFlushedVersion = version;
+        } catch (SQLException e) {
+            // Put the batch back; keys sent twice are harmless
+            synchronized (pendingLock) {
+                overflowed |= resync;
+                if (!overflowed) {
+                    batch.addAll(pending);
+                    pending = batch;
+                }
+            }
+            throw e;
+        }
+    }
+
+    private void send(PreparedStatement notify, String payload) throws SQLException {
+        notify.setString(2, payload);
+        notify.executeQuery().close();
+        meterRegistry.counter("inventory.coherence.notifications", "direction", "sent").increment();
+    }
+
+    private void receive(PGNotification[] notifications) {
+        if (notifications == null) {
+            return;
+        }
+        Set<Long> products = new HashSet<>();
+        Set<Long> suppliers = new HashSet<>();
+        Set<Long> users = new HashSet<>();
+        Set<Long> transactions = new HashSet<>();
+        long version = 0;
+        long resyncSince = Long.MAX_VALUE;
+        int received = 0;
+        for (PGNotification notification : notifications) {
+            String[] parts = notification.getParameter().split(" ", 3);
+            if (parts.length != 3 || parts[0].equals(nodeId)) {
+                continue;
+            }
+            try {
+                version = Math.max(version, Long.parseLong(parts[1]));
+                if (parts[2].charAt(0) == RESYNC) {
+                    resyncSince = Math.min(resyncSince, Long.parseLong(parts[2].substring(1)));
+                } else {
+                    for (String key : parts[2].split(",")) {
+                        long id = Long.parseLong(key.substring(1));
+                        switch (key.charAt(0)) {
+                            case 'P' -> products.add(id);
+                            case 'S' -> suppliers.add(id);
+                            case 'U' -> users.add(id);
+                            case 'T' -> transactions.add(id);
+                            default -> log.debug("Ignoring coherence key {}", key);
+                        }
+                    }
+                }
+                received++;
+            } catch (RuntimeException e) {
+                log.warn("Ignoring coherence message {}: {}", notification.getParameter(), e.getMessage());
+            }
+        }
+        if (received == 0) {
+            return;
+        }
+        meterRegistry.counter("inventory.coherence.notifications", "direction", "received").increment(received);
+
+        handOff(resyncSince != Long.MAX_VALUE
+                ? Inbound.resync(resyncSince, version)
+                : new Inbound(version, products, suppliers, users, transactions, Long.MAX_VALUE));
+    }
+
+    private void handOff(Inbound received) {
+        synchronized (inboundLock) {
+            inbound = inbound == null ? received : inbound.fold(received);
+            if (inbound.resyncSince == Long.MAX_VALUE && inbound.keyCount() > maxPending) {
+                // Listeners fell far behind; catching up from the version they reached is cheaper
+                inbound = Inbound.resync(catalogVersionService.getVersion(), inbound.version);
+            }
+            if (applying) {
+                return;
+            }
+            applying = true;
+        }
+        applier.execute(this::apply);
+    }
+
+    private void apply() {
+        // Listeners reload what changed, keep that off the write pool
+        WorkloadContext.set(WorkloadClass.READ);
+        while (true) {
+            Inbound next;
+            synchronized (inboundLock) {
+                next = inbound;
+                inbound = null;
+                if (next == null) {
+                    applying = false;
+                    return;
+                }
+            }
+            if (next.resyncSince != Long.MAX_VALUE) {
+                resync(next.resyncSince, next.version);
+                continue;
+            }
+            RemoteChanges changes = new RemoteChanges(next.version, next.products, next.suppliers, next.users,
+                    next.transactions);
+            for (CoherenceListener listener : listeners) {
+                try {
+                    listener.onRemoteChanges(changes);
+                } catch (RuntimeException e) {
+                    log.warn("{} failed to apply remote changes: {}", listener.getClass().getSimpleName(), e.getMessage());
+                }
+            }
+            // Only now is everything up to the writers' versions visible on this node
+            catalogVersionService.observe(next.version);
+        }
+    }
+
+    private void resync(long since, long reached) {
+        long started = System.nanoTime();
+        for (CoherenceListener listener : listeners) {
+            try {
+                listener.onResync(since);
+            } catch (RuntimeException e) {
+                log.warn("{} failed to resync: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        catalogVersionService.observe(reached);
+        meterRegistry.counter("inventory.coherence.resyncs").increment();
+        log.info("Coherence bus resynced from version {} in {} ms", since, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Batches received from other nodes and not applied yet. A resync covers any keys, so
+     * folding into one drops them.
+     */
+    private static final class Inbound {
+        final Set<Long> products;
+        final Set<Long> suppliers;
+        final Set<Long> users;
+        final Set<Long> transactions;
+        long version;
+        long resyncSince;
+
+        Inbound(long version, Set<Long> products, Set<Long> suppliers, Set<Long> users, Set<Long> transactions,
+                long resyncSince) {
+            this.version = version;
+            this.products = products;
+            this.suppliers = suppliers;
+            this.users = users;
+            this.transactions = transactions;
+            this.resyncSince = resyncSince;
+        }
+
+        static Inbound resync(long since, long reached) {
+            return new Inbound(reached, new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), since);
+        }
+
+        Inbound fold(Inbound later) {
+            version = Math.max(version, later.version);
+            resyncSince = Math.min(resyncSince, later.resyncSince);
+            if (resyncSince == Long.MAX_VALUE) {
+                products.addAll(later.products);
+                suppliers.addAll(later.suppliers);
+                users.addAll(later.users);
+                transactions.addAll(later.transactions);
+            } else {
+                products.clear();
+                suppliers.clear();
+                users.clear();
+                transactions.clear();
+            }
+            return this;
+        }
+
+        int keyCount() {
+            return products.size() + suppliers.size() + users.size() + transactions.size();
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            if (connection != null) {
+                connection.close();
+            }
+        } catch (SQLException ignored) {
+            // Shutting down anyway
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.inventory.management.backend.coherence;
+
+/**
+ * Node-local state that must follow writes made on other nodes. Called on the
+ * {@link CoherenceBus} listener thread, one batch at a time.
+ */
+public interface CoherenceListener {
+
+    void onRemoteChanges(RemoteChanges changes);
+
+    /**
+     * Messages may have been missed: reload everything changed after the given catalog
+     * version, or drop whatever cannot be reloaded selectively.
+     */
+    void onResync(long sinceVersion);
+}
@@ -0,0 +1,39 @@
+package com.inventory.management.backend.coherence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ids written on other nodes since the previous batch, each at most once. The version is
+ * the highest committed catalog version the writers reported.
+ */
+public record RemoteChanges(long version, Set<Long> products, Set<Long> suppliers, Set<Long> users,
+                            Set<Long> transactions) {
+
+    // Keeps every IN list built from a batch well below the driver's 32767 bind parameters
+    private static final int IN_LIST_CHUNK = 1_000;
+
+    public boolean touchesCatalog() {
+        return !products.isEmpty() || !suppliers.isEmpty() || !users.isEmpty();
+    }
+
+    /**
+     * Splits ids into lists small enough for one IN list each.
+     */
+    public static List<List<Long>> chunks(Set<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>(Math.min(ids.size(), IN_LIST_CHUNK));
+        for (Long id : ids) {
+            chunk.add(id);
+            if (chunk.size() == IN_LIST_CHUNK) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(IN_LIST_CHUNK);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
@@ -4,7 +4,13 @@ import com.inventory.management.backend.security.AuthEntryPointJwt;
 import com.inventory.management.backend.security.AuthTokenFilter;
 import com.inventory.management.backend.security.CustomUserDetailsService;
 import com.inventory.management.backend.security.JwtUtils;
+import com.inventory.management.backend.security.StreamTicketService;
+import com.inventory.management.backend.workload.AdaptiveLimiter;
+import com.inventory.management.backend.workload.AdmissionControlFilter;
+import com.inventory.management.backend.workload.WorkloadClassifier;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -34,10 +40,21 @@ public class SecurityConfig {
     private final CustomUserDetailsService userDetailsService;
     private final AuthEntryPointJwt unauthorizedHandler;
     private final JwtUtils jwtUtils;
+    private final StreamTicketService streamTicketService;
+    private final AdaptiveLimiter adaptiveLimiter;
+    private final WorkloadClassifier workloadClassifier;
+
+    @Value("${inventory.admission.enabled:true}")
+    private boolean admissionEnabled;
 
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtils, userDetailsService);
+        return new AuthTokenFilter(jwtUtils, userDetailsService, streamTicketService);
+    }
+
+    @Bean
+    public AdmissionControlFilter admissionControlFilter() {
+        return new AdmissionControlFilter(adaptiveLimiter, workloadClassifier, admissionEnabled);
     }
 
     @Bean
@@ -78,17 +95,23 @@ public class SecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
-                auth.requestMatchers("/auth/**").permitAll()
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                    .requestMatchers("/auth/**").permitAll()
                     .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
+                    .requestMatchers("/actuator/health").permitAll()
+                    .requestMatchers("/actuator/**").hasRole("ADMIN")
                     .requestMatchers("/users/**").hasRole("ADMIN")
                     .requestMatchers("/products/**", "/suppliers/**").hasAnyRole("ADMIN", "STAFF")
                     .requestMatchers("/transactions/**").hasAnyRole("ADMIN", "STAFF")
                     .requestMatchers("/reports/**").hasAnyRole("ADMIN", "STAFF")
+                    .requestMatchers("/events/**").hasAnyRole("ADMIN", "STAFF")
                     .anyRequest().authenticated()
             );
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        // Shed load before spending anything on token validation
+        http.addFilterBefore(admissionControlFilter(), AuthTokenFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,22 @@
+package com.inventory.management.backend.config;
+
+import com.inventory.management.backend.web.CatalogETagInterceptor;
+import com.inventory.management.backend.workload.BulkheadInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    private final CatalogETagInterceptor catalogETagInterceptor;
+    private final BulkheadInterceptor bulkheadInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 304 answers skip the bulkhead; admission control is a servlet filter and has run already
+        registry.addInterceptor(catalogETagInterceptor);
+        registry.addInterceptor(bulkheadInterceptor);
+    }
+}
@@ -0,0 +1,38 @@
+package com.inventory.management.backend.config;
+
+import com.inventory.management.backend.workload.WorkloadClass;
+import com.inventory.management.backend.workload.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One connection pool per {@link WorkloadClass} behind a routing DataSource, so reports
+ * can exhaust their own connections but never the ones writes are waiting for.
+ */
+@Configuration
+public class WorkloadDataSourceConfig {
+
+    @Bean
+    public WorkloadRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                                MeterRegistry meterRegistry) {
+        Map<WorkloadClass, HikariDataSource> pools = new EnumMap<>(WorkloadClass.class);
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            String prefix = "inventory.workload." + workload.key() + ".";
+            HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            pool.setPoolName("inventory-" + workload.key());
+            pool.setMaximumPoolSize(environment.getRequiredProperty(prefix + "pool-size", Integer.class));
+            pool.setConnectionTimeout(environment.getRequiredProperty(prefix + "connection-timeout-ms", Long.class));
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(workload, pool);
+        }
+        return new WorkloadRoutingDataSource(pools, WorkloadClass.READ);
+    }
+}
@@ -6,6 +6,8 @@ import com.inventory.management.backend.dto.UserDto;
 import com.inventory.management.backend.security.JwtUtils;
 import com.inventory.management.backend.security.UserPrincipal;
 import com.inventory.management.backend.service.UserService;
+import com.inventory.management.backend.workload.Workload;
+import com.inventory.management.backend.workload.WorkloadClass;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -22,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 @Tag(name = "Authentication", description = "Authentication management APIs")
+@Workload(WorkloadClass.READ)
 public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
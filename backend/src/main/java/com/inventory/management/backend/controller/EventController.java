@@ -0,0 +1,89 @@
+package com.inventory.management.backend.controller;
+
+import com.inventory.management.backend.dto.EventLogEntryDto;
+import com.inventory.management.backend.dto.EventLogPageDto;
+import com.inventory.management.backend.dto.StreamTicketDto;
+import com.inventory.management.backend.event.StockEventHub;
+import com.inventory.management.backend.outbox.EventLog;
+import com.inventory.management.backend.outbox.OutboxRelay;
+import com.inventory.management.backend.security.StreamTicketService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Events", description = "Live inventory event streams and the event log")
+public class EventController {
+    private final StockEventHub stockEventHub;
+    private final EventLog eventLog;
+    private final OutboxRelay outboxRelay;
+    private final StreamTicketService streamTicketService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Read the event log", description = "Committed stock movements, stock levels and product changes in log order, starting at an offset; only the node relaying the outbox serves it, others answer 503 naming that node in X-Event-Log-Leader")
+    public ResponseEntity<?> readEvents(@RequestParam(defaultValue = "0") long from,
+                                        @RequestParam(defaultValue = "1000") int limit) {
+        try {
+            if (!outboxRelay.isLeader()) {
+                // The log is on the relaying node's disk; this node's copy may be stale or empty
+                ResponseEntity.BodyBuilder unavailable = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5");
+                outboxRelay.leaderUrl().ifPresent(leader -> unavailable.header("X-Event-Log-Leader", leader));
+                return unavailable.body("Error: The event log is served by the node relaying the outbox");
+            }
+            EventLog.Page page = eventLog.read(from, Math.max(1, Math.min(limit, 10_000)));
+            List<EventLogEntryDto> events = page.events().stream()
+                    .map(event -> new EventLogEntryDto(event.offset(), event.eventId(), event.type(),
+                            event.aggregateId(), event.occurredAt(), event.payload()))
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(new EventLogPageDto(events, page.nextOffset()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/stock/ticket")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Issue a stream ticket", description = "Single-use, short-lived ticket for opening the stock event stream with ?ticket=")
+    public ResponseEntity<?> issueStreamTicket(Authentication authentication) {
+        try {
+            String ticket = streamTicketService.issue(authentication.getName());
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                    .body(new StreamTicketDto(ticket, streamTicketService.getTicketTtlSeconds()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping(value = "/stock", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Stream stock events", description = "Server-Sent Events stream of stock changes, low-stock threshold crossings and product changes; browsers pass a ticket from POST /events/stock/ticket as ?ticket=")
+    public void streamStockEvents(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            stockEventHub.subscribe(request, response);
+        } catch (IllegalStateException e) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "30");
+        }
+    }
+}
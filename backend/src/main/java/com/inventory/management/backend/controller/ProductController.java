@@ -1,16 +1,26 @@
 package com.inventory.management.backend.controller;
 
+import com.inventory.management.backend.analytics.ProductTimeSeries;
+import com.inventory.management.backend.dto.ProductChangesDto;
+import com.inventory.management.backend.dto.ProductClassFilter;
 import com.inventory.management.backend.dto.ProductDto;
+import com.inventory.management.backend.entity.ProductClassification;
 import com.inventory.management.backend.service.ProductService;
+import com.inventory.management.backend.web.CatalogETag;
+import com.inventory.management.backend.web.SparseResponses;
+import com.inventory.management.backend.workload.Workload;
+import com.inventory.management.backend.workload.WorkloadClass;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -21,11 +31,21 @@ import java.util.List;
 @Tag(name = "Product Management", description = "Product management APIs")
 public class ProductController {
     private final ProductService productService;
+    private final ProductTimeSeries productTimeSeries;
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get all products", description = "Retrieve all products")
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
+    @CatalogETag
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout,
+            @RequestParam(required = false) ProductClassification.AbcClass abc,
+            @RequestParam(required = false) ProductClassification.XyzClass xyz) {
+        ProductClassFilter classes = new ProductClassFilter(abc, xyz);
+        if (fields != null || layout != null || !classes.isEmpty()) {
+            return SparseResponses.of(fields, layout, selection -> productService.getAllProducts(selection, classes));
+        }
         List<ProductDto> products = productService.getAllProducts();
         return ResponseEntity.ok(products);
     }
@@ -33,7 +53,16 @@ public class ProductController {
     @GetMapping("/active")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get active products", description = "Retrieve all active products")
-    public ResponseEntity<List<ProductDto>> getActiveProducts() {
+    @CatalogETag
+    public ResponseEntity<?> getActiveProducts(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout,
+            @RequestParam(required = false) ProductClassification.AbcClass abc,
+            @RequestParam(required = false) ProductClassification.XyzClass xyz) {
+        ProductClassFilter classes = new ProductClassFilter(abc, xyz);
+        if (fields != null || layout != null || !classes.isEmpty()) {
+            return SparseResponses.of(fields, layout, selection -> productService.getActiveProducts(selection, classes));
+        }
         List<ProductDto> products = productService.getActiveProducts();
         return ResponseEntity.ok(products);
     }
@@ -47,10 +76,38 @@ public class ProductController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/timeseries")
+    @Workload(WorkloadClass.REPORT)
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Get stock time series", description = "Stock level (min/max/last) and IN and OUT unit "
+            + "prices per bucket, downsampled to at most the given number of points")
+    public ResponseEntity<?> getProductTimeSeries(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int points) {
+        try {
+            return ResponseEntity.ok(productTimeSeries.getTimeSeries(id, from, to, points));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/category/{category}")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get products by category", description = "Retrieve products by category")
-    public ResponseEntity<List<ProductDto>> getProductsByCategory(@PathVariable String category) {
+    @CatalogETag
+    public ResponseEntity<?> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout,
+            @RequestParam(required = false) ProductClassification.AbcClass abc,
+            @RequestParam(required = false) ProductClassification.XyzClass xyz) {
+        ProductClassFilter classes = new ProductClassFilter(abc, xyz);
+        if (fields != null || layout != null || !classes.isEmpty()) {
+            return SparseResponses.of(fields, layout,
+                    selection -> productService.getProductsByCategory(category, selection, classes));
+        }
         List<ProductDto> products = productService.getProductsByCategory(category);
         return ResponseEntity.ok(products);
     }
@@ -58,7 +115,18 @@ public class ProductController {
     @GetMapping("/supplier/{supplierId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get products by supplier", description = "Retrieve products by supplier ID")
-    public ResponseEntity<List<ProductDto>> getProductsBySupplier(@PathVariable Long supplierId) {
+    @CatalogETag
+    public ResponseEntity<?> getProductsBySupplier(
+            @PathVariable Long supplierId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout,
+            @RequestParam(required = false) ProductClassification.AbcClass abc,
+            @RequestParam(required = false) ProductClassification.XyzClass xyz) {
+        ProductClassFilter classes = new ProductClassFilter(abc, xyz);
+        if (fields != null || layout != null || !classes.isEmpty()) {
+            return SparseResponses.of(fields, layout,
+                    selection -> productService.getProductsBySupplier(supplierId, selection, classes));
+        }
         List<ProductDto> products = productService.getProductsBySupplier(supplierId);
         return ResponseEntity.ok(products);
     }
@@ -66,7 +134,17 @@ public class ProductController {
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Search products", description = "Search products by keyword")
-    public ResponseEntity<List<ProductDto>> searchProducts(@RequestParam String keyword) {
+    @CatalogETag
+    public ResponseEntity<?> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout,
+            @RequestParam(required = false) ProductClassification.AbcClass abc,
+            @RequestParam(required = false) ProductClassification.XyzClass xyz) {
+        ProductClassFilter classes = new ProductClassFilter(abc, xyz);
+        if (fields != null || layout != null || !classes.isEmpty()) {
+            return SparseResponses.of(fields, layout, selection -> productService.searchProducts(keyword, selection, classes));
+        }
         List<ProductDto> products = productService.searchProducts(keyword);
         return ResponseEntity.ok(products);
     }
@@ -74,14 +152,32 @@ public class ProductController {
     @GetMapping("/low-stock")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get low stock products", description = "Retrieve products with low stock")
-    public ResponseEntity<List<ProductDto>> getLowStockProducts() {
+    @CatalogETag
+    public ResponseEntity<?> getLowStockProducts(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout,
+            @RequestParam(required = false) ProductClassification.AbcClass abc,
+            @RequestParam(required = false) ProductClassification.XyzClass xyz) {
+        ProductClassFilter classes = new ProductClassFilter(abc, xyz);
+        if (fields != null || layout != null || !classes.isEmpty()) {
+            return SparseResponses.of(fields, layout, selection -> productService.getLowStockProducts(selection, classes));
+        }
         List<ProductDto> products = productService.getLowStockProducts();
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Get product changes", description = "Retrieve products created, updated or deactivated since a catalog version")
+    @CatalogETag
+    public ResponseEntity<ProductChangesDto> getProductChanges(@RequestParam(defaultValue = "0") Long since) {
+        return ResponseEntity.ok(productService.getProductChanges(since));
+    }
+
     @GetMapping("/categories")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get all categories", description = "Retrieve all product categories")
+    @CatalogETag
     public ResponseEntity<List<String>> getAllCategories() {
         List<String> categories = productService.getAllCategories();
         return ResponseEntity.ok(categories);
@@ -134,4 +230,16 @@ public class ProductController {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
+
+    @PatchMapping("/{id}/stock-shards")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Configure stock shards", description = "Split product stock into N shard rows for high-contention SKUs, 1 disables sharding (Admin only)")
+    public ResponseEntity<?> configureStockShards(@PathVariable Long id, @RequestParam Integer shards) {
+        try {
+            ProductDto product = productService.configureStockShards(id, shards);
+            return ResponseEntity.ok(product);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
 }
@@ -1,20 +1,48 @@
 package com.inventory.management.backend.controller;
 
+import com.inventory.management.backend.analytics.MovementAnalytics;
+import com.inventory.management.backend.analytics.TransactionSummaries;
+import com.inventory.management.backend.classification.ProductClassificationJob;
+import com.inventory.management.backend.dto.ReorderSuggestionDto;
+import com.inventory.management.backend.dto.ReportJobDto;
+import com.inventory.management.backend.dto.ReportJobRequest;
 import com.inventory.management.backend.dto.StockReportDto;
+import com.inventory.management.backend.dto.TopMoverDto;
 import com.inventory.management.backend.dto.TransactionSummaryDto;
+import com.inventory.management.backend.forecast.ReorderForecastJob;
+import com.inventory.management.backend.forecast.ReorderForecastService;
+import com.inventory.management.backend.jobs.JobRunner;
 import com.inventory.management.backend.service.ProductService;
-import com.inventory.management.backend.service.TransactionService;
+import com.inventory.management.backend.service.ReportJobService;
+import com.inventory.management.backend.valuation.ValuationRebuildJob;
+import com.inventory.management.backend.workload.Workload;
+import com.inventory.management.backend.workload.WorkloadClass;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -23,10 +51,20 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 @Tag(name = "Reports", description = "Report generation APIs")
 public class ReportController {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final ProductService productService;
-    private final TransactionService transactionService;
+    private final TransactionSummaries transactionSummaries;
+    private final ReportJobService reportJobService;
+    private final MovementAnalytics movementAnalytics;
+    private final ReorderForecastService reorderForecastService;
+    private final JobRunner jobRunner;
 
     @GetMapping("/stock")
+    @Workload(WorkloadClass.REPORT)
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get stock report", description = "Generate current stock report for all products")
     public ResponseEntity<List<StockReportDto>> getStockReport() {
@@ -35,12 +73,144 @@ public class ReportController {
     }
 
     @GetMapping("/summary")
+    @Workload(WorkloadClass.REPORT)
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
-    @Operation(summary = "Get transaction summary", description = "Generate transaction summary report for date range")
-    public ResponseEntity<List<TransactionSummaryDto>> getTransactionSummary(
+    @Operation(summary = "Get transaction summary", description = "Transaction counts and values per hour, day, week, "
+            + "month or quarter in the given timezone, optionally per category, supplier and user; empty periods are "
+            + "returned with zeros")
+    public ResponseEntity<?> getTransactionSummary(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<TransactionSummaryDto> summary = transactionService.getTransactionSummary(startDate, endDate);
-        return ResponseEntity.ok(summary);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "DAY") TransactionSummaries.Granularity granularity,
+            @RequestParam(required = false) String timezone,
+            @RequestParam(required = false) List<TransactionSummaries.Dimension> groupBy) {
+        try {
+            ZoneId zone = timezone != null ? ZoneId.of(timezone) : ZoneId.systemDefault();
+            Set<TransactionSummaries.Dimension> dimensions = groupBy == null || groupBy.isEmpty()
+                    ? EnumSet.noneOf(TransactionSummaries.Dimension.class)
+                    : EnumSet.copyOf(groupBy);
+            List<TransactionSummaryDto> summary = transactionSummaries.summarize(startDate, endDate, granularity,
+                    zone, dimensions);
+            return ResponseEntity.ok(summary);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/top-movers")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Get top movers", description = "Fastest-moving products, users or suppliers over the last hour or day, "
+            + "estimated from in-memory sketches; amounts overcount by at most maxOverestimate")
+    public ResponseEntity<List<TopMoverDto>> getTopMovers(
+            @RequestParam(defaultValue = "PRODUCT") MovementAnalytics.Dimension by,
+            @RequestParam(defaultValue = "QUANTITY") MovementAnalytics.Metric metric,
+            @RequestParam(defaultValue = "HOUR") MovementAnalytics.Window window,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(movementAnalytics.getTopMovers(by, metric, window, limit));
+    }
+
+    @PostMapping("/valuation/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild stock valuation", description = "Replay the journal of every product into its FIFO "
+            + "layers and average cost, in parallel across nodes")
+    public ResponseEntity<?> rebuildValuation() {
+        try {
+            jobRunner.trigger(ValuationRebuildJob.NAME);
+            return ResponseEntity.accepted().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/reorder-suggestions")
+    @Workload(WorkloadClass.REPORT)
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Get reorder suggestions", description = "Products at or below their forecast reorder point, "
+            + "largest suggested order first; all=true lists every forecast product")
+    public ResponseEntity<List<ReorderSuggestionDto>> getReorderSuggestions(
+            @RequestParam(defaultValue = "false") boolean all,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(reorderForecastService.getSuggestions(all, limit));
+    }
+
+    @PostMapping("/reorder-suggestions/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Recompute reorder suggestions", description = "Forecast the demand of every product from its "
+            + "OUT history, in parallel across nodes")
+    public ResponseEntity<?> recomputeReorderSuggestions() {
+        try {
+            jobRunner.trigger(ReorderForecastJob.NAME);
+            return ResponseEntity.accepted().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/classification/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reclassify products", description = "Recompute the ABC and XYZ class of every active product "
+            + "from one scan of the journal")
+    public ResponseEntity<?> recomputeClassification() {
+        try {
+            jobRunner.trigger(ProductClassificationJob.NAME);
+            return ResponseEntity.accepted().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/jobs")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Submit report job", description = "Queue a stock or summary report for background generation")
+    public ResponseEntity<?> submitReportJob(@Valid @RequestBody ReportJobRequest request) {
+        try {
+            ReportJobDto job = reportJobService.submit(request);
+            return ResponseEntity.accepted().body(job);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Get report job", description = "Retrieve status and progress of a report job")
+    public ResponseEntity<ReportJobDto> getReportJob(@PathVariable String id) {
+        return reportJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/jobs/{id}/download")
+    @Workload(WorkloadClass.REPORT)
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Download report job result", description = "Download the JSON result of a completed report job")
+    public ResponseEntity<Resource> downloadReportJob(@PathVariable String id, HttpServletRequest request) throws IOException {
+        Optional<Path> resultFile = reportJobService.getResultFile(id);
+        if (resultFile.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Path file = resultFile.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"report-" + id + ".json\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null || !acceptEncoding.contains("gzip")) {
+            return response.body(new InputStreamResource(new GZIPInputStream(Files.newInputStream(file))));
+        }
+
+        long length = Files.size(file);
+        response.header(HttpHeaders.CONTENT_ENCODING, "gzip").contentLength(length);
+
+        // Let Tomcat hand the already-compressed file to the socket with sendfile
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return response.build();
+        }
+        return response.body(new FileSystemResource(file));
     }
 }
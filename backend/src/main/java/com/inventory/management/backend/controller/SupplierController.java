@@ -1,16 +1,26 @@
 package com.inventory.management.backend.controller;
 
+import com.inventory.management.backend.analytics.SupplierAnalytics;
+import com.inventory.management.backend.analytics.SupplierStatsRebuildJob;
+import com.inventory.management.backend.dto.SupplierAnalyticsDto;
 import com.inventory.management.backend.dto.SupplierDto;
+import com.inventory.management.backend.jobs.JobRunner;
 import com.inventory.management.backend.service.SupplierService;
+import com.inventory.management.backend.web.CatalogETag;
+import com.inventory.management.backend.web.SparseResponses;
+import com.inventory.management.backend.workload.Workload;
+import com.inventory.management.backend.workload.WorkloadClass;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -20,12 +30,22 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 @Tag(name = "Supplier Management", description = "Supplier management APIs")
 public class SupplierController {
+    private static final int DEFAULT_PERIOD_DAYS = 90;
+
     private final SupplierService supplierService;
+    private final SupplierAnalytics supplierAnalytics;
+    private final JobRunner jobRunner;
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get all suppliers", description = "Retrieve all suppliers")
-    public ResponseEntity<List<SupplierDto>> getAllSuppliers() {
+    @CatalogETag
+    public ResponseEntity<?> getAllSuppliers(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout) {
+        if (fields != null || layout != null) {
+            return SparseResponses.of(fields, layout, selection -> supplierService.getAllSuppliers(selection));
+        }
         List<SupplierDto> suppliers = supplierService.getAllSuppliers();
         return ResponseEntity.ok(suppliers);
     }
@@ -33,7 +53,13 @@ public class SupplierController {
     @GetMapping("/active")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get active suppliers", description = "Retrieve all active suppliers")
-    public ResponseEntity<List<SupplierDto>> getActiveSuppliers() {
+    @CatalogETag
+    public ResponseEntity<?> getActiveSuppliers(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout) {
+        if (fields != null || layout != null) {
+            return SparseResponses.of(fields, layout, selection -> supplierService.getActiveSuppliers(selection));
+        }
         List<SupplierDto> suppliers = supplierService.getActiveSuppliers();
         return ResponseEntity.ok(suppliers);
     }
@@ -50,11 +76,68 @@ public class SupplierController {
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Search suppliers", description = "Search suppliers by keyword")
-    public ResponseEntity<List<SupplierDto>> searchSuppliers(@RequestParam String keyword) {
+    @CatalogETag
+    public ResponseEntity<?> searchSuppliers(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout) {
+        if (fields != null || layout != null) {
+            return SparseResponses.of(fields, layout, selection -> supplierService.searchSuppliers(keyword, selection));
+        }
         List<SupplierDto> suppliers = supplierService.searchSuppliers(keyword);
         return ResponseEntity.ok(suppliers);
     }
 
+    @GetMapping("/analytics")
+    @Workload(WorkloadClass.REPORT)
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Rank suppliers", description = "Suppliers by inbound value over a period, the last 90 days "
+            + "by default, with volume, unit price, SKU count and share of all inbound value")
+    public ResponseEntity<?> getSupplierRanking(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "50") int limit) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_PERIOD_DAYS - 1);
+        try {
+            return ResponseEntity.ok(supplierAnalytics.getRanking(start, end, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}/analytics")
+    @Workload(WorkloadClass.REPORT)
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Get supplier analytics", description = "Inbound volume and value, unit price trend per day, "
+            + "week or month, SKU count and share of all inbound value over a period, the last 90 days by default")
+    public ResponseEntity<?> getSupplierAnalytics(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "MONTH") SupplierAnalytics.Granularity granularity) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_PERIOD_DAYS - 1);
+        try {
+            SupplierAnalyticsDto analytics = supplierAnalytics.getAnalytics(id, start, end, granularity);
+            return ResponseEntity.ok(analytics);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/analytics/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild supplier analytics", description = "Recompute the supplier aggregates from the journal")
+    public ResponseEntity<?> rebuildSupplierAnalytics() {
+        try {
+            jobRunner.trigger(SupplierStatsRebuildJob.NAME);
+            return ResponseEntity.accepted().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Create supplier", description = "Create a new supplier (Admin only)")
@@ -1,8 +1,13 @@
 package com.inventory.management.backend.controller;
 
+import com.inventory.management.backend.dto.ScanTransactionRequest;
 import com.inventory.management.backend.dto.TransactionDto;
 import com.inventory.management.backend.entity.Transaction;
+import com.inventory.management.backend.security.UserPrincipal;
 import com.inventory.management.backend.service.TransactionService;
+import com.inventory.management.backend.web.SparseResponses;
+import com.inventory.management.backend.workload.Workload;
+import com.inventory.management.backend.workload.WorkloadClass;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,6 +15,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,7 +34,12 @@ public class TransactionController {
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get all transactions", description = "Retrieve all transactions")
-    public ResponseEntity<List<TransactionDto>> getAllTransactions() {
+    public ResponseEntity<?> getAllTransactions(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout) {
+        if (fields != null || layout != null) {
+            return SparseResponses.of(fields, layout, selection -> transactionService.getAllTransactions(selection));
+        }
         List<TransactionDto> transactions = transactionService.getAllTransactions();
         return ResponseEntity.ok(transactions);
     }
@@ -42,10 +53,28 @@ public class TransactionController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/history")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Get transaction history",
+               description = "Retrieve every journal entry (original, reversals, replacements) of a transaction")
+    public ResponseEntity<?> getTransactionHistory(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(transactionService.getTransactionHistory(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/product/{productId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get transactions by product", description = "Retrieve transactions by product ID")
-    public ResponseEntity<List<TransactionDto>> getTransactionsByProduct(@PathVariable Long productId) {
+    public ResponseEntity<?> getTransactionsByProduct(
+            @PathVariable Long productId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout) {
+        if (fields != null || layout != null) {
+            return SparseResponses.of(fields, layout, selection -> transactionService.getTransactionsByProduct(productId, selection));
+        }
         List<TransactionDto> transactions = transactionService.getTransactionsByProduct(productId);
         return ResponseEntity.ok(transactions);
     }
@@ -53,7 +82,13 @@ public class TransactionController {
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get transactions by user", description = "Retrieve transactions by user ID")
-    public ResponseEntity<List<TransactionDto>> getTransactionsByUser(@PathVariable Long userId) {
+    public ResponseEntity<?> getTransactionsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout) {
+        if (fields != null || layout != null) {
+            return SparseResponses.of(fields, layout, selection -> transactionService.getTransactionsByUser(userId, selection));
+        }
         List<TransactionDto> transactions = transactionService.getTransactionsByUser(userId);
         return ResponseEntity.ok(transactions);
     }
@@ -61,17 +96,29 @@ public class TransactionController {
     @GetMapping("/type/{type}")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get transactions by type", description = "Retrieve transactions by type (IN/OUT)")
-    public ResponseEntity<List<TransactionDto>> getTransactionsByType(@PathVariable Transaction.TransactionType type) {
+    public ResponseEntity<?> getTransactionsByType(
+            @PathVariable Transaction.TransactionType type,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout) {
+        if (fields != null || layout != null) {
+            return SparseResponses.of(fields, layout, selection -> transactionService.getTransactionsByType(type, selection));
+        }
         List<TransactionDto> transactions = transactionService.getTransactionsByType(type);
         return ResponseEntity.ok(transactions);
     }
 
     @GetMapping("/date-range")
+    @Workload(WorkloadClass.REPORT)
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     @Operation(summary = "Get transactions by date range", description = "Retrieve transactions within date range")
-    public ResponseEntity<List<TransactionDto>> getTransactionsByDateRange(
+    public ResponseEntity<?> getTransactionsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String layout) {
+        if (fields != null || layout != null) {
+            return SparseResponses.of(fields, layout, selection -> transactionService.getTransactionsByDateRange(startDate, endDate, selection));
+        }
         List<TransactionDto> transactions = transactionService.getTransactionsByDateRange(startDate, endDate);
         return ResponseEntity.ok(transactions);
     }
@@ -88,9 +135,25 @@ public class TransactionController {
         }
     }
 
+    @PostMapping("/scan")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @Operation(summary = "Create transaction from a scan",
+               description = "Create a transaction for a scanned SKU on behalf of the current user")
+    public ResponseEntity<?> scanTransaction(@Valid @RequestBody ScanTransactionRequest request,
+                                             Authentication authentication) {
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            TransactionDto createdTransaction = transactionService.scanTransaction(request, userPrincipal.getId());
+            return ResponseEntity.ok(createdTransaction);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Update transaction", description = "Update transaction by ID (Admin only)")
+    @Operation(summary = "Update transaction",
+               description = "Correct transaction by ID with a reversal and a replacement entry (Admin only)")
     public ResponseEntity<?> updateTransaction(@PathVariable Long id, @Valid @RequestBody TransactionDto transactionDto) {
         try {
             TransactionDto updatedTransaction = transactionService.updateTransaction(id, transactionDto);
@@ -102,7 +165,7 @@ public class TransactionController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Delete transaction", description = "Delete transaction by ID (Admin only)")
+    @Operation(summary = "Delete transaction", description = "Reverse transaction by ID (Admin only)")
     public ResponseEntity<?> deleteTransaction(@PathVariable Long id) {
         try {
             transactionService.deleteTransaction(id);
@@ -0,0 +1,17 @@
+package com.inventory.management.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnarPayload {
+    private List<String> fields;
+    private Integer rowCount;
+    private Map<String, List<Object>> columns;
+}
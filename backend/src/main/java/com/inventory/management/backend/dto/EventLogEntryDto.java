@@ -0,0 +1,21 @@
+package com.inventory.management.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventLogEntryDto {
+    private Long offset;
+    private Long eventId; // stable across relay retries, use it to drop duplicates
+    private String type;
+    private Long aggregateId;
+    private LocalDateTime occurredAt;
+    @JsonRawValue
+    private String data;
+}
@@ -0,0 +1,15 @@
+package com.inventory.management.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventLogPageDto {
+    private List<EventLogEntryDto> events;
+    private Long nextOffset; // pass back as from= on the next read
+}
@@ -0,0 +1,41 @@
+package com.inventory.management.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FieldSelection {
+    private List<String> fields; // empty means every field
+    private Layout layout;
+
+    public enum Layout {
+        ROWS, COLUMNS
+    }
+
+    public static FieldSelection of(String fields, String layout) {
+        List<String> names = fields == null ? List.of() : Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        return new FieldSelection(names, parseLayout(layout));
+    }
+
+    private static Layout parseLayout(String layout) {
+        if (layout == null || layout.isBlank()) {
+            return Layout.ROWS;
+        }
+        try {
+            return Layout.valueOf(layout.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown layout '" + layout + "', expected rows or columns");
+        }
+    }
+}
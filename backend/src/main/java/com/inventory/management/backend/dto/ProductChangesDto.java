@@ -0,0 +1,15 @@
+package com.inventory.management.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangesDto {
+    private Long version; // pass back as since= on the next sync
+    private List<ProductDto> products; // created, updated or deactivated since the requested version
+}
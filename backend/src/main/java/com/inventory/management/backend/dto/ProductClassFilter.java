@@ -0,0 +1,12 @@
+package com.inventory.management.backend.dto;
+
+import com.inventory.management.backend.entity.ProductClassification;
+
+/**
+ * Optional ABC and XYZ classes a product list is restricted to; null matches any class.
+ */
+public record ProductClassFilter(ProductClassification.AbcClass abc, ProductClassification.XyzClass xyz) {
+    public boolean isEmpty() {
+        return abc == null && xyz == null;
+    }
+}
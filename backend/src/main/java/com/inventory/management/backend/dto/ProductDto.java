@@ -45,6 +45,8 @@ public class ProductDto {
     @Min(value = 0, message = "Minimum stock cannot be negative")
     private Integer minimumStock;
 
+    private Integer stockShards;
+
     private Long supplierId;
     private String supplierName;
 
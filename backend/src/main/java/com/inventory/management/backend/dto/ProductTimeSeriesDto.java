@@ -0,0 +1,35 @@
+package com.inventory.management.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Stock level and unit prices of one product in fixed-width buckets; bucket i starts at
+ * from + i * bucketSeconds and every array has one element per bucket.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductTimeSeriesDto {
+    private Long productId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Long bucketSeconds;
+    private Integer points;
+    private Long openingStock; // level at from
+    private Long closingStock; // level at to
+    private long[] stockMin;
+    private long[] stockMax;
+    private long[] stockLast;
+    private int[] entries;
+    private BigDecimal[] purchasePriceMin; // IN entries; null where a bucket has none
+    private BigDecimal[] purchasePriceMax;
+    private BigDecimal[] purchasePriceLast;
+    private BigDecimal[] salePriceMin; // OUT entries
+    private BigDecimal[] salePriceMax;
+    private BigDecimal[] salePriceLast;
+}
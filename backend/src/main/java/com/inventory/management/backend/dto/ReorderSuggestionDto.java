@@ -0,0 +1,26 @@
+package com.inventory.management.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderSuggestionDto {
+    private Long productId;
+    private String productName;
+    private String sku;
+    private String category;
+    private Integer currentStock;
+    private Integer minimumStock;
+    private Double dailyDemand;
+    private Double demandStdDev;
+    private Integer safetyStock;
+    private Integer reorderPoint;
+    private Integer orderUpTo;
+    private Integer suggestedQuantity; // order-up-to level less current stock, 0 above the reorder point
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,29 @@
+package com.inventory.management.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDto {
+    private String id;
+    private ReportJobRequest.ReportType type;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Status status;
+    private Integer progress; // 0 - 100
+    private Long resultSize; // compressed bytes
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,23 @@
+package com.inventory.management.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequest {
+    @NotNull(message = "Report type is required")
+    private ReportType type;
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    public enum ReportType {
+        STOCK, SUMMARY
+    }
+}
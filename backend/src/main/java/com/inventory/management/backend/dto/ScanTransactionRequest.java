@@ -0,0 +1,29 @@
+package com.inventory.management.backend.dto;
+
+import com.inventory.management.backend.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanTransactionRequest {
+    @NotBlank(message = "SKU is required")
+    private String sku;
+
+    @NotNull(message = "Transaction type is required")
+    private Transaction.TransactionType type;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    @Size(max = 50, message = "Reference number must not exceed 50 characters")
+    private String referenceNumber;
+}
@@ -1,5 +1,6 @@
 package com.inventory.management.backend.dto;
 
+import com.inventory.management.backend.entity.ProductClassification;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,4 +22,9 @@ public class StockReportDto {
     private String supplierName;
     private Boolean lowStock;
     private BigDecimal stockValue;
+    private BigDecimal averageUnitCost;
+    private BigDecimal averageCostValue;
+    private BigDecimal fifoValue;
+    private ProductClassification.AbcClass abcClass; // null until the product is classified
+    private ProductClassification.XyzClass xyzClass;
 }
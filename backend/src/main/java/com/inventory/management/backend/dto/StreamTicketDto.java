@@ -0,0 +1,13 @@
+package com.inventory.management.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamTicketDto {
+    private String ticket; // pass as ticket= when opening the stream
+    private Long expiresInSeconds;
+}
@@ -0,0 +1,28 @@
+package com.inventory.management.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupplierAnalyticsDto {
+    private Long supplierId;
+    private String supplierName;
+    private LocalDate from;
+    private LocalDate to;
+    private Integer rank; // ranking only
+    private Long receivedQuantity;
+    private BigDecimal receivedValue;
+    private Integer entries;
+    private BigDecimal averageUnitPrice; // value-weighted across the supplier's SKUs
+    private Integer skuCount; // products received in the calendar months the period touches
+    private BigDecimal shareOfInboundValue; // fraction of all suppliers' inbound value
+    private BigDecimal unitPriceChange; // relative, first to last trend period with receipts
+    private List<SupplierTrendPointDto> trend; // single supplier only
+}
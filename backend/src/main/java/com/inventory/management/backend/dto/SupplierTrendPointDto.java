@@ -0,0 +1,18 @@
+package com.inventory.management.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupplierTrendPointDto {
+    private LocalDate periodStart;
+    private Long quantity;
+    private BigDecimal value;
+    private BigDecimal averageUnitPrice;
+}
@@ -0,0 +1,18 @@
+package com.inventory.management.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopMoverDto {
+    private Long id;
+    private String name;
+    private String sku; // products only
+    private BigDecimal amount; // units moved, or their value
+    private BigDecimal maxOverestimate;
+}
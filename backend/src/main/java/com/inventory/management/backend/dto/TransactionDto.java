@@ -48,4 +48,8 @@ public class TransactionDto {
     private String referenceNumber;
 
     private LocalDateTime transactionDate;
+
+    // Journal metadata, set by the server
+    private Transaction.EntryKind entryKind;
+    private Long correctsTransactionId;
 }
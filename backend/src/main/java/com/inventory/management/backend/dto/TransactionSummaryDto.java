@@ -6,13 +6,20 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class TransactionSummaryDto {
-    private LocalDate date;
-    private String period; // DAILY, WEEKLY, MONTHLY
+    private LocalDate date; // local date the period starts on
+    private OffsetDateTime periodStart; // in the requested timezone
+    private String period; // HOURLY, DAILY, WEEKLY, MONTHLY, QUARTERLY
+    private String category; // set when grouped by category
+    private Long supplierId; // set when grouped by supplier
+    private String supplierName;
+    private Long userId; // set when grouped by user
+    private String username;
     private Long totalTransactions;
     private Long inTransactions;
     private Long outTransactions;
@@ -0,0 +1,19 @@
+package com.inventory.management.backend.entity;
+
+import com.inventory.management.backend.service.CatalogVersionService;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+public class CatalogChangeListener {
+    private final CatalogVersionService catalogVersionService;
+
+    public CatalogChangeListener(CatalogVersionService catalogVersionService) {
+        this.catalogVersionService = catalogVersionService;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void markChanged(Object entity) {
+        ((CatalogVersioned) entity).setChangeVersion(catalogVersionService.next());
+    }
+}
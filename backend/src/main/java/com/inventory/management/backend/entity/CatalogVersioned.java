@@ -0,0 +1,9 @@
+package com.inventory.management.backend.entity;
+
+/**
+ * Entities whose rows feed the catalog change feed. The change marker is stamped by
+ * {@link CatalogChangeListener} on every insert and update.
+ */
+public interface CatalogVersioned {
+    void setChangeVersion(Long changeVersion);
+}
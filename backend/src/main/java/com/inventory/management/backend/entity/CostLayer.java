@@ -0,0 +1,41 @@
+package com.inventory.management.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Quantity received at one unit cost and not yet issued. Issues consume a product's
+ * layers oldest first. Maintained with plain JDBC by {@code ValuationStore}.
+ */
+@Entity
+@Table(name = "cost_layers",
+       indexes = @Index(name = "idx_cost_layers_product", columnList = "product_id, received_at, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CostLayer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Receipt that created the layer, null for stock that no transaction explains
+    @Column(name = "source_transaction_id")
+    private Long sourceTransactionId;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "remaining_quantity", nullable = false)
+    private Integer remainingQuantity;
+
+    @Column(name = "unit_cost", nullable = false, precision = 10, scale = 2)
+    private BigDecimal unitCost;
+}
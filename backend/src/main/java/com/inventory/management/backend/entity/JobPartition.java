@@ -0,0 +1,69 @@
+package com.inventory.management.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A product-id range of a {@link JobRun}. Any node may claim it for a lease; the checkpoint
+ * is the last product id fully processed, so a new owner resumes after it.
+ */
+@Entity
+@Table(name = "job_partitions",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"run_id", "partition_no"}),
+       indexes = @Index(name = "idx_job_partitions_status", columnList = "status, lease_until"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobPartition {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "job_name", nullable = false, length = 64)
+    private String jobName;
+
+    @Column(name = "partition_no", nullable = false)
+    private Integer partitionNo;
+
+    @Column(name = "range_start", nullable = false)
+    private Long rangeStart;
+
+    @Column(name = "range_end", nullable = false)
+    private Long rangeEnd;
+
+    @Column(name = "checkpoint")
+    private Long checkpoint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(length = 64)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+}
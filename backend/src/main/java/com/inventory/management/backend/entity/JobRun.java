@@ -0,0 +1,49 @@
+package com.inventory.management.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One scheduled execution of a cluster job, planned by the job's leader. Maintained with
+ * plain JDBC by {@code JobStore}.
+ */
+@Entity
+@Table(name = "job_runs",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"job_name", "due_at"}),
+       indexes = @Index(name = "idx_job_runs_job_status", columnList = "job_name, status"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 64)
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // When the schedule wanted the run, lag is measured against it
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(nullable = false)
+    private Integer partitions;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,11 +14,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_change_version", columnList = "change_version"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Product {
+@EntityListeners(CatalogChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
+public class Product implements CatalogVersioned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -42,6 +47,10 @@ public class Product {
     @Column(nullable = false)
     private Integer stock = 0;
 
+    // When greater than 1, stock lives in product_stock_shards and the stock column is not maintained
+    @Column(name = "stock_shards")
+    private Integer stockShards = 1;
+
     @Column(name = "minimum_stock")
     private Integer minimumStock = 0;
 
@@ -52,6 +61,13 @@ public class Product {
     @Column(nullable = false)
     private Boolean active = true;
 
+    @Version
+    private Long version;
+
+    // Catalog version of the last change to this row, see CatalogVersionService
+    @Column(name = "change_version")
+    private Long changeVersion;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,54 @@
+package com.inventory.management.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ABC class of an active product by consumption value and XYZ class by demand
+ * variability, recomputed by the classification job. Kept beside {@link Product} so a
+ * run does not touch catalog rows, their versions or their cache entries. Written with
+ * plain JDBC by {@code ClassificationStore}.
+ */
+@Entity
+@Table(name = "product_classifications",
+       indexes = @Index(name = "idx_product_classifications_classes", columnList = "abc_class, xyz_class"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductClassification {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "abc_class", nullable = false, length = 1)
+    private AbcClass abcClass;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "xyz_class", nullable = false, length = 1)
+    private XyzClass xyzClass;
+
+    // OUT quantity over the window at the product's purchase price
+    @Column(name = "consumption_value", nullable = false, precision = 19, scale = 2)
+    private BigDecimal consumptionValue;
+
+    // Coefficient of variation of demand per period; null without demand
+    @Column(name = "demand_cv")
+    private Double demandCv;
+
+    @Column(name = "classified_at", nullable = false)
+    private LocalDateTime classifiedAt;
+
+    public enum AbcClass {
+        A, B, C
+    }
+
+    public enum XyzClass {
+        X, Y, Z
+    }
+}
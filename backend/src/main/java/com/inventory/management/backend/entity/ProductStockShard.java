@@ -0,0 +1,34 @@
+package com.inventory.management.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "product_stock_shards",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "shard_no"}),
+       indexes = @Index(name = "idx_product_stock_shards_change_version", columnList = "change_version"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(CatalogChangeListener.class)
+public class ProductStockShard implements CatalogVersioned {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @Column(name = "shard_no", nullable = false)
+    private Integer shardNo;
+
+    @Column(nullable = false)
+    private Integer quantity = 0;
+
+    // Bulk counter updates bypass the entity listener and set this themselves
+    @Column(name = "change_version")
+    private Long changeVersion;
+}
@@ -0,0 +1,45 @@
+package com.inventory.management.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed cost of a product's stock, kept current by folding in queued changes. Its
+ * row lock also serializes the updates of one product's cost layers. Maintained with plain
+ * JDBC by {@code ValuationStore}.
+ */
+@Entity
+@Table(name = "product_valuations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductValuation {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    // Negative while issues are waiting for a receipt to cost them
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "average_unit_cost", nullable = false, precision = 19, scale = 6)
+    private BigDecimal averageUnitCost;
+
+    @Column(name = "average_value", nullable = false, precision = 19, scale = 2)
+    private BigDecimal averageValue;
+
+    @Column(name = "fifo_value", nullable = false, precision = 19, scale = 2)
+    private BigDecimal fifoValue;
+
+    // Business date of the newest movement applied; an older one forces a rebuild
+    @Column(name = "last_movement_at")
+    private LocalDateTime lastMovementAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,47 @@
+package com.inventory.management.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Demand forecast and reorder policy of a product, recomputed in batches from its OUT
+ * history. Written with plain JDBC by {@code ForecastStore}; the suggested order quantity
+ * is derived from live stock when read.
+ */
+@Entity
+@Table(name = "reorder_suggestions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderSuggestion {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    // Smoothed units per day and the deviation of a day's demand from it
+    @Column(name = "daily_demand", nullable = false)
+    private Double dailyDemand;
+
+    @Column(name = "demand_std_dev", nullable = false)
+    private Double demandStdDev;
+
+    @Column(name = "safety_stock", nullable = false)
+    private Integer safetyStock;
+
+    @Column(name = "reorder_point", nullable = false)
+    private Integer reorderPoint;
+
+    @Column(name = "order_up_to", nullable = false)
+    private Integer orderUpTo;
+
+    // Days of history the forecast saw, fewer for products younger than the window
+    @Column(name = "history_days", nullable = false)
+    private Integer historyDays;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,29 @@
+package com.inventory.management.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single-use ticket that opens one event stream. Only the SHA-256 of the ticket is kept,
+ * and redeeming deletes the row. Written with plain JDBC.
+ */
+@Entity
+@Table(name = "stream_tickets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamTicket {
+    @Id
+    @Column(name = "ticket_hash", length = 64)
+    private String ticketHash;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
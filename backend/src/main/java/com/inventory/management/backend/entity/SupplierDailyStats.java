@@ -0,0 +1,41 @@
+package com.inventory.management.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Effective inbound entries of one supplier on one business day, adjusted by every IN
+ * journal entry as it is appended. Maintained with plain JDBC by {@code SupplierStatsStore}.
+ */
+@Entity
+@Table(name = "supplier_daily_stats",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"supplier_id", "day"}),
+       indexes = @Index(name = "idx_supplier_daily_stats_day", columnList = "day"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupplierDailyStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "supplier_id", nullable = false)
+    private Long supplierId;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal value;
+
+    @Column(nullable = false)
+    private Integer entries;
+}
@@ -0,0 +1,43 @@
+package com.inventory.management.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Effective inbound quantity of one product from one supplier in one calendar month, so
+ * the SKUs a supplier delivered can be counted without reading the journal. Maintained
+ * with plain JDBC by {@code SupplierStatsStore}.
+ */
+@Entity
+@Table(name = "supplier_product_months",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"supplier_id", "month", "product_id"}),
+       indexes = @Index(name = "idx_supplier_product_months_month", columnList = "month"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupplierProductMonth {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "supplier_id", nullable = false)
+    private Long supplierId;
+
+    // First day of the month
+    @Column(nullable = false)
+    private LocalDate month;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal value;
+}
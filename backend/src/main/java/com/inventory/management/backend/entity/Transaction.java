@@ -5,12 +5,27 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * Entry of the stock movement journal. Rows are only ever inserted: a correction adds a
+ * {@link EntryKind#REVERSAL} of the entry it corrects and, for an edit, a
+ * {@link EntryKind#REPLACEMENT} carrying the new values. An entry is effective while
+ * nothing references it through {@code corrects}.
+ */
 @Entity
-@Table(name = "transactions")
+@Immutable
+@Table(name = "transactions",
+       uniqueConstraints = @UniqueConstraint(name = "uk_transactions_corrects_kind",
+                                             columnNames = {"corrects_transaction_id", "entry_kind"}),
+       indexes = {
+               @Index(name = "idx_transactions_product_date", columnList = "product_id, transaction_date, id"),
+               // Lets supplier aggregates be rebuilt a month at a time
+               @Index(name = "idx_transactions_date", columnList = "transaction_date")
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -50,17 +65,36 @@ public class Transaction {
     @Column(name = "reference_number", length = 50)
     private String referenceNumber;
 
-    @CreationTimestamp
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_kind", nullable = false, length = 16)
+    private EntryKind entryKind = EntryKind.ORIGINAL;
+
+    // The entry this one reverses or replaces; also backs the superseded-by lookups
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "corrects_transaction_id")
+    private Transaction corrects;
+
+    // Business date of the movement, replacements keep the date of the entry they replace
     @Column(name = "transaction_date", nullable = false, updatable = false)
     private LocalDateTime transactionDate;
 
+    @CreationTimestamp
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+
     public enum TransactionType {
         IN, OUT
     }
 
+    public enum EntryKind {
+        ORIGINAL, REVERSAL, REPLACEMENT
+    }
+
     @PrePersist
-    @PreUpdate
-    private void calculateTotalPrice() {
+    private void prepare() {
+        if (transactionDate == null) {
+            transactionDate = LocalDateTime.now();
+        }
         if (unitPrice != null && quantity != null) {
             totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
         }
@@ -0,0 +1,40 @@
+package com.inventory.management.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change waiting to be folded into a product's valuation, queued in the transaction
+ * that made it. Rows are short-lived: the valuation folder deletes them as it applies
+ * them. Written and claimed with plain JDBC by {@code ValuationStore}.
+ */
+@Entity
+@Table(name = "valuation_changes", indexes = {
+        @Index(name = "idx_valuation_changes_product", columnList = "product_id"),
+        @Index(name = "idx_valuation_changes_transaction", columnList = "transaction_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValuationChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // The new journal entry of a MOVEMENT, empty otherwise
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Kind kind;
+
+    public enum Kind {
+        MOVEMENT, RECONCILE, REBUILD
+    }
+}
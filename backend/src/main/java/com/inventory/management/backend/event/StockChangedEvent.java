@@ -0,0 +1,25 @@
+package com.inventory.management.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@code StockCounterService} whenever a product's stock moves. Listeners
+ * that care about committed state use {@code @TransactionalEventListener}.
+ */
+@Getter
+@AllArgsConstructor
+public class StockChangedEvent {
+    private final Long productId;
+    private final int previousStock;
+    private final int stock;
+    private final int minimumStock;
+
+    public boolean crossedIntoLowStock() {
+        return previousStock > minimumStock && stock <= minimumStock;
+    }
+
+    public boolean recoveredFromLowStock() {
+        return previousStock <= minimumStock && stock > minimumStock;
+    }
+}
@@ -0,0 +1,281 @@
+package com.inventory.management.backend.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed stock and product changes out to SSE subscribers. Publishing never
+ * blocks on a client: each event is formatted once, offered to every subscriber's
+ * bounded buffer (dropping the oldest entry when full) and a small dispatcher pool
+ * drains buffers that have pending events. Streams are written with non-blocking
+ * servlet output, so a slow client parks its buffer instead of a dispatcher thread;
+ * one whose connection has not drained for {@code send-timeout-ms} is disconnected.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockEventHub {
+    private static final byte[] PING = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.events.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${inventory.events.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${inventory.events.dispatcher-threads:4}")
+    private int dispatcherThreads;
+
+    @Value("${inventory.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${inventory.events.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private ExecutorService dispatcher;
+    private Counter publishedEvents;
+    private Counter droppedEvents;
+    private Counter evictedSubscribers;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        dispatcher = Executors.newFixedThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stock-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        publishedEvents = meterRegistry.counter("inventory.events.published");
+        droppedEvents = meterRegistry.counter("inventory.events.dropped");
+        evictedSubscribers = meterRegistry.counter("inventory.events.evicted");
+        Gauge.builder("inventory.events.subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+    }
+
+    /**
+     * Turns the request into an event stream; the response stays open after the handler
+     * returns. Throws IllegalStateException when the hub is full.
+     */
+    public void subscribe(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many event subscribers");
+        }
+
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext context = request.startAsync(request, response);
+        context.setTimeout(timeoutMs);
+        Subscriber subscriber = new Subscriber(context, response.getOutputStream());
+        context.addListener(subscriber);
+        subscribers.add(subscriber);
+        subscriber.output.setWriteListener(subscriber);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        broadcast("stock", "{\"productId\":" + event.getProductId()
+                + ",\"stock\":" + event.getStock()
+                + ",\"minimumStock\":" + event.getMinimumStock() + "}");
+
+        if (event.crossedIntoLowStock() || event.recoveredFromLowStock()) {
+            broadcast("low-stock", "{\"productId\":" + event.getProductId()
+                    + ",\"lowStock\":" + event.crossedIntoLowStock()
+                    + ",\"stock\":" + event.getStock()
+                    + ",\"minimumStock\":" + event.getMinimumStock() + "}");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        broadcast("product", "{\"productId\":" + event.getProductId()
+                + ",\"change\":\"" + event.getChangeType() + "\"}");
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.events.heartbeat-ms:20000}")
+    public void heartbeat() {
+        // Keeps idle connections open through proxies and flushes out clients that went away
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(PING);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.events.send-check-ms:1000}")
+    public void evictStalledSubscribers() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.stalledFor(now) > sendTimeoutMs) {
+                log.debug("Dropping event subscriber that stopped reading");
+                evictedSubscribers.increment();
+                subscriber.close();
+            }
+        }
+    }
+
+    private void broadcast(String name, String data) {
+        publishedEvents.increment();
+        byte[] frame = ("event: " + name + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    /**
+     * One stream. The output is only touched by a drain holding {@code draining}; a drain
+     * that finds the connection not ready parks until the container calls
+     * {@link #onWritePossible()}.
+     */
+    private class Subscriber implements WriteListener, AsyncListener {
+        private final AsyncContext context;
+        private final ServletOutputStream output;
+        private final ArrayDeque<byte[]> buffer = new ArrayDeque<>();
+        private boolean draining;
+        private boolean unflushed = true; // sends the headers on the first drain
+        private long stalledSince; // 0 while the connection accepts writes
+
+        private Subscriber(AsyncContext context, ServletOutputStream output) {
+            this.context = context;
+            this.output = output;
+        }
+
+        private void offer(byte[] frame) {
+            synchronized (this) {
+                if (buffer.size() >= bufferSize) {
+                    buffer.pollFirst();
+                    droppedEvents.increment();
+                }
+                buffer.addLast(frame);
+                if (draining || stalledSince != 0) {
+                    return;
+                }
+                draining = true;
+            }
+            dispatch();
+        }
+
+        @Override
+        public void onWritePossible() {
+            synchronized (this) {
+                stalledSince = 0;
+                if (draining || (buffer.isEmpty() && !unflushed)) {
+                    return;
+                }
+                draining = true;
+            }
+            dispatch();
+        }
+
+        private void dispatch() {
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RuntimeException e) {
+                // Shutting down
+                close();
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    byte[] frame;
+                    synchronized (this) {
+                        if (!output.isReady()) {
+                            stalledSince = System.currentTimeMillis();
+                            draining = false;
+                            return;
+                        }
+                        frame = buffer.pollFirst();
+                        if (frame == null && !unflushed) {
+                            draining = false;
+                            return;
+                        }
+                        unflushed = frame != null;
+                    }
+                    if (frame != null) {
+                        output.write(frame);
+                    } else {
+                        output.flush();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping event subscriber: {}", e.getMessage());
+                close();
+            }
+        }
+
+        private synchronized long stalledFor(long now) {
+            return stalledSince == 0 ? 0 : now - stalledSince;
+        }
+
+        private void close() {
+            if (subscribers.remove(this)) {
+                try {
+                    context.complete();
+                } catch (IllegalStateException e) {
+                    // Already completed by the container
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            subscribers.remove(this);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
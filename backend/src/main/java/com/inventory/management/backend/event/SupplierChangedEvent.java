@@ -0,0 +1,10 @@
+package com.inventory.management.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SupplierChangedEvent {
+    private final Long supplierId;
+}
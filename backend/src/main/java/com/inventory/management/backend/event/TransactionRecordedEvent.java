@@ -0,0 +1,27 @@
+package com.inventory.management.backend.event;
+
+import com.inventory.management.backend.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@code TransactionService} for every journal entry it appends. A reversal
+ * carries the values and date of the entry it cancels.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionRecordedEvent {
+    private final Long transactionId;
+    private final Long productId;
+    private final Long userId;
+    // The transaction's supplier, otherwise the product's
+    private final Long supplierId;
+    private final Transaction.TransactionType type;
+    private final boolean reversal;
+    private final int quantity;
+    private final BigDecimal totalPrice;
+    private final LocalDateTime transactionDate;
+}
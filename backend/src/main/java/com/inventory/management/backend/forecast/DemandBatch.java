@@ -0,0 +1,39 @@
+package com.inventory.management.backend.forecast;
+
+/**
+ * Daily OUT quantities of a batch of products over the same window, in one row-major
+ * array, and the forecast computed from them. Index {@code i} is the i-th product of the
+ * batch throughout.
+ */
+final class DemandBatch {
+    final int size;
+    final int days;
+    final long[] productIds;
+    // First day of the window the product existed on; earlier days are not zero demand
+    final int[] firstDay;
+    // demand[i * days + day]
+    final double[] demand;
+
+    final double[] dailyDemand;
+    final double[] demandStdDev;
+    final int[] safetyStock;
+    final int[] reorderPoint;
+    final int[] orderUpTo;
+
+    DemandBatch(long[] productIds, int days) {
+        this.size = productIds.length;
+        this.days = days;
+        this.productIds = productIds;
+        this.firstDay = new int[size];
+        this.demand = new double[size * days];
+        this.dailyDemand = new double[size];
+        this.demandStdDev = new double[size];
+        this.safetyStock = new int[size];
+        this.reorderPoint = new int[size];
+        this.orderUpTo = new int[size];
+    }
+
+    int historyDays(int i) {
+        return days - firstDay[i];
+    }
+}
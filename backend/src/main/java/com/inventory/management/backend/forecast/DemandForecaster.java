@@ -0,0 +1,98 @@
+package com.inventory.management.backend.forecast;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simple exponential smoothing over daily demand, with the squared one-day-ahead error
+ * smoothed alongside it as the variance. The reorder point covers expected demand over the
+ * lead time plus safety stock for the service level; an order tops stock up to a further
+ * review period of demand.
+ */
+final class DemandForecaster {
+    // Products per fork-join leaf task
+    private static final int LEAF_SIZE = 64;
+    // Days averaged to seed the level and variance before smoothing starts
+    private static final int WARMUP_DAYS = 14;
+
+    private final double smoothing;
+    private final double leadTimeDays;
+    private final double reviewDays;
+    private final double serviceLevelZ;
+
+    DemandForecaster(double smoothing, double leadTimeDays, double reviewDays, double serviceLevelZ) {
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Smoothing must be in (0, 1]");
+        }
+        this.smoothing = smoothing;
+        this.leadTimeDays = leadTimeDays;
+        this.reviewDays = reviewDays;
+        this.serviceLevelZ = serviceLevelZ;
+    }
+
+    void forecast(DemandBatch batch, ForkJoinPool pool) {
+        pool.invoke(new Slice(batch, 0, batch.size));
+    }
+
+    private void forecast(DemandBatch batch, int i) {
+        int first = batch.firstDay[i];
+        int end = batch.days;
+        int history = end - first;
+        if (history <= 0) {
+            return;
+        }
+        double[] demand = batch.demand;
+        int row = i * batch.days;
+
+        int warmup = Math.min(history, WARMUP_DAYS);
+        double level = 0;
+        for (int day = first; day < first + warmup; day++) {
+            level += demand[row + day];
+        }
+        level /= warmup;
+        double variance = 0;
+        for (int day = first; day < first + warmup; day++) {
+            double deviation = demand[row + day] - level;
+            variance += deviation * deviation;
+        }
+        variance /= warmup;
+
+        for (int day = first + warmup; day < end; day++) {
+            double error = demand[row + day] - level;
+            variance += smoothing * (error * error - variance);
+            level += smoothing * error;
+        }
+
+        double deviation = Math.sqrt(variance);
+        double safety = serviceLevelZ * deviation * Math.sqrt(leadTimeDays);
+        batch.dailyDemand[i] = level;
+        batch.demandStdDev[i] = deviation;
+        batch.safetyStock[i] = (int) Math.ceil(safety);
+        batch.reorderPoint[i] = (int) Math.ceil(level * leadTimeDays + safety);
+        batch.orderUpTo[i] = (int) Math.ceil(level * (leadTimeDays + reviewDays) + safety);
+    }
+
+    private final class Slice extends RecursiveAction {
+        private final DemandBatch batch;
+        private final int from;
+        private final int to;
+
+        Slice(DemandBatch batch, int from, int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    forecast(batch, i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Slice(batch, from, middle), new Slice(batch, middle, to));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.inventory.management.backend.forecast;
+
+import com.inventory.management.backend.dto.ReorderSuggestionDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads daily OUT history into {@link DemandBatch}es and writes reorder_suggestions, over
+ * plain JDBC so a batch is one aggregate query and one upsert.
+ */
+@Component
+@RequiredArgsConstructor
+class ForecastStore {
+    // Effective OUT entries only, summed per product and day since the window start
+    private static final String DAILY_DEMAND = "SELECT t.product_id, "
+            + "CAST(t.transaction_date AS date) - CAST(? AS date), SUM(t.quantity) FROM transactions t WHERE t.product_id = ANY(?) AND t.type = 'OUT' "
+            + "AND t.transaction_date >= ? AND t.transaction_date < ? AND t.entry_kind <> 'REVERSAL' "
+            + "AND NOT EXISTS (SELECT 1 FROM transactions c WHERE c.corrects_transaction_id IS NOT NULL "
+            + "AND c.corrects_transaction_id = t.id) GROUP BY 1, 2";
+
+    private static final String UPSERT = "INSERT INTO reorder_suggestions (product_id, daily_demand, "
+            + "demand_std_dev, safety_stock, reorder_point, order_up_to, history_days, computed_at) "
+            + "SELECT u.*, now() FROM unnest(?, ?, ?, ?, ?, ?, ?) AS u ON CONFLICT (product_id) DO UPDATE SET "
+            + "daily_demand = EXCLUDED.daily_demand, demand_std_dev = EXCLUDED.demand_std_dev, "
+            + "safety_stock = EXCLUDED.safety_stock, reorder_point = EXCLUDED.reorder_point, "
+            + "order_up_to = EXCLUDED.order_up_to, history_days = EXCLUDED.history_days, "
+            + "computed_at = EXCLUDED.computed_at";
+
+    private static final String SUGGESTIONS = "SELECT p.id, p.name, p.sku, p.category, p.stock_now, "
+            + "p.minimum_stock, r.daily_demand, r.demand_std_dev, r.safety_stock, r.reorder_point, r.order_up_to, "
+            + "r.computed_at FROM reorder_suggestions r JOIN (SELECT p.*, CASE WHEN p.stock_shards > 1 THEN "
+            + "COALESCE((SELECT SUM(s.quantity) FROM product_stock_shards s WHERE s.product_id = p.id), 0) "
+            + "ELSE p.stock END AS stock_now FROM products p WHERE p.active = true) p ON p.id = r.product_id ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Loads the daily demand of the products, sorted by id, over the {@code days} days
+     * before {@code end}.
+     */
+    DemandBatch load(long[] productIds, LocalDate end, int days) {
+        DemandBatch batch = new DemandBatch(productIds, days);
+        LocalDate start = end.minusDays(days);
+        Long[] ids = Arrays.stream(productIds).boxed().toArray(Long[]::new);
+
+        jdbcTemplate.query("SELECT id, created_at FROM products WHERE id = ANY(?)",
+                ps -> ps.setArray(1, bigints(ps, ids)), rs -> {
+                    int i = Arrays.binarySearch(productIds, rs.getLong(1));
+                    long sinceStart = ChronoUnit.DAYS.between(start, rs.getObject(2, LocalDateTime.class).toLocalDate());
+                    batch.firstDay[i] = (int) Math.max(0, Math.min(days, sinceStart));
+                });
+        jdbcTemplate.query(DAILY_DEMAND, ps -> {
+            ps.setObject(1, start);
+            ps.setArray(2, bigints(ps, ids));
+            ps.setObject(3, start.atStartOfDay());
+            ps.setObject(4, end.atStartOfDay());
+        }, rs -> {
+            int i = Arrays.binarySearch(productIds, rs.getLong(1));
+            int day = rs.getInt(2);
+            batch.demand[i * days + day] = rs.getLong(3);
+            // Sales before the recorded creation date, e.g. imported history, extend the window
+            batch.firstDay[i] = Math.min(batch.firstDay[i], day);
+        });
+        return batch;
+    }
+
+    void save(DemandBatch batch) {
+        jdbcTemplate.update(UPSERT, ps -> {
+            ps.setArray(1, bigints(ps, Arrays.stream(batch.productIds).boxed().toArray(Long[]::new)));
+            ps.setArray(2, array(ps, "float8", Arrays.stream(batch.dailyDemand).boxed().toArray()));
+            ps.setArray(3, array(ps, "float8", Arrays.stream(batch.demandStdDev).boxed().toArray()));
+            ps.setArray(4, array(ps, "integer", Arrays.stream(batch.safetyStock).boxed().toArray()));
+            ps.setArray(5, array(ps, "integer", Arrays.stream(batch.reorderPoint).boxed().toArray()));
+            ps.setArray(6, array(ps, "integer", Arrays.stream(batch.orderUpTo).boxed().toArray()));
+            Object[] history = new Object[batch.size];
+            for (int i = 0; i < batch.size; i++) {
+                history[i] = batch.historyDays(i);
+            }
+            ps.setArray(7, array(ps, "integer", history));
+        });
+    }
+
+    /**
+     * Active products with a forecast, largest suggested order first; only those at or
+     * below their reorder point unless {@code all}.
+     */
+    List<ReorderSuggestionDto> suggestions(boolean all, int limit) {
+        String sql = SUGGESTIONS + (all ? "" : "WHERE p.stock_now <= r.reorder_point AND p.stock_now < r.order_up_to ")
+                + "ORDER BY CASE WHEN p.stock_now <= r.reorder_point THEN r.order_up_to - p.stock_now ELSE 0 END DESC, "
+                + "p.id LIMIT ?";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            int stock = rs.getInt(5);
+            int reorderPoint = rs.getInt(10);
+            int orderUpTo = rs.getInt(11);
+            return new ReorderSuggestionDto(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), stock,
+                    (Integer) rs.getObject(6), rs.getDouble(7), rs.getDouble(8), rs.getInt(9), reorderPoint, orderUpTo,
+                    stock <= reorderPoint ? Math.max(orderUpTo - stock, 0) : 0,
+                    rs.getObject(12, LocalDateTime.class));
+        }, limit);
+    }
+
+    private static Array bigints(PreparedStatement ps, Long[] ids) throws SQLException {
+        return array(ps, "bigint", ids);
+    }
+
+    private static Array array(PreparedStatement ps, String type, Object[] values) throws SQLException {
+        return ps.getConnection().createArrayOf(type, values);
+    }
+}
@@ -0,0 +1,65 @@
+package com.inventory.management.backend.forecast;
+
+import com.inventory.management.backend.jobs.ClusterJob;
+import com.inventory.management.backend.jobs.JobContext;
+import com.inventory.management.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Recomputes every product's demand forecast and reorder suggestion, a batch of products
+ * per step. Partitions run in parallel on all nodes.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReorderForecastJob implements ClusterJob {
+    public static final String NAME = "reorder-forecast";
+
+    private final ProductRepository productRepository;
+    private final ReorderForecastService reorderForecastService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.forecast.recompute.interval-ms:86400000}")
+    private long intervalMs;
+
+    @Value("${inventory.forecast.recompute.partitions:8}")
+    private int partitions;
+
+    @Value("${inventory.forecast.recompute.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.ofMillis(intervalMs);
+    }
+
+    @Override
+    public int partitions() {
+        return partitions;
+    }
+
+    @Override
+    public void run(JobContext context) {
+        while (!context.shouldStop()) {
+            List<Long> productIds = productRepository.findIdsInRange(context.checkpoint(), context.rangeEnd(),
+                    PageRequest.of(0, batchSize));
+            if (productIds.isEmpty()) {
+                return;
+            }
+            int forecast = reorderForecastService.recompute(productIds);
+            meterRegistry.counter("inventory.forecast.products").increment(forecast);
+            context.checkpoint(productIds.get(productIds.size() - 1));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.inventory.management.backend.forecast;
+
+import com.inventory.management.backend.dto.ReorderSuggestionDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Forecasts daily demand per product from its effective OUT history and derives a reorder
+ * point and order-up-to level, a batch of products at a time. A batch is read into
+ * primitive arrays with one aggregate query and forecast on a fork-join pool shared by
+ * every batch on the node.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReorderForecastService {
+    private final ForecastStore store;
+
+    @Value("${inventory.forecast.history-days:1095}")
+    private int historyDays;
+
+    @Value("${inventory.forecast.smoothing:0.1}")
+    private double smoothing;
+
+    @Value("${inventory.forecast.lead-time-days:7}")
+    private double leadTimeDays;
+
+    @Value("${inventory.forecast.review-days:7}")
+    private double reviewDays;
+
+    @Value("${inventory.forecast.service-level-z:1.65}")
+    private double serviceLevelZ;
+
+    // 0 for one thread per core
+    @Value("${inventory.forecast.parallelism:0}")
+    private int parallelism;
+
+    private DemandForecaster forecaster;
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void start() {
+        forecaster = new DemandForecaster(smoothing, leadTimeDays, reviewDays, serviceLevelZ);
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Recomputes the suggestions of a batch of products from the history up to yesterday.
+     */
+    public int recompute(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        long[] ids = productIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        DemandBatch batch = store.load(ids, LocalDate.now(), historyDays);
+        forecaster.forecast(batch, pool);
+        store.save(batch);
+        return batch.size;
+    }
+
+    public List<ReorderSuggestionDto> getSuggestions(boolean all, int limit) {
+        return store.suggestions(all, limit);
+    }
+}
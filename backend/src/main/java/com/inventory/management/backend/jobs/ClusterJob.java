@@ -0,0 +1,25 @@
+package com.inventory.management.backend.jobs;
+
+import java.time.Duration;
+
+/**
+ * A recurring job run once per interval across the whole cluster. The node holding the
+ * job's advisory lock plans each run and splits it into product-id ranges; the ranges are
+ * worked on by whichever nodes claim them.
+ */
+public interface ClusterJob {
+    String name();
+
+    Duration interval();
+
+    default int partitions() {
+        return 1;
+    }
+
+    /**
+     * Processes the context's range from just after its checkpoint. Implementations
+     * checkpoint as they go and return early once {@link JobContext#shouldStop()} says so;
+     * throwing schedules a retry of the partition from its last checkpoint.
+     */
+    void run(JobContext context);
+}
@@ -0,0 +1,71 @@
+package com.inventory.management.backend.jobs;
+
+/**
+ * The partition a job is working on: an inclusive product-id range and the last id
+ * already processed, possibly by an earlier owner.
+ */
+public final class JobContext {
+    private final JobStore.ClaimedPartition partition;
+    private final JobStore store;
+    private final String owner;
+    private final int leaseSeconds;
+    private final JobRunner runner;
+    private volatile long checkpoint;
+    private volatile boolean leaseLost;
+
+    JobContext(JobStore.ClaimedPartition partition, JobStore store, String owner, int leaseSeconds, JobRunner runner) {
+        this.partition = partition;
+        this.store = store;
+        this.owner = owner;
+        this.leaseSeconds = leaseSeconds;
+        this.runner = runner;
+        this.checkpoint = partition.checkpoint() != null ? partition.checkpoint() : partition.rangeStart() - 1;
+    }
+
+    public long rangeStart() {
+        return partition.rangeStart();
+    }
+
+    public long rangeEnd() {
+        return partition.rangeEnd();
+    }
+
+    public int partitionNo() {
+        return partition.partitionNo();
+    }
+
+    /**
+     * Last id processed so far; work resumes after it.
+     */
+    public long checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Records everything up to {@code lastProcessedId} as done and extends the lease.
+     */
+    public void checkpoint(long lastProcessedId) {
+        if (!store.checkpoint(partition.id(), owner, lastProcessedId, leaseSeconds)) {
+            leaseLost = true;
+            throw new IllegalStateException("Lease on partition " + partition.partitionNo() + " of "
+                    + partition.jobName() + " was lost");
+        }
+        checkpoint = lastProcessedId;
+    }
+
+    public boolean shouldStop() {
+        return leaseLost || runner.isStopping();
+    }
+
+    long partitionId() {
+        return partition.id();
+    }
+
+    boolean isLeaseLost() {
+        return leaseLost;
+    }
+
+    void leaseLost() {
+        leaseLost = true;
+    }
+}
@@ -0,0 +1,404 @@
+package com.inventory.management.backend.jobs;
+
+import com.inventory.management.backend.workload.WorkloadClass;
+import com.inventory.management.backend.workload.WorkloadContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs every {@link ClusterJob} once per interval across all nodes. Each job has a leader:
+ * the node whose scheduler connection holds the job's PostgreSQL advisory lock. The leader
+ * plans due runs as product-id range partitions and closes finished runs; when its session
+ * ends the lock is released and another node's scheduler takes over on its next tick.
+ * <p>
+ * Partitions are worked on by a few worker threads on every node, which claim them on a
+ * lease renewed each tick and checkpoint as they go. A partition whose owner stops is
+ * handed back, and one whose owner died is reclaimed once its lease runs out; either way
+ * the next owner resumes after the last checkpoint.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobRunner {
+    // First key of the two-key advisory locks, "JOBS"
+    private static final int LOCK_NAMESPACE = 0x4a4f4253;
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    private final List<ClusterJob> jobs;
+    private final JobStore store;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.jobs.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${inventory.jobs.workers:2}")
+    private int workerCount;
+
+    @Value("${inventory.jobs.lease-seconds:30}")
+    private int leaseSeconds;
+
+    @Value("${inventory.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${inventory.jobs.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Value("${inventory.jobs.history-days:7}")
+    private int historyDays;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private final String owner = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, ClusterJob> jobsByName = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> lagMillis = new ConcurrentHashMap<>();
+    private final Set<String> leading = ConcurrentHashMap.newKeySet();
+    private final Map<Long, JobContext> active = new ConcurrentHashMap<>();
+
+    private final Object signal = new Object();
+    private boolean signalled;
+    private volatile boolean stopping;
+    private Thread scheduler;
+    private final List<Thread> workers = new ArrayList<>();
+
+    // Owned by the scheduler thread
+    private Connection lockConnection;
+
+    @PostConstruct
+    void start() {
+        if (!enabled || jobs.isEmpty()) {
+            return;
+        }
+        for (ClusterJob job : jobs) {
+            jobsByName.put(job.name(), job);
+            AtomicLong lag = new AtomicLong();
+            lagMillis.put(job.name(), lag);
+            TimeGauge.builder("inventory.jobs.lag", lag, TimeUnit.MILLISECONDS, AtomicLong::get)
+                    .tag("job", job.name())
+                    .register(meterRegistry);
+            Gauge.builder("inventory.jobs.leader", leading, names -> names.contains(job.name()) ? 1 : 0)
+                    .tag("job", job.name())
+                    .register(meterRegistry);
+        }
+
+        scheduler = new Thread(this::schedule, "job-scheduler");
+        scheduler.setDaemon(true);
+        scheduler.start();
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::work, "job-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Job runner {} started with jobs {}", owner, jobsByName.keySet());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stopping = true;
+        if (scheduler != null) {
+            scheduler.interrupt();
+        }
+        wakeUp();
+        // Workers finish their current item and hand their partitions back
+        long deadline = System.currentTimeMillis() + 10_000;
+        for (Thread worker : workers) {
+            worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Plans a run of the job right away; the following runs are scheduled from it.
+     */
+    public void trigger(String name) {
+        ClusterJob job = jobsByName.get(name);
+        if (job == null) {
+            throw new RuntimeException("Unknown job " + name);
+        }
+        if (!store.plan(name, store.schedule(name).now(), split(job.partitions()))) {
+            throw new RuntimeException("Job " + name + " is already running");
+        }
+        log.info("Triggered job {}", name);
+        wakeUp();
+    }
+
+    public boolean isStopping() {
+        return stopping;
+    }
+
+    private void schedule() {
+        // Short bookkeeping statements, kept off the write pool
+        WorkloadContext.set(WorkloadClass.READ);
+        long delay = 1_000;
+        try {
+            while (!stopping) {
+                try {
+                    tick();
+                    delay = 1_000;
+                    Thread.sleep(tickMs);
+                } catch (SQLException | RuntimeException e) {
+                    if (stopping) {
+                        return;
+                    }
+                    log.warn("Job scheduler failed, retrying in {} ms: {}", delay, e.getMessage());
+                    dropLeadership();
+                    Thread.sleep(delay);
+                    delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Stopping
+        } finally {
+            dropLeadership();
+        }
+    }
+
+    private void tick() throws SQLException {
+        renewLeases();
+        if (lockConnection == null || !lockConnection.isValid(2)) {
+            dropLeadership();
+            lockConnection = DriverManager.getConnection(url, username, password);
+        }
+        for (ClusterJob job : jobsByName.values()) {
+            if (acquire(job)) {
+                lead(job);
+            }
+        }
+        refreshLag();
+    }
+
+    private boolean acquire(ClusterJob job) throws SQLException {
+        if (leading.contains(job.name())) {
+            return true;
+        }
+        try (PreparedStatement statement = lockConnection.prepareStatement("SELECT pg_try_advisory_lock(?, ?)")) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setInt(2, job.name().hashCode());
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next() && rs.getBoolean(1)) {
+                    leading.add(job.name());
+                    log.info("Node {} now leads job {}", owner, job.name());
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void lead(ClusterJob job) {
+        for (JobStore.FinishedRun run : store.finishRuns(job.name())) {
+            Timer.builder("inventory.jobs.run.duration")
+                    .tag("job", job.name())
+                    .tag("outcome", run.status().toLowerCase())
+                    .register(meterRegistry)
+                    .record(run.durationMs(), TimeUnit.MILLISECONDS);
+            log.info("Job {} run {} in {} ms", job.name(), run.status().toLowerCase(), run.durationMs());
+            store.prune(job.name(), Duration.ofDays(historyDays));
+        }
+
+        JobStore.Schedule schedule = store.schedule(job.name());
+        if (schedule.running()) {
+            return;
+        }
+        LocalDateTime dueAt = schedule.lastDueAt() != null
+                ? schedule.lastDueAt().plus(job.interval())
+                : schedule.now();
+        if (dueAt.isAfter(schedule.now())) {
+            return;
+        }
+        // After downtime run once for the latest missed slot, not once per missed slot
+        long missed = Duration.between(dueAt, schedule.now()).toMillis() / job.interval().toMillis();
+        dueAt = dueAt.plus(job.interval().multipliedBy(missed));
+
+        List<long[]> ranges = split(job.partitions());
+        if (store.plan(job.name(), dueAt, ranges)) {
+            log.info("Planned job {} due at {} in {} partitions", job.name(), dueAt, ranges.size());
+            wakeUp();
+        }
+    }
+
+    private List<long[]> split(int partitions) {
+        Optional<long[]> ids = store.productIdRange();
+        if (ids.isEmpty() || partitions <= 1) {
+            return List.of(new long[]{0, Long.MAX_VALUE});
+        }
+        long first = ids.get()[0];
+        long span = ids.get()[1] - first + 1;
+        int count = (int) Math.min(partitions, span);
+        // The outer ranges are open-ended so products created after planning are still covered
+        List<long[]> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long start = i == 0 ? 0 : first + span * i / count;
+            long end = i == count - 1 ? Long.MAX_VALUE : first + span * (i + 1) / count - 1;
+            ranges.add(new long[]{start, end});
+        }
+        return ranges;
+    }
+
+    private void renewLeases() {
+        if (active.isEmpty()) {
+            return;
+        }
+        Set<Long> held = store.renew(owner, leaseSeconds);
+        for (JobContext context : active.values()) {
+            if (!held.contains(context.partitionId())) {
+                context.leaseLost();
+            }
+        }
+    }
+
+    private void refreshLag() {
+        // How far the next run is overdue, counting from the last run that completed
+        Map<String, JobStore.Ages> ages = store.ages();
+        for (ClusterJob job : jobsByName.values()) {
+            JobStore.Ages age = ages.get(job.name());
+            long lag = 0;
+            if (age != null) {
+                lag = age.sinceCompletedDueMs() != null
+                        ? age.sinceCompletedDueMs() - job.interval().toMillis()
+                        : age.sinceFirstDueMs();
+            }
+            lagMillis.get(job.name()).set(Math.max(0, lag));
+        }
+    }
+
+    private void work() {
+        // Jobs scan ranges of the catalog and may hold a snapshot for a whole run, keep them off
+        // the pools requests wait on
+        WorkloadContext.set(WorkloadClass.BACKGROUND);
+        while (!stopping) {
+            try {
+                Optional<JobStore.ClaimedPartition> claimed = store.claim(owner, jobsByName.keySet(), leaseSeconds);
+                if (claimed.isPresent()) {
+                    execute(claimed.get());
+                } else {
+                    await();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Job worker failed, retrying in {} ms: {}", tickMs, e.getMessage());
+                try {
+                    await();
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void execute(JobStore.ClaimedPartition partition) {
+        ClusterJob job = jobsByName.get(partition.jobName());
+        if (partition.attempts() > maxAttempts) {
+            // Reclaimed from owners that died while running it
+            store.fail(partition.id(), owner, "Gave up after " + maxAttempts + " attempts");
+            return;
+        }
+
+        JobContext context = new JobContext(partition, store, owner, leaseSeconds, this);
+        active.put(partition.id(), context);
+        long started = System.nanoTime();
+        String outcome;
+        try {
+            job.run(context);
+            if (context.isLeaseLost()) {
+                outcome = "lost";
+            } else if (stopping) {
+                store.release(partition.id(), owner);
+                outcome = "released";
+            } else {
+                store.complete(partition.id(), owner);
+                outcome = "done";
+            }
+        } catch (RuntimeException e) {
+            if (context.isLeaseLost()) {
+                outcome = "lost";
+            } else if (stopping) {
+                store.release(partition.id(), owner);
+                outcome = "released";
+            } else if (partition.attempts() >= maxAttempts) {
+                log.error("Job {} partition {} failed after {} attempts", job.name(), partition.partitionNo(),
+                        partition.attempts(), e);
+                store.fail(partition.id(), owner, e.toString());
+                outcome = "failed";
+            } else {
+                long backoff = retryBackoffMs << (partition.attempts() - 1);
+                log.warn("Job {} partition {} failed, retrying from {} in {} ms: {}", job.name(),
+                        partition.partitionNo(), context.checkpoint(), backoff, e.getMessage());
+                store.retry(partition.id(), owner, e.toString(), backoff);
+                outcome = "retried";
+            }
+        } finally {
+            active.remove(partition.id());
+        }
+        Timer.builder("inventory.jobs.partition.duration")
+                .tag("job", job.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private void await() throws InterruptedException {
+        synchronized (signal) {
+            if (!signalled && !stopping) {
+                signal.wait(tickMs);
+            }
+            signalled = false;
+        }
+    }
+
+    private void wakeUp() {
+        synchronized (signal) {
+            signalled = true;
+            signal.notifyAll();
+        }
+    }
+
+    private void dropLeadership() {
+        // Ending the session releases every advisory lock it held
+        leading.clear();
+        try {
+            if (lockConnection != null) {
+                lockConnection.close();
+            }
+        } catch (SQLException ignored) {
+            // Reconnecting anyway
+        }
+        lockConnection = null;
+    }
+}
@@ -0,0 +1,184 @@
+package com.inventory.management.backend.jobs;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Run and partition bookkeeping in job_runs and job_partitions. Leases and due times are
+ * compared against the database clock so nodes with drifting clocks agree on them.
+ */
+@Component
+@RequiredArgsConstructor
+class JobStore {
+    // First key of the transaction-level lock that serializes planning, "JOBP"
+    private static final int PLAN_LOCK_NAMESPACE = 0x4a4f4250;
+
+    private static final String CLAIM = "UPDATE job_partitions SET status = 'RUNNING', owner = ?, "
+            + "lease_until = now() + make_interval(secs => ?), attempts = attempts + 1, "
+            + "started_at = COALESCE(started_at, now()) "
+            + "WHERE id = (SELECT id FROM job_partitions WHERE job_name = ANY(?) "
+            + "AND ((status = 'PENDING' AND (lease_until IS NULL OR lease_until <= now())) "
+            + "OR (status = 'RUNNING' AND lease_until < now())) "
+            + "ORDER BY run_id, partition_no LIMIT 1 FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id, run_id, job_name, partition_no, range_start, range_end, checkpoint, attempts";
+
+    private static final String FINISH_RUNS = "UPDATE job_runs r SET finished_at = now(), status = CASE WHEN EXISTS "
+            + "(SELECT 1 FROM job_partitions p WHERE p.run_id = r.id AND p.status = 'FAILED') "
+            + "THEN 'FAILED' ELSE 'COMPLETED' END "
+            + "WHERE r.job_name = ? AND r.status = 'RUNNING' AND NOT EXISTS (SELECT 1 FROM job_partitions p "
+            + "WHERE p.run_id = r.id AND p.status IN ('PENDING', 'RUNNING')) "
+            + "RETURNING r.status, EXTRACT(EPOCH FROM r.finished_at - r.started_at) * 1000";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    record Schedule(LocalDateTime lastDueAt, boolean running, LocalDateTime now) {
+    }
+
+    record FinishedRun(String status, long durationMs) {
+    }
+
+    record ClaimedPartition(long id, long runId, String jobName, int partitionNo, long rangeStart, long rangeEnd,
+                            Long checkpoint, int attempts) {
+    }
+
+    // Milliseconds since the newest completed run was due and since the oldest run was due
+    record Ages(Long sinceCompletedDueMs, Long sinceFirstDueMs) {
+    }
+
+    Schedule schedule(String job) {
+        return jdbcTemplate.queryForObject("SELECT MAX(due_at), COALESCE(bool_or(status = 'RUNNING'), false), "
+                + "CAST(now() AS timestamp) FROM job_runs WHERE job_name = ?", (rs, rowNum) -> new Schedule(
+                rs.getObject(1, LocalDateTime.class), rs.getBoolean(2), rs.getObject(3, LocalDateTime.class)), job);
+    }
+
+    Optional<long[]> productIdRange() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM products",
+                (rs, rowNum) -> rs.getObject(1) != null ? new long[]{rs.getLong(1), rs.getLong(2)} : null));
+    }
+
+    /**
+     * Inserts a run and its partitions; false if the job is running or already has a run
+     * for that due time.
+     */
+    boolean plan(String job, LocalDateTime dueAt, List<long[]> ranges) {
+        Boolean planned = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> {
+            }, PLAN_LOCK_NAMESPACE, job.hashCode());
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM job_runs "
+                    + "WHERE job_name = ? AND status = 'RUNNING')", Boolean.class, job))) {
+                return false;
+            }
+            List<Long> inserted = jdbcTemplate.queryForList("INSERT INTO job_runs (job_name, status, due_at, "
+                    + "started_at, partitions) VALUES (?, 'RUNNING', ?, now(), ?) ON CONFLICT (job_name, due_at) "
+                    + "DO NOTHING RETURNING id", Long.class, job, dueAt, ranges.size());
+            if (inserted.isEmpty()) {
+                return false;
+            }
+            long runId = inserted.get(0);
+            List<Object[]> partitions = new ArrayList<>(ranges.size());
+            for (int partitionNo = 0; partitionNo < ranges.size(); partitionNo++) {
+                long[] range = ranges.get(partitionNo);
+                partitions.add(new Object[]{runId, job, partitionNo, range[0], range[1]});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO job_partitions (run_id, job_name, partition_no, range_start, "
+                    + "range_end, status, attempts) VALUES (?, ?, ?, ?, ?, 'PENDING', 0)", partitions);
+            return true;
+        });
+        return Boolean.TRUE.equals(planned);
+    }
+
+    List<FinishedRun> finishRuns(String job) {
+        return jdbcTemplate.query(FINISH_RUNS, (rs, rowNum) -> new FinishedRun(rs.getString(1), rs.getLong(2)), job);
+    }
+
+    void prune(String job, Duration retention) {
+        String finishedBefore = "SELECT id FROM job_runs WHERE job_name = ? AND finished_at < now() - "
+                + "make_interval(secs => ?)";
+        jdbcTemplate.update("DELETE FROM job_partitions WHERE run_id IN (" + finishedBefore + ")",
+                job, retention.toSeconds());
+        jdbcTemplate.update("DELETE FROM job_runs WHERE id IN (" + finishedBefore + ")", job, retention.toSeconds());
+    }
+
+    Map<String, Ages> ages() {
+        Map<String, Ages> ages = new HashMap<>();
+        jdbcTemplate.query("SELECT job_name, "
+                + "EXTRACT(EPOCH FROM now() - MAX(due_at) FILTER (WHERE status = 'COMPLETED')) * 1000, "
+                + "EXTRACT(EPOCH FROM now() - MIN(due_at)) * 1000 FROM job_runs GROUP BY job_name", rs -> {
+            ages.put(rs.getString(1), new Ages(rs.getObject(2) != null ? rs.getLong(2) : null, rs.getLong(3)));
+        });
+        return ages;
+    }
+
+    Optional<ClaimedPartition> claim(String owner, Set<String> jobs, int leaseSeconds) {
+        List<ClaimedPartition> claimed = jdbcTemplate.query(CLAIM, ps -> {
+            ps.setString(1, owner);
+            ps.setInt(2, leaseSeconds);
+            Array names = ps.getConnection().createArrayOf("varchar", jobs.toArray());
+            ps.setArray(3, names);
+        }, (rs, rowNum) -> new ClaimedPartition(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getInt(4),
+                rs.getLong(5), rs.getLong(6), (Long) rs.getObject(7), rs.getInt(8)));
+        return claimed.stream().findFirst();
+    }
+
+    boolean checkpoint(long partitionId, String owner, long checkpoint, int leaseSeconds) {
+        return jdbcTemplate.update("UPDATE job_partitions SET checkpoint = ?, "
+                + "lease_until = now() + make_interval(secs => ?) WHERE id = ? AND owner = ? AND status = 'RUNNING'",
+                checkpoint, leaseSeconds, partitionId, owner) == 1;
+    }
+
+    /**
+     * Extends the leases of every partition this owner runs and returns their ids.
+     */
+    Set<Long> renew(String owner, int leaseSeconds) {
+        return new HashSet<>(jdbcTemplate.queryForList("UPDATE job_partitions SET "
+                + "lease_until = now() + make_interval(secs => ?) WHERE owner = ? AND status = 'RUNNING' RETURNING id",
+                Long.class, leaseSeconds, owner));
+    }
+
+    void complete(long partitionId, String owner) {
+        jdbcTemplate.update("UPDATE job_partitions SET status = 'DONE', finished_at = now(), owner = NULL, "
+                + "lease_until = NULL, error = NULL WHERE id = ? AND owner = ?", partitionId, owner);
+    }
+
+    void retry(long partitionId, String owner, String error, long backoffMs) {
+        jdbcTemplate.update("UPDATE job_partitions SET status = 'PENDING', owner = NULL, error = ?, "
+                + "lease_until = now() + make_interval(secs => ?) WHERE id = ? AND owner = ?",
+                truncate(error), backoffMs / 1000.0, partitionId, owner);
+    }
+
+    void fail(long partitionId, String owner, String error) {
+        jdbcTemplate.update("UPDATE job_partitions SET status = 'FAILED', finished_at = now(), owner = NULL, "
+                + "lease_until = NULL, error = ? WHERE id = ? AND owner = ?", truncate(error), partitionId, owner);
+    }
+
+    /**
+     * Hands a partition back untouched so another node resumes it from its checkpoint;
+     * the attempt does not count.
+     */
+    void release(long partitionId, String owner) {
+        jdbcTemplate.update("UPDATE job_partitions SET status = 'PENDING', owner = NULL, lease_until = NULL, "
+                + "attempts = attempts - 1 WHERE id = ? AND owner = ?", partitionId, owner);
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
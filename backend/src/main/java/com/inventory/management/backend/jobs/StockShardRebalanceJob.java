@@ -0,0 +1,71 @@
+package com.inventory.management.backend.jobs;
+
+import com.inventory.management.backend.repository.ProductRepository;
+import com.inventory.management.backend.service.StockCounterService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Evens out the stock shards of every sharded product. Movements decrement their home
+ * shard and borrow from siblings once it runs dry, so shards drift apart over time; each
+ * product is rebalanced in its own short transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockShardRebalanceJob implements ClusterJob {
+    private final ProductRepository productRepository;
+    private final StockCounterService stockCounterService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.jobs.stock-shard-rebalance.interval-ms:3600000}")
+    private long intervalMs;
+
+    @Value("${inventory.jobs.stock-shard-rebalance.partitions:4}")
+    private int partitions;
+
+    @Value("${inventory.jobs.stock-shard-rebalance.page-size:200}")
+    private int pageSize;
+
+    @Override
+    public String name() {
+        return "stock-shard-rebalance";
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.ofMillis(intervalMs);
+    }
+
+    @Override
+    public int partitions() {
+        return partitions;
+    }
+
+    @Override
+    public void run(JobContext context) {
+        int rebalanced = 0;
+        while (!context.shouldStop()) {
+            List<Long> productIds = productRepository.findShardedIdsInRange(context.checkpoint(), context.rangeEnd(),
+                    PageRequest.of(0, pageSize));
+            if (productIds.isEmpty()) {
+                break;
+            }
+            for (Long productId : productIds) {
+                if (stockCounterService.rebalanceShards(productId)) {
+                    rebalanced++;
+                }
+            }
+            context.checkpoint(productIds.get(productIds.size() - 1));
+        }
+        meterRegistry.counter("inventory.jobs.stock_shard_rebalance.products").increment(rebalanced);
+        log.debug("Rebalanced shards of {} products in partition {}", rebalanced, context.partitionNo());
+    }
+}
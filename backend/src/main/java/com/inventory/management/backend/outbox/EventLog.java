@@ -0,0 +1,337 @@
+package com.inventory.management.backend.outbox;
+
+import com.inventory.management.backend.entity.OutboxEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only event log on local disk, split into segment files named by the offset of
+ * their first byte. An offset is the byte position of an event in the whole log, so a
+ * read seeks straight to it. Each event is framed as length, CRC32 and body; appends are
+ * written and forced in batches, and readers never go past the last forced byte.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventLog {
+    private static final String SUFFIX = ".log";
+    private static final int FRAME_HEADER = 8;
+    private static final int READ_CHUNK = 256 * 1024;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.outbox.log.directory:${java.io.tmpdir}/inventory-events}")
+    private String directory;
+
+    @Value("${inventory.outbox.log.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${inventory.outbox.log.retained-segments:16}")
+    private int retainedSegments;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private Path logDirectory;
+    private Segment active;
+    private volatile long endOffset;
+
+    @PostConstruct
+    void open() throws IOException {
+        logDirectory = Paths.get(directory).toAbsolutePath();
+        Files.createDirectories(logDirectory);
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                segments.put(base, new Segment(base, file));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, new Segment(0, segmentPath(0)));
+        }
+        active = segments.lastEntry().getValue();
+        recover(active);
+        endOffset = active.base + active.size;
+        log.info("Event log {} opened with {} segments, end offset {}", logDirectory, segments.size(), endOffset);
+
+        Gauge.builder("inventory.outbox.log.end_offset", this, EventLog::getEndOffset).register(meterRegistry);
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        segments.values().forEach(Segment::close);
+    }
+
+    public long getStartOffset() {
+        return segments.firstKey();
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * Appends the events in order and forces them to disk before returning the new end offset.
+     */
+    public synchronized long append(List<OutboxEvent> events) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK);
+            CRC32 checksum = new CRC32();
+            for (OutboxEvent event : events) {
+                byte[] body = encode(event);
+                int frame = FRAME_HEADER + body.length;
+                if (active.size + buffer.position() + frame > segmentBytes && active.size + buffer.position() > 0) {
+                    write(buffer);
+                    roll();
+                }
+                if (buffer.remaining() < frame) {
+                    write(buffer);
+                    if (buffer.capacity() < frame) {
+                        buffer = ByteBuffer.allocate(frame);
+                    }
+                }
+                checksum.reset();
+                checksum.update(body);
+                buffer.putInt(body.length).putInt((int) checksum.getValue()).put(body);
+            }
+            write(buffer);
+            active.channel.force(false);
+            endOffset = active.base + active.size;
+            return endOffset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to event log " + logDirectory, e);
+        }
+    }
+
+    /**
+     * Reads up to {@code limit} events starting at {@code from}. An offset before the
+     * oldest retained segment starts from the oldest event still on disk.
+     */
+    public Page read(long from, int limit) {
+        long end = endOffset;
+        if (from > end) {
+            throw new IllegalArgumentException("Offset " + from + " is beyond the end of the log (" + end + ")");
+        }
+        List<LoggedEvent> events = new ArrayList<>(Math.min(limit, 1024));
+        long position = Math.max(from, getStartOffset());
+        boolean aligned = position != from || from == end;
+        ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK);
+        CRC32 checksum = new CRC32();
+        while (events.size() < limit && position < end) {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(position);
+            if (entry == null) {
+                // Retention removed the segment meanwhile, continue from the oldest one left
+                position = getStartOffset();
+                continue;
+            }
+            Segment segment = entry.getValue();
+            long segmentEnd = Math.min(segment.base + segment.size, end);
+            if (position >= segmentEnd) {
+                Long next = segments.higherKey(segment.base);
+                if (next == null) {
+                    break;
+                }
+                position = next;
+                continue;
+            }
+
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), segmentEnd - position));
+            try {
+                readFully(segment, buffer, position - segment.base);
+            } catch (ClosedChannelException e) {
+                if (segments.get(segment.base) == segment) {
+                    throw new IllegalStateException("Event log is closed");
+                }
+                position = getStartOffset();
+                continue;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read event log " + logDirectory, e);
+            }
+            buffer.flip();
+
+            while (events.size() < limit && buffer.remaining() >= FRAME_HEADER) {
+                int length = buffer.getInt(buffer.position());
+                if (length < 0 || FRAME_HEADER + (long) length > segmentEnd - position) {
+                    throw misaligned(from, aligned);
+                }
+                if (buffer.remaining() < FRAME_HEADER + length) {
+                    if (buffer.position() == 0) {
+                        // A single event larger than the chunk
+                        buffer = ByteBuffer.allocate(FRAME_HEADER + length);
+                    }
+                    break;
+                }
+                buffer.getInt();
+                int expected = buffer.getInt();
+                byte[] body = new byte[length];
+                buffer.get(body);
+                checksum.reset();
+                checksum.update(body);
+                if ((int) checksum.getValue() != expected) {
+                    throw misaligned(from, aligned);
+                }
+                aligned = true;
+                events.add(decode(position, body));
+                position += FRAME_HEADER + length;
+            }
+        }
+        return new Page(events, position);
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            active.size += active.channel.write(buffer, active.size);
+        }
+        buffer.clear();
+    }
+
+    private void roll() throws IOException {
+        active.channel.force(false);
+        long base = active.base + active.size;
+        active = new Segment(base, segmentPath(base));
+        segments.put(base, active);
+        while (segments.size() > retainedSegments) {
+            Segment oldest = segments.pollFirstEntry().getValue();
+            oldest.close();
+            Files.deleteIfExists(oldest.path);
+        }
+    }
+
+    private void recover(Segment segment) throws IOException {
+        // Drops a torn write at the tail, left by a crash between write and force
+        long valid = 0;
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER);
+        CRC32 checksum = new CRC32();
+        while (valid + FRAME_HEADER <= segment.size) {
+            header.clear();
+            readFully(segment, header, valid);
+            int length = header.getInt(0);
+            if (length < 0 || valid + FRAME_HEADER + length > segment.size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(segment, body, valid + FRAME_HEADER);
+            checksum.reset();
+            checksum.update(body.array());
+            if ((int) checksum.getValue() != header.getInt(4)) {
+                break;
+            }
+            valid += FRAME_HEADER + length;
+        }
+        if (valid < segment.size) {
+            log.warn("Truncating {} bytes of incomplete events from {}", segment.size - valid, segment.path);
+            segment.channel.truncate(valid);
+            segment.size = valid;
+        }
+    }
+
+    private static void readFully(Segment segment, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = segment.channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of " + segment.path);
+            }
+            position += read;
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return logDirectory.resolve(String.format("%020d%s", base, SUFFIX));
+    }
+
+    private static byte[] encode(OutboxEvent event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 + event.getPayload().length());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(event.getId());
+        out.writeUTF(event.getEventType());
+        out.writeLong(event.getAggregateId() != null ? event.getAggregateId() : -1);
+        out.writeUTF(event.getOccurredAt().toString());
+        byte[] payload = event.getPayload().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(payload.length);
+        out.write(payload);
+        return bytes.toByteArray();
+    }
+
+    private static LoggedEvent decode(long offset, byte[] body) {
+        ByteBuffer in = ByteBuffer.wrap(body);
+        long eventId = in.getLong();
+        String type = readUtf(in);
+        long aggregateId = in.getLong();
+        LocalDateTime occurredAt = LocalDateTime.parse(readUtf(in));
+        byte[] payload = new byte[in.getInt()];
+        in.get(payload);
+        return new LoggedEvent(offset, eventId, type, aggregateId >= 0 ? aggregateId : null, occurredAt,
+                new String(payload, StandardCharsets.UTF_8));
+    }
+
+    private static String readUtf(ByteBuffer in) {
+        // Types and timestamps are ASCII, where modified UTF-8 and UTF-8 agree
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static RuntimeException misaligned(long from, boolean aligned) {
+        return aligned
+                ? new IllegalStateException("Event log is corrupt after offset " + from)
+                : new IllegalArgumentException("Offset " + from + " is not the start of an event");
+    }
+
+    public record LoggedEvent(long offset, long eventId, String type, Long aggregateId, LocalDateTime occurredAt,
+                              String payload) {
+    }
+
+    public record Page(List<LoggedEvent> events, long nextOffset) {
+    }
+
+    private static final class Segment {
+        final long base;
+        final Path path;
+        final FileChannel channel;
+        // Written by the appending thread only; readers bound themselves by endOffset
+        volatile long size;
+
+        Segment(long base, Path path) throws IOException {
+            this.base = base;
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.size = channel.size();
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+        }
+    }
+}
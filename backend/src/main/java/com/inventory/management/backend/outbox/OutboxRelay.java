@@ -0,0 +1,269 @@
+package com.inventory.management.backend.outbox;
+
+import com.inventory.management.backend.entity.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves committed outbox rows into the {@link EventLog}: claims a batch in id order,
+ * appends and forces it, then deletes the rows in the same transaction. Delivery is at
+ * least once, a crash between the force and the commit appends the batch again with the
+ * same event ids. Woken right after local commits, otherwise it checks every idle interval
+ * for rows written by other nodes.
+ * <p>
+ * The log lives on the disk of one node, so only the node whose relay connection holds
+ * the relay's PostgreSQL advisory lock relays; the others keep trying to take the lock
+ * over every idle interval. The leader names itself in that connection's application_name
+ * so other nodes can point readers at it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+    private static final String CLAIM = "SELECT id, event_type, aggregate_id, payload, occurred_at "
+            + "FROM event_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    // Keys of the relay's advisory lock, "OUTB" and the relay number
+    private static final int LOCK_NAMESPACE = 0x4f555442;
+    private static final int LOCK_KEY = 1;
+    private static final String LEADER_PREFIX = "outbox-relay ";
+    private static final String LEADER = "SELECT a.application_name FROM pg_locks l "
+            + "JOIN pg_stat_activity a ON a.pid = l.pid WHERE l.locktype = 'advisory' AND l.granted "
+            + "AND l.classid = ? AND l.objid = ? AND l.objsubid = 2";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final EventLog eventLog;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.outbox.relay.batch-size:2000}")
+    private int batchSize;
+
+    @Value("${inventory.outbox.relay.idle-ms:1000}")
+    private long idleMs;
+
+    @Value("${inventory.outbox.relay.advertised-url:}")
+    private String advertisedUrl;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private final Object signal = new Object();
+    private boolean signalled;
+    private volatile boolean running;
+    private volatile boolean leader;
+    private Thread worker;
+    private TransactionTemplate relayTransaction;
+    private Counter relayed;
+    private Timer batchTimer;
+
+    // Owned by the relay thread
+    private Connection lockConnection;
+    private long lockCheckedAt;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        relayTransaction = new TransactionTemplate(transactionManager);
+        relayed = meterRegistry.counter("inventory.outbox.relayed");
+        batchTimer = meterRegistry.timer("inventory.outbox.relay.batch");
+        if (advertisedUrl.isBlank()) {
+            advertisedUrl = "http://" + hostName() + ":" + serverPort + contextPath;
+        }
+        meterRegistry.gauge("inventory.outbox.relay.leader", this, relay -> relay.leader ? 1 : 0);
+        running = true;
+        worker = new Thread(this::run, "outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    public void wakeUp() {
+        synchronized (signal) {
+            signalled = true;
+            signal.notify();
+        }
+    }
+
+    /**
+     * Whether this node relays and so holds the event log readers should use.
+     */
+    public boolean isLeader() {
+        return leader;
+    }
+
+    /**
+     * Base URL of the node currently relaying, if any node is.
+     */
+    public Optional<String> leaderUrl() {
+        if (leader) {
+            return Optional.of(advertisedUrl);
+        }
+        List<String> names = jdbcTemplate.queryForList(LEADER, String.class, LOCK_NAMESPACE, LOCK_KEY);
+        return names.stream()
+                .filter(name -> name != null && name.startsWith(LEADER_PREFIX))
+                .map(name -> name.substring(LEADER_PREFIX.length()))
+                .findFirst();
+    }
+
+    private void run() {
+        try {
+            relay();
+        } finally {
+            dropLeadership();
+        }
+    }
+
+    private void relay() {
+        while (running) {
+            try {
+                if (lead()) {
+                    // Keep going while batches come back full
+                    int moved;
+                    do {
+                        moved = relayBatch();
+                    } while (running && moved == batchSize);
+                }
+                synchronized (signal) {
+                    if (!signalled) {
+                        signal.wait(idleMs);
+                    }
+                    signalled = false;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Outbox relay failed, retrying in {} ms: {}", idleMs, e.getMessage());
+                dropLeadership();
+                try {
+                    Thread.sleep(idleMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean lead() throws SQLException {
+        // A leader checks its session once per idle interval rather than before every batch
+        long now = System.nanoTime();
+        boolean check = !leader || now - lockCheckedAt >= TimeUnit.MILLISECONDS.toNanos(idleMs);
+        if (lockConnection == null || (check && !lockConnection.isValid(2))) {
+            dropLeadership();
+            lockConnection = DriverManager.getConnection(url, username, password);
+            try (PreparedStatement statement = lockConnection.prepareStatement(
+                    "SELECT set_config('application_name', ?, false)")) {
+                // application_name is cut at 63 bytes
+                statement.setString(1, LEADER_PREFIX + advertisedUrl);
+                statement.execute();
+            }
+        }
+        if (check) {
+            lockCheckedAt = now;
+        }
+        if (leader) {
+            return true;
+        }
+        try (PreparedStatement statement = lockConnection.prepareStatement("SELECT pg_try_advisory_lock(?, ?)")) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setInt(2, LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next() && rs.getBoolean(1)) {
+                    leader = true;
+                    log.info("Node {} now relays the outbox", advertisedUrl);
+                }
+            }
+        }
+        return leader;
+    }
+
+    private void dropLeadership() {
+        // Ending the session releases the advisory lock
+        leader = false;
+        try {
+            if (lockConnection != null) {
+                lockConnection.close();
+            }
+        } catch (SQLException ignored) {
+            // Reconnecting anyway
+        }
+        lockConnection = null;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+
+    private int relayBatch() {
+        Integer moved = relayTransaction.execute(status -> {
+            long started = System.nanoTime();
+            List<OutboxEvent> batch = jdbcTemplate.query(CLAIM, (rs, rowNum) -> new OutboxEvent(
+                    rs.getLong(1), rs.getString(2), (Long) rs.getObject(3), rs.getString(4),
+                    rs.getObject(5, LocalDateTime.class)), batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            eventLog.append(batch);
+            Long[] ids = batch.stream().map(OutboxEvent::getId).toArray(Long[]::new);
+            jdbcTemplate.update("DELETE FROM event_outbox WHERE id = ANY(?)", ps -> {
+                Array array = ps.getConnection().createArrayOf("bigint", ids);
+                ps.setArray(1, array);
+            });
+            relayed.increment(batch.size());
+            batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return batch.size();
+        });
+        return moved != null ? moved : 0;
+    }
+}
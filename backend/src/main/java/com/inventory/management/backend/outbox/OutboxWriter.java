@@ -0,0 +1,137 @@
+package com.inventory.management.backend.outbox;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.inventory.management.backend.entity.OutboxEvent;
+import com.inventory.management.backend.event.ProductChangedEvent;
+import com.inventory.management.backend.event.StockChangedEvent;
+import com.inventory.management.backend.event.TransactionRecordedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes stock movements, stock levels and product changes to the outbox inside the
+ * transaction that makes them, so an event exists exactly when its change committed.
+ * Events are collected per transaction and inserted in one batch just before commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+    private static final String INSERT = "INSERT INTO event_outbox (event_type, aggregate_id, payload, occurred_at) "
+            + "VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
+
+    @Value("${inventory.outbox.enabled:true}")
+    private boolean enabled;
+
+    private ObjectWriter payloadWriter;
+
+    @PostConstruct
+    void init() {
+        // Amounts as written, never in exponent notation
+        payloadWriter = objectMapper.writer().with(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+    }
+
+    @EventListener
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        ObjectNode payload = objectMapper.createObjectNode()
+                .put("transactionId", event.getTransactionId())
+                .put("productId", event.getProductId())
+                .put("userId", event.getUserId())
+                .put("supplierId", event.getSupplierId())
+                .put("type", event.getType() != null ? event.getType().name() : null)
+                .put("reversal", event.isReversal())
+                .put("quantity", event.getQuantity())
+                .put("totalPrice", event.getTotalPrice())
+                .put("transactionDate", event.getTransactionDate() != null
+                        ? event.getTransactionDate().toString() : null);
+        append("stock.movement", event.getProductId(), payload);
+    }
+
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        append("stock.level", event.getProductId(), objectMapper.createObjectNode()
+                .put("productId", event.getProductId())
+                .put("previousStock", event.getPreviousStock())
+                .put("stock", event.getStock())
+                .put("minimumStock", event.getMinimumStock()));
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        append("product.changed", event.getProductId(), objectMapper.createObjectNode()
+                .put("productId", event.getProductId())
+                .put("change", event.getChangeType() != null ? event.getChangeType().name() : null));
+    }
+
+    private void append(String type, Long aggregateId, ObjectNode payload) {
+        if (!enabled) {
+            return;
+        }
+        OutboxEvent event = new OutboxEvent(null, type, aggregateId, serialize(payload), LocalDateTime.now());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(event));
+            outboxRelay.wakeUp();
+            return;
+        }
+
+        Batch batch = (Batch) TransactionSynchronizationManager.getResource(this);
+        if (batch == null) {
+            batch = new Batch();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(batch);
+        }
+        batch.events.add(event);
+    }
+
+    private void insert(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getEventType());
+            ps.setObject(2, event.getAggregateId());
+            ps.setString(3, event.getPayload());
+            ps.setTimestamp(4, Timestamp.valueOf(event.getOccurredAt()));
+        });
+    }
+
+    private String serialize(ObjectNode payload) {
+        try {
+            return payloadWriter.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+
+    private class Batch implements TransactionSynchronization {
+        private final List<OutboxEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            insert(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(OutboxWriter.this);
+            if (status == STATUS_COMMITTED) {
+                outboxRelay.wakeUp();
+            }
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.inventory.management.backend.repository;
 
 import com.inventory.management.backend.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByActiveTrue();
+
+    Page<Product> findByActiveTrue(Pageable pageable);
     
     List<Product> findByActiveTrueAndCategory(String category);
     
@@ -22,11 +27,34 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
            "LOWER(p.sku) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     List<Product> findByKeyword(@Param("keyword") String keyword);
     
-    @Query("SELECT p FROM Product p WHERE p.active = true AND p.stock <= p.minimumStock")
+    @Query("SELECT p FROM Product p WHERE p.active = true AND (" +
+           "((p.stockShards IS NULL OR p.stockShards <= 1) AND p.stock <= p.minimumStock) OR " +
+           "(p.stockShards > 1 AND (SELECT COALESCE(SUM(s.quantity), 0) FROM ProductStockShard s " +
+           "WHERE s.product = p) <= p.minimumStock))")
     List<Product> findLowStockProducts();
     
     @Query("SELECT DISTINCT p.category FROM Product p WHERE p.active = true AND p.category IS NOT NULL ORDER BY p.category")
     List<String> findAllCategories();
     
     boolean existsBySkuIgnoreCase(String sku);
+
+    Optional<Product> findFirstBySkuIgnoreCaseAndActiveTrue(String sku);
+
+    @Query("SELECT p.id FROM Product p WHERE p.changeVersion > :since")
+    List<Long> findIdsChangedSince(@Param("since") Long since);
+
+    // Supplier renames change supplierName on every product of that supplier
+    @Query("SELECT p.id FROM Product p WHERE p.supplier.id IN " +
+           "(SELECT s.id FROM Supplier s WHERE s.changeVersion > :since)")
+    List<Long> findIdsWithSupplierChangedSince(@Param("since") Long since);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id > :after AND p.id <= :last ORDER BY p.id")
+    List<Long> findIdsInRange(@Param("after") Long after, @Param("last") Long last, Pageable pageable);
+
+    @Query("SELECT p.id FROM Product p WHERE p.stockShards > 1 AND p.id > :after AND p.id <= :last ORDER BY p.id")
+    List<Long> findShardedIdsInRange(@Param("after") Long after, @Param("last") Long last, Pageable pageable);
+
+    // One statement, unlike a locking refresh, which reads the row and then locks it by version
+    @Query(value = "SELECT id FROM products WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("id") Long id);
 }
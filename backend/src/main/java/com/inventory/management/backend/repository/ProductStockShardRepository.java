@@ -0,0 +1,57 @@
+package com.inventory.management.backend.repository;
+
+import com.inventory.management.backend.entity.ProductStockShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+    List<ProductStockShard> findByProductIdOrderByShardNo(Long productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductStockShard s WHERE s.product.id = :productId ORDER BY s.shardNo")
+    List<ProductStockShard> findByProductIdForUpdate(@Param("productId") Long productId);
+
+    @Query("SELECT s.quantity FROM ProductStockShard s WHERE s.product.id = :productId AND s.shardNo = :shardNo")
+    Integer findQuantity(@Param("productId") Long productId, @Param("shardNo") Integer shardNo);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM ProductStockShard s WHERE s.product.id = :productId")
+    Long sumQuantity(@Param("productId") Long productId);
+
+    @Query("SELECT s.product.id, SUM(s.quantity) FROM ProductStockShard s " +
+           "WHERE s.product.id IN :productIds GROUP BY s.product.id")
+    List<Object[]> sumQuantities(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.quantity = s.quantity + :delta, s.changeVersion = :changeVersion " +
+           "WHERE s.product.id = :productId AND s.shardNo = :shardNo")
+    int increment(@Param("productId") Long productId, @Param("shardNo") Integer shardNo, @Param("delta") Integer delta,
+                  @Param("changeVersion") Long changeVersion);
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.quantity = s.quantity - :amount, s.changeVersion = :changeVersion " +
+           "WHERE s.product.id = :productId AND s.shardNo = :shardNo AND s.quantity >= :amount")
+    int decrementIfAvailable(@Param("productId") Long productId, @Param("shardNo") Integer shardNo, @Param("amount") Integer amount,
+                             @Param("changeVersion") Long changeVersion);
+
+    @Modifying
+    @Query("UPDATE ProductStockShard s SET s.quantity = :quantity, s.changeVersion = :changeVersion " +
+           "WHERE s.product.id = :productId AND s.shardNo = :shardNo")
+    int setQuantity(@Param("productId") Long productId, @Param("shardNo") Integer shardNo, @Param("quantity") Integer quantity,
+                    @Param("changeVersion") Long changeVersion);
+
+    @Query("SELECT DISTINCT s.product.id FROM ProductStockShard s WHERE s.changeVersion > :since")
+    List<Long> findProductIdsChangedSince(@Param("since") Long since);
+
+    @Modifying
+    @Query("DELETE FROM ProductStockShard s WHERE s.product.id = :productId AND s.shardNo >= :shardNo")
+    int deleteFromShard(@Param("productId") Long productId, @Param("shardNo") Integer shardNo);
+}
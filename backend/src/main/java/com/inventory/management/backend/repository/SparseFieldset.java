@@ -0,0 +1,193 @@
+package com.inventory.management.backend.repository;
+
+import com.inventory.management.backend.entity.Product;
+import com.inventory.management.backend.entity.ProductClassification;
+import com.inventory.management.backend.entity.ProductStockShard;
+import com.inventory.management.backend.entity.Supplier;
+import com.inventory.management.backend.entity.Transaction;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps the public field names of a list DTO to criteria expressions, so a
+ * {@code fields=} selection turns into a SELECT of just those columns (plus the joins
+ * they need) instead of hydrating entities and serializing every property.
+ */
+public final class SparseFieldset<T> {
+    private final Class<T> entityType;
+    private final Map<String, FieldPath<T>> fields = new LinkedHashMap<>();
+
+    private SparseFieldset(Class<T> entityType) {
+        this.entityType = entityType;
+    }
+
+    public Class<T> getEntityType() {
+        return entityType;
+    }
+
+    public Set<String> getFieldNames() {
+        return fields.keySet();
+    }
+
+    public FieldPath<T> getField(String name) {
+        FieldPath<T> path = fields.get(name);
+        if (path == null) {
+            throw new IllegalArgumentException("Unknown field '" + name + "', expected one of " + fields.keySet());
+        }
+        return path;
+    }
+
+    private SparseFieldset<T> field(String name, FieldPath<T> path) {
+        fields.put(name, path);
+        return this;
+    }
+
+    private SparseFieldset<T> attribute(String name) {
+        return field(name, (root, query) -> root.get(name));
+    }
+
+    private SparseFieldset<T> joined(String name, String association, String attribute) {
+        return field(name, (root, query) -> query.leftJoin(root, association).get(attribute));
+    }
+
+    @FunctionalInterface
+    public interface FieldPath<T> {
+        Expression<?> resolve(Root<T> root, QueryContext query);
+    }
+
+    /**
+     * Per-query state shared by field paths: the builder, the query (for subqueries)
+     * and left joins created so far, so two fields on the same association share a join.
+     */
+    public static final class QueryContext {
+        private final CriteriaBuilder builder;
+        private final CriteriaQuery<?> query;
+        private final Map<String, Join<?, ?>> joins = new HashMap<>();
+
+        public QueryContext(CriteriaBuilder builder, CriteriaQuery<?> query) {
+            this.builder = builder;
+            this.query = query;
+        }
+
+        public CriteriaBuilder builder() {
+            return builder;
+        }
+
+        public CriteriaQuery<?> query() {
+            return query;
+        }
+
+        public Join<?, ?> leftJoin(Root<?> root, String association) {
+            return joins.computeIfAbsent(association, key -> root.join(key, JoinType.LEFT));
+        }
+    }
+
+    public static final SparseFieldset<Product> PRODUCT = new SparseFieldset<>(Product.class)
+            .attribute("id")
+            .attribute("name")
+            .attribute("category")
+            .attribute("sku")
+            .attribute("description")
+            .attribute("priceIn")
+            .attribute("priceOut")
+            .field("stock", SparseFieldset::productStock)
+            .attribute("minimumStock")
+            .attribute("stockShards")
+            .joined("supplierId", "supplier", "id")
+            .joined("supplierName", "supplier", "name")
+            .attribute("active")
+            .attribute("createdAt")
+            .attribute("updatedAt");
+
+    public static final SparseFieldset<Transaction> TRANSACTION = new SparseFieldset<>(Transaction.class)
+            .attribute("id")
+            .joined("productId", "product", "id")
+            .joined("productName", "product", "name")
+            .attribute("type")
+            .attribute("quantity")
+            .attribute("unitPrice")
+            .attribute("totalPrice")
+            .joined("supplierId", "supplier", "id")
+            .joined("supplierName", "supplier", "name")
+            .joined("userId", "user", "id")
+            .joined("username", "user", "username")
+            .attribute("notes")
+            .attribute("referenceNumber")
+            .attribute("transactionDate")
+            .attribute("entryKind")
+            .joined("correctsTransactionId", "corrects", "id");
+
+    public static final SparseFieldset<Supplier> SUPPLIER = new SparseFieldset<>(Supplier.class)
+            .attribute("id")
+            .attribute("name")
+            .attribute("address")
+            .attribute("phone")
+            .attribute("email")
+            .attribute("contactPerson")
+            .attribute("active")
+            .attribute("createdAt")
+            .attribute("updatedAt");
+
+    public static Expression<Integer> productStock(Root<Product> root, QueryContext query) {
+        // Sharded products keep their stock in shard rows, same rule as StockCounterService
+        CriteriaBuilder cb = query.builder();
+        Subquery<Integer> shardSum = query.query().subquery(Integer.class);
+        Root<ProductStockShard> shard = shardSum.from(ProductStockShard.class);
+        shardSum.select(cb.coalesce(cb.sum(shard.<Integer>get("quantity")), 0))
+                .where(cb.equal(shard.get("product"), root));
+
+        return cb.<Integer>selectCase()
+                .when(cb.gt(root.get("stockShards"), 1), shardSum)
+                .otherwise(root.get("stock"));
+    }
+
+    public static Predicate productClassified(Root<Product> root, QueryContext query,
+                                              ProductClassification.AbcClass abc, ProductClassification.XyzClass xyz) {
+        CriteriaBuilder cb = query.builder();
+        Subquery<Long> classified = query.query().subquery(Long.class);
+        Root<ProductClassification> classification = classified.from(ProductClassification.class);
+        List<Predicate> conditions = new ArrayList<>(3);
+        conditions.add(cb.equal(classification.get("productId"), root.get("id")));
+        if (abc != null) {
+            conditions.add(cb.equal(classification.get("abcClass"), abc));
+        }
+        if (xyz != null) {
+            conditions.add(cb.equal(classification.get("xyzClass"), xyz));
+        }
+        classified.select(classification.get("productId")).where(conditions.toArray(Predicate[]::new));
+        return cb.exists(classified);
+    }
+
+    public static Predicate effectiveTransaction(Root<Transaction> root, QueryContext query) {
+        // Same rule as TransactionRepository.EFFECTIVE
+        CriteriaBuilder cb = query.builder();
+        Subquery<Long> correction = query.query().subquery(Long.class);
+        Root<Transaction> corrects = correction.from(Transaction.class);
+        correction.select(corrects.get("id"))
+                .where(cb.isNotNull(corrects.get("corrects")), cb.equal(corrects.get("corrects"), root));
+
+        return cb.and(cb.notEqual(root.get("entryKind"), Transaction.EntryKind.REVERSAL),
+                cb.not(cb.exists(correction)));
+    }
+
+    public List<String> resolveNames(List<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return new ArrayList<>(fields.keySet());
+        }
+        requested.forEach(this::getField);
+        return requested;
+    }
+}
@@ -11,32 +11,44 @@ import java.util.List;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByProductIdOrderByTransactionDateDesc(Long productId);
+    // Effective view of the journal: no reversals and nothing that a later entry corrects.
+    // The explicit IS NOT NULL lets the planner read only the corrections from the
+    // corrects/entry_kind unique index and hash those, instead of hashing every entry.
+    String EFFECTIVE = "t.entryKind <> 'REVERSAL' AND NOT EXISTS " +
+                       "(SELECT c.id FROM Transaction c WHERE c.corrects IS NOT NULL AND c.corrects = t)";
+
+    @Query("SELECT t FROM Transaction t WHERE " + EFFECTIVE)
+    List<Transaction> findAllEffective();
+
+    @Query("SELECT t FROM Transaction t WHERE t.product.id = :productId AND " + EFFECTIVE +
+           " ORDER BY t.transactionDate DESC")
+    List<Transaction> findByProductIdOrderByTransactionDateDesc(@Param("productId") Long productId);
     
-    List<Transaction> findByUserIdOrderByTransactionDateDesc(Long userId);
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND " + EFFECTIVE +
+           " ORDER BY t.transactionDate DESC")
+    List<Transaction> findByUserIdOrderByTransactionDateDesc(@Param("userId") Long userId);
     
-    List<Transaction> findByTypeOrderByTransactionDateDesc(Transaction.TransactionType type);
+    @Query("SELECT t FROM Transaction t WHERE t.type = :type AND " + EFFECTIVE +
+           " ORDER BY t.transactionDate DESC")
+    List<Transaction> findByTypeOrderByTransactionDateDesc(@Param("type") Transaction.TransactionType type);
     
-    List<Transaction> findBySupplierIdOrderByTransactionDateDesc(Long supplierId);
+    @Query("SELECT t FROM Transaction t WHERE t.supplier.id = :supplierId AND " + EFFECTIVE +
+           " ORDER BY t.transactionDate DESC")
+    List<Transaction> findBySupplierIdOrderByTransactionDateDesc(@Param("supplierId") Long supplierId);
     
-    @Query("SELECT t FROM Transaction t WHERE t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
+    @Query("SELECT t FROM Transaction t WHERE t.transactionDate BETWEEN :startDate AND :endDate AND " + EFFECTIVE +
+           " ORDER BY t.transactionDate DESC")
     List<Transaction> findByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT t FROM Transaction t WHERE t.type = :type AND t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
+    @Query("SELECT t FROM Transaction t WHERE t.type = :type AND t.transactionDate BETWEEN :startDate AND :endDate AND " +
+           EFFECTIVE + " ORDER BY t.transactionDate DESC")
     List<Transaction> findByTypeAndDateRange(@Param("type") Transaction.TransactionType type, 
                                            @Param("startDate") LocalDateTime startDate, 
                                            @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT SUM(t.quantity) FROM Transaction t WHERE t.product.id = :productId AND t.type = :type")
+    @Query("SELECT SUM(t.quantity) FROM Transaction t WHERE t.product.id = :productId AND t.type = :type AND " + EFFECTIVE)
     Integer getTotalQuantityByProductAndType(@Param("productId") Long productId, @Param("type") Transaction.TransactionType type);
     
-    @Query("SELECT DATE(t.transactionDate) as date, " +
-           "COUNT(t) as totalTransactions, " +
-           "SUM(CASE WHEN t.type = 'IN' THEN 1 ELSE 0 END) as inTransactions, " +
-           "SUM(CASE WHEN t.type = 'OUT' THEN 1 ELSE 0 END) as outTransactions, " +
-           "SUM(CASE WHEN t.type = 'IN' THEN t.totalPrice ELSE 0 END) as totalInValue, " +
-           "SUM(CASE WHEN t.type = 'OUT' THEN t.totalPrice ELSE 0 END) as totalOutValue " +
-           "FROM Transaction t WHERE t.transactionDate BETWEEN :startDate AND :endDate " +
-           "GROUP BY DATE(t.transactionDate) ORDER BY DATE(t.transactionDate)")
-    List<Object[]> getTransactionSummaryByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    // Entries that reverse or replace the given one, i.e. what it is superseded by
+    List<Transaction> findByCorrectsId(Long transactionId);
 }
@@ -0,0 +1,98 @@
+package com.inventory.management.backend.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs outside the transaction interceptor so every attempt gets its own transaction
+ * and persistence context, re-reading the rows it lost the race on.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class OptimisticLockRetryAspect {
+    private final MeterRegistry meterRegistry;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${inventory.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${inventory.retry.initial-backoff-ms:10}")
+    private long initialBackoffMs;
+
+    @Value("${inventory.retry.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    @Around("@annotation(com.inventory.management.backend.retry.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Retrying inside a caller's transaction would only replay against the same stale state
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        meterRegistry.counter("inventory.optimistic_lock.writes", "operation", operation).increment();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                String entity = entityName(e);
+                meterRegistry.counter("inventory.optimistic_lock.conflicts",
+                        "entity", entity, "operation", operation).increment();
+
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("inventory.optimistic_lock.exhausted",
+                            "entity", entity, "operation", operation).increment();
+                    log.warn("Giving up on {} after {} conflicting attempts on {}", operation, attempt, entity);
+                    throw new RuntimeException("Concurrent update conflict on " + entity + ", please try again", e);
+                }
+
+                log.debug("Optimistic lock conflict on {} in {}, attempt {}", entity, operation, attempt);
+                evictStale(e);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) throws InterruptedException {
+        // Full jitter: spread retries of colliding writers instead of letting them collide again
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 16));
+        Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    private void evictStale(OptimisticLockingFailureException e) {
+        // The losing version may have come from the second-level cache, e.g. before another
+        // node's invalidation arrived; the retry must read the row itself
+        if (e instanceof ObjectOptimisticLockingFailureException objectFailure
+                && objectFailure.getPersistentClass() != null && objectFailure.getIdentifier() != null) {
+            entityManagerFactory.getCache().evict(objectFailure.getPersistentClass(), objectFailure.getIdentifier());
+        }
+    }
+
+    private String entityName(OptimisticLockingFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException objectFailure
+                && objectFailure.getPersistentClassName() != null) {
+            String className = objectFailure.getPersistentClassName();
+            return className.substring(className.lastIndexOf('.') + 1);
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,15 @@
+package com.inventory.management.backend.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service write that should be re-run in a fresh transaction when it loses
+ * an optimistic lock race on a versioned entity.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -20,16 +20,22 @@ import java.io.IOException;
 public class AuthTokenFilter extends OncePerRequestFilter {
     private final JwtUtils jwtUtils;
     private final CustomUserDetailsService userDetailsService;
+    private final StreamTicketService streamTicketService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
+            String username = null;
             String jwt = parseJwt(request);
             if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+                username = jwtUtils.getUserNameFromJwtToken(jwt);
+            } else if (jwt == null && isEventStream(request)) {
+                username = redeemTicket(request);
+            }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (username != null) {
+                UserDetails userDetails = userDetailsService.loadUserForToken(username);
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -52,4 +58,14 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
         return null;
     }
+
+    // Browsers cannot set headers on EventSource connections, so the stream takes a single-use ticket
+    private static boolean isEventStream(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && "/events/stock".equals(request.getServletPath());
+    }
+
+    private String redeemTicket(HttpServletRequest request) {
+        String ticket = request.getParameter("ticket");
+        return StringUtils.hasText(ticket) ? streamTicketService.redeem(ticket) : null;
+    }
 }
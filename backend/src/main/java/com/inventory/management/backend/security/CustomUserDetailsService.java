@@ -1,18 +1,24 @@
 package com.inventory.management.backend.security;
 
+import com.inventory.management.backend.cache.CatalogStore;
+import com.inventory.management.backend.cache.UserRecord;
 import com.inventory.management.backend.entity.User;
 import com.inventory.management.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final CatalogStore catalogStore;
 
     @Override
     @Transactional
@@ -26,4 +32,18 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         return UserPrincipal.create(user);
     }
+
+    /**
+     * Resolves the user behind an already validated access token. Served from the
+     * catalog store when possible; unlike {@link #loadUserByUsername} the result carries
+     * no password and must not be used to check credentials.
+     */
+    public UserDetails loadUserForToken(String username) throws UsernameNotFoundException {
+        UserRecord user = catalogStore.isLoaded() ? catalogStore.getActiveUser(username) : null;
+        if (user == null) {
+            return loadUserByUsername(username);
+        }
+        return new UserPrincipal(user.id(), user.username(), user.email(), null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.role().name())));
+    }
 }
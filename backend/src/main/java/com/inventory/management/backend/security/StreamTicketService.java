@@ -0,0 +1,72 @@
+package com.inventory.management.backend.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Short-lived, single-use tickets for opening an event stream. Browsers cannot set headers
+ * on EventSource connections, so the stream URL carries a ticket instead of the JWT. A
+ * ticket that ends up in a log or the browser history is already spent, or expires within
+ * seconds. Tickets are kept in the database, so any node can redeem them.
+ */
+@Service
+@RequiredArgsConstructor
+public class StreamTicketService {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${inventory.events.ticket-ttl-seconds:30}")
+    private long ticketTtlSeconds;
+
+    public long getTicketTtlSeconds() {
+        return ticketTtlSeconds;
+    }
+
+    public String issue(String username) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        jdbcTemplate.update("INSERT INTO stream_tickets (ticket_hash, username, expires_at) VALUES (?, ?, ?)",
+                hash(ticket), username, Timestamp.valueOf(LocalDateTime.now().plusSeconds(ticketTtlSeconds)));
+        return ticket;
+    }
+
+    /**
+     * Spends the ticket and returns the user it was issued to, or null when it is unknown,
+     * already spent or expired.
+     */
+    public String redeem(String ticket) {
+        List<String> usernames = jdbcTemplate.queryForList(
+                "DELETE FROM stream_tickets WHERE ticket_hash = ? AND expires_at > ? RETURNING username",
+                String.class, hash(ticket), Timestamp.valueOf(LocalDateTime.now()));
+        return usernames.isEmpty() ? null : usernames.get(0);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.events.ticket-purge-ms:60000}")
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM stream_tickets WHERE expires_at <= ?", Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private static String hash(String ticket) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(ticket.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.inventory.management.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the product catalog (products, suppliers and stock shards).
+ * Every catalog write takes the next value of a database sequence as its change
+ * marker. {@link #getVersion()} is answered from memory and only moves past a
+ * marker once the transaction that took it has finished, so a client that synced
+ * up to that version can never miss a row committed later with a lower marker.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogVersionService {
+    private static final String SEQUENCE = "catalog_version_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong highestAllocated = new AtomicLong();
+    private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+
+    @PostConstruct
+    void start() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE);
+        highestAllocated.set(latestAllocated());
+    }
+
+    /**
+     * Highest marker handed out by any node, whether or not its transaction has finished.
+     */
+    public long latestAllocated() {
+        Long last = jdbcTemplate.queryForObject(
+                "SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM " + SEQUENCE, Long.class);
+        return last != null ? last : 0;
+    }
+
+    public long next() {
+        Long version = jdbcTemplate.queryForObject("SELECT nextval('" + SEQUENCE + "')", Long.class);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.add(version);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    pending.remove(version);
+                }
+            });
+        }
+        highestAllocated.accumulateAndGet(version, Math::max);
+        return version;
+    }
+
+    /**
+     * Moves the version past changes committed on another node, once they are applied here.
+     */
+    public void observe(long version) {
+        highestAllocated.accumulateAndGet(version, Math::max);
+    }
+
+    public long getVersion() {
+        // Read the high-water mark first: a marker allocated after this read is above it anyway
+        long highest = highestAllocated.get();
+        Long oldestPending = pending.ceiling(Long.MIN_VALUE);
+        return oldestPending != null ? Math.min(highest, oldestPending - 1) : highest;
+    }
+}
@@ -1,68 +1,168 @@
 package com.inventory.management.backend.service;
 
+import com.inventory.management.backend.cache.CatalogStore;
+import com.inventory.management.backend.cache.ProductRecord;
+import com.inventory.management.backend.coalesce.Coalesced;
+import com.inventory.management.backend.classification.Classification;
+import com.inventory.management.backend.classification.ProductClassificationService;
+import com.inventory.management.backend.dto.FieldSelection;
+import com.inventory.management.backend.dto.ProductChangesDto;
+import com.inventory.management.backend.dto.ProductClassFilter;
 import com.inventory.management.backend.dto.ProductDto;
 import com.inventory.management.backend.dto.StockReportDto;
 import com.inventory.management.backend.entity.Product;
 import com.inventory.management.backend.entity.Supplier;
+import com.inventory.management.backend.event.ProductChangedEvent;
 import com.inventory.management.backend.repository.ProductRepository;
+import com.inventory.management.backend.repository.ProductStockShardRepository;
+import com.inventory.management.backend.repository.SparseFieldset;
 import com.inventory.management.backend.repository.SupplierRepository;
+import com.inventory.management.backend.retry.RetryOnConflict;
+import com.inventory.management.backend.valuation.InventoryValuationService;
+import com.inventory.management.backend.valuation.Valuation;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ProductService {
+    private static final SparseQueryService.Ordering<Product> BY_ID = (root, cb) -> cb.asc(root.get("id"));
+
     private final ProductRepository productRepository;
     private final SupplierRepository supplierRepository;
+    private final ProductStockShardRepository shardRepository;
+    private final StockCounterService stockCounterService;
+    private final InventoryValuationService inventoryValuationService;
+    private final ProductClassificationService productClassificationService;
+    private final CatalogStore catalogStore;
+    private final CatalogVersionService catalogVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SparseQueryService sparseQueryService;
     private final ModelMapper modelMapper;
 
     public List<ProductDto> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(productRepository.findAll());
     }
 
+    // Catalog reads are answered by the in-memory store once it is loaded, SUPPORTS keeps
+    // them from checking out a connection for a transaction they never use
+
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ProductDto> getActiveProducts() {
-        return productRepository.findByActiveTrue().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        if (catalogStore.isLoaded()) {
+            return toDtos(catalogStore.getActiveProducts());
+        }
+        return convertToDtos(productRepository.findByActiveTrue());
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<ProductDto> getProductById(Long id) {
+        if (catalogStore.isLoaded()) {
+            return Optional.ofNullable(catalogStore.getProduct(id)).map(ProductRecord::toDto);
+        }
         return productRepository.findById(id)
                 .map(this::convertToDto);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ProductDto> getProductsByCategory(String category) {
-        return productRepository.findByActiveTrueAndCategory(category).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        if (catalogStore.isLoaded()) {
+            return toDtos(catalogStore.getActiveProductsByCategory(category));
+        }
+        return convertToDtos(productRepository.findByActiveTrueAndCategory(category));
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ProductDto> getProductsBySupplier(Long supplierId) {
-        return productRepository.findByActiveTrueAndSupplierId(supplierId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        if (catalogStore.isLoaded()) {
+            return toDtos(catalogStore.getActiveProductsBySupplier(supplierId));
+        }
+        return convertToDtos(productRepository.findByActiveTrueAndSupplierId(supplierId));
     }
 
     public List<ProductDto> searchProducts(String keyword) {
-        return productRepository.findByKeyword(keyword).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(productRepository.findByKeyword(keyword));
     }
 
+    @Coalesced
     public List<ProductDto> getLowStockProducts() {
-        return productRepository.findLowStockProducts().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(productRepository.findLowStockProducts());
+    }
+
+    public Object getAllProducts(FieldSelection selection, ProductClassFilter classes) {
+        return sparseQueryService.query(SparseFieldset.PRODUCT, selection, classified(null, classes), BY_ID);
+    }
+
+    public Object getActiveProducts(FieldSelection selection, ProductClassFilter classes) {
+        return sparseQueryService.query(SparseFieldset.PRODUCT, selection,
+                classified((root, query) -> query.builder().isTrue(root.get("active")), classes), BY_ID);
+    }
+
+    public Object getProductsByCategory(String category, FieldSelection selection, ProductClassFilter classes) {
+        return sparseQueryService.query(SparseFieldset.PRODUCT, selection,
+                classified((root, query) -> query.builder().and(
+                        query.builder().isTrue(root.get("active")),
+                        query.builder().equal(root.get("category"), category)), classes), BY_ID);
+    }
+
+    public Object getProductsBySupplier(Long supplierId, FieldSelection selection, ProductClassFilter classes) {
+        return sparseQueryService.query(SparseFieldset.PRODUCT, selection,
+                classified((root, query) -> query.builder().and(
+                        query.builder().isTrue(root.get("active")),
+                        query.builder().equal(root.get("supplier").get("id"), supplierId)), classes), BY_ID);
+    }
+
+    public Object searchProducts(String keyword, FieldSelection selection, ProductClassFilter classes) {
+        String pattern = "%" + keyword.toLowerCase() + "%";
+        return sparseQueryService.query(SparseFieldset.PRODUCT, selection,
+                classified((root, query) -> {
+                    CriteriaBuilder cb = query.builder();
+                    return cb.and(cb.isTrue(root.get("active")), cb.or(
+                            cb.like(cb.lower(root.get("name")), pattern),
+                            cb.like(cb.lower(root.get("category")), pattern),
+                            cb.like(cb.lower(root.get("sku")), pattern)));
+                }, classes), BY_ID);
+    }
+
+    public Object getLowStockProducts(FieldSelection selection, ProductClassFilter classes) {
+        return sparseQueryService.query(SparseFieldset.PRODUCT, selection,
+                classified((root, query) -> query.builder().and(
+                        query.builder().isTrue(root.get("active")),
+                        query.builder().le(SparseFieldset.productStock(root, query), root.get("minimumStock"))),
+                        classes), BY_ID);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductChangesDto getProductChanges(Long since) {
+        // Taken before reading so rows committed meanwhile are sent again next time rather than missed
+        long version = catalogVersionService.getVersion();
+
+        Set<Long> ids = new TreeSet<>(productRepository.findIdsChangedSince(since));
+        ids.addAll(productRepository.findIdsWithSupplierChangedSince(since));
+        ids.addAll(shardRepository.findProductIdsChangedSince(since));
+
+        List<Product> products = ids.isEmpty() ? List.of() : productRepository.findAllById(ids);
+        products = products.stream().sorted(Comparator.comparing(Product::getId)).collect(Collectors.toList());
+        return new ProductChangesDto(version, convertToDtos(products));
     }
 
     public List<String> getAllCategories() {
@@ -83,6 +183,7 @@ public class ProductService {
         }
         
         product.setActive(true);
+        product.setStockShards(1);
         if (product.getStock() == null) {
             product.setStock(0);
         }
@@ -91,9 +192,12 @@ public class ProductService {
         }
         
         Product savedProduct = productRepository.save(product);
+        inventoryValuationService.requestRebuild(savedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(), ProductChangedEvent.ChangeType.CREATED));
         return convertToDto(savedProduct);
     }
 
+    @RetryOnConflict
     public ProductDto updateProduct(Long id, ProductDto productDto) {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
@@ -109,6 +213,7 @@ public class ProductService {
         existingProduct.setCategory(productDto.getCategory());
         existingProduct.setSku(productDto.getSku());
         existingProduct.setDescription(productDto.getDescription());
+        BigDecimal previousPriceIn = existingProduct.getPriceIn();
         existingProduct.setPriceIn(productDto.getPriceIn());
         existingProduct.setPriceOut(productDto.getPriceOut());
         existingProduct.setMinimumStock(productDto.getMinimumStock());
@@ -123,31 +228,93 @@ public class ProductService {
         }
 
         Product updatedProduct = productRepository.save(existingProduct);
+        if (previousPriceIn == null || productDto.getPriceIn() == null
+                || previousPriceIn.compareTo(productDto.getPriceIn()) != 0) {
+            // Unexplained stock is valued at the purchase price
+            inventoryValuationService.requestRebuild(updatedProduct);
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.ChangeType.UPDATED));
         return convertToDto(updatedProduct);
     }
 
+    @RetryOnConflict
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         product.setActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, ProductChangedEvent.ChangeType.DELETED));
     }
 
+    @RetryOnConflict
     public void updateStock(Long productId, Integer newStock) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
-        product.setStock(newStock);
-        productRepository.save(product);
+        stockCounterService.setStock(product, newStock);
+        inventoryValuationService.requestReconcile(product);
+    }
+
+    @RetryOnConflict
+    public ProductDto configureStockShards(Long productId, Integer shards) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        stockCounterService.configureShards(product, shards);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductChangedEvent.ChangeType.UPDATED));
+        return convertToDto(product);
     }
 
+    @Coalesced
     public List<StockReportDto> getStockReport() {
-        return productRepository.findByActiveTrue().stream()
-                .map(this::convertToStockReportDto)
+        List<Product> products = productRepository.findByActiveTrue();
+        Map<Long, Integer> stocks = stockCounterService.getStocks(products);
+        List<Long> ids = products.stream().map(Product::getId).toList();
+        Map<Long, Valuation> valuations = inventoryValuationService.getValuations(ids);
+        Map<Long, Classification> classes = productClassificationService.getClassifications(ids);
+        return products.stream()
+                .map(product -> convertToStockReportDto(product, stocks.get(product.getId()),
+                        valuations.get(product.getId()), classes.get(product.getId())))
+                .collect(Collectors.toList());
+    }
+
+    public Page<StockReportDto> getStockReportPage(int page, int size) {
+        Page<Product> products = productRepository.findByActiveTrue(PageRequest.of(page, size, Sort.by("id")));
+        Map<Long, Integer> stocks = stockCounterService.getStocks(products.getContent());
+        List<Long> ids = products.getContent().stream().map(Product::getId).toList();
+        Map<Long, Valuation> valuations = inventoryValuationService.getValuations(ids);
+        Map<Long, Classification> classes = productClassificationService.getClassifications(ids);
+        return products.map(product -> convertToStockReportDto(product, stocks.get(product.getId()),
+                valuations.get(product.getId()), classes.get(product.getId())));
+    }
+
+    private static SparseQueryService.Filter<Product> classified(SparseQueryService.Filter<Product> filter,
+                                                                 ProductClassFilter classes) {
+        if (classes == null || classes.isEmpty()) {
+            return filter;
+        }
+        return (root, query) -> {
+            Predicate classified = SparseFieldset.productClassified(root, query, classes.abc(), classes.xyz());
+            return filter == null ? classified : query.builder().and(filter.toPredicate(root, query), classified);
+        };
+    }
+
+    private List<ProductDto> toDtos(List<ProductRecord> records) {
+        return records.stream().map(ProductRecord::toDto).collect(Collectors.toList());
+    }
+
+    private List<ProductDto> convertToDtos(List<Product> products) {
+        Map<Long, Integer> stocks = stockCounterService.getStocks(products);
+        return products.stream()
+                .map(product -> convertToDto(product, stocks.get(product.getId())))
                 .collect(Collectors.toList());
     }
 
     private ProductDto convertToDto(Product product) {
+        return convertToDto(product, stockCounterService.getStock(product));
+    }
+
+    private ProductDto convertToDto(Product product, int stock) {
         ProductDto dto = modelMapper.map(product, ProductDto.class);
+        dto.setStock(stock);
         if (product.getSupplier() != null) {
             dto.setSupplierId(product.getSupplier().getId());
             dto.setSupplierName(product.getSupplier().getName());
@@ -161,19 +328,32 @@ public class ProductService {
         return product;
     }
 
-    private StockReportDto convertToStockReportDto(Product product) {
+    private StockReportDto convertToStockReportDto(Product product, int stock, Valuation valuation,
+                                                   Classification classification) {
         StockReportDto dto = new StockReportDto();
         dto.setProductId(product.getId());
         dto.setProductName(product.getName());
         dto.setCategory(product.getCategory());
         dto.setSku(product.getSku());
-        dto.setCurrentStock(product.getStock());
+        dto.setCurrentStock(stock);
         dto.setMinimumStock(product.getMinimumStock());
         dto.setPriceIn(product.getPriceIn());
         dto.setPriceOut(product.getPriceOut());
         dto.setSupplierName(product.getSupplier() != null ? product.getSupplier().getName() : null);
-        dto.setLowStock(product.getStock() <= product.getMinimumStock());
-        dto.setStockValue(product.getPriceIn().multiply(BigDecimal.valueOf(product.getStock())));
+        dto.setLowStock(stock <= product.getMinimumStock());
+        if (valuation != null) {
+            dto.setAverageUnitCost(valuation.averageUnitCost());
+            dto.setAverageCostValue(valuation.averageValue());
+            dto.setFifoValue(valuation.fifoValue());
+            dto.setStockValue(inventoryValuationService.valueOf(valuation));
+        } else {
+            // Not valued until its first movement or rebuild
+            dto.setStockValue(product.getPriceIn().multiply(BigDecimal.valueOf(stock)));
+        }
+        if (classification != null) {
+            dto.setAbcClass(classification.abcClass());
+            dto.setXyzClass(classification.xyzClass());
+        }
         return dto;
     }
 }
@@ -0,0 +1,286 @@
+package com.inventory.management.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inventory.management.backend.analytics.TransactionSummaries;
+import com.inventory.management.backend.dto.ReportJobDto;
+import com.inventory.management.backend.dto.ReportJobRequest;
+import com.inventory.management.backend.dto.StockReportDto;
+import com.inventory.management.backend.dto.TransactionSummaryDto;
+import com.inventory.management.backend.workload.WorkloadClass;
+import com.inventory.management.backend.workload.WorkloadContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Runs long stock and summary reports off the request thread. Results are written as
+ * gzip-compressed JSON files and kept until their TTL expires. A submission identical
+ * to a queued or running job is answered with that job; once a job has finished, the
+ * next identical submission starts a fresh run. Jobs live on the node that took them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportJobService {
+    private static final int STOCK_PAGE_SIZE = 500;
+
+    private final ProductService productService;
+    private final TransactionSummaries transactionSummaries;
+    private final ObjectMapper objectMapper;
+
+    @Value("${inventory.report-jobs.directory:${java.io.tmpdir}/inventory-reports}")
+    private String directory;
+
+    @Value("${inventory.report-jobs.workers:2}")
+    private int workers;
+
+    @Value("${inventory.report-jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${inventory.report-jobs.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ReportJob> jobsByDefinition = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+    private Path resultDirectory;
+
+    @PostConstruct
+    void start() throws IOException {
+        resultDirectory = Paths.get(directory).toAbsolutePath();
+        Files.createDirectories(resultDirectory);
+        // Job metadata lives in memory, so files from a previous run can never be served again
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(resultDirectory, "*.json.gz*")) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    // Queued report jobs run on the background pool, report requests keep their own
+                    Thread thread = new Thread(() -> {
+                        WorkloadContext.set(WorkloadClass.BACKGROUND);
+                        runnable.run();
+                    }, "report-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public ReportJobDto submit(ReportJobRequest request) {
+        validate(request);
+
+        String definition = request.getType() + ":" + request.getStartDate() + ":" + request.getEndDate();
+        ReportJob candidate = new ReportJob(UUID.randomUUID().toString(), definition, request);
+        ReportJob job = jobsByDefinition.compute(definition,
+                (key, existing) -> existing != null && existing.isReusable() ? existing : candidate);
+
+        if (job == candidate) {
+            jobs.put(job.id, job);
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                jobsByDefinition.remove(definition, job);
+                throw new RuntimeException("Report queue is full, please try again later");
+            }
+        }
+        return job.toDto();
+    }
+
+    public Optional<ReportJobDto> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(ReportJob::toDto);
+    }
+
+    public Optional<Path> getResultFile(String id) {
+        ReportJob job = jobs.get(id);
+        if (job == null || job.status != ReportJobDto.Status.COMPLETED || job.isExpired()) {
+            return Optional.empty();
+        }
+        return Optional.of(job.resultFile).filter(Files::exists);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.report-jobs.cleanup-interval-ms:60000}")
+    public void removeExpiredJobs() {
+        jobs.values().removeIf(job -> {
+            if (!job.isExpired()) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(job.resultFile);
+            } catch (IOException e) {
+                log.warn("Could not delete expired report {}: {}", job.resultFile, e.getMessage());
+            }
+            return true;
+        });
+    }
+
+    private void validate(ReportJobRequest request) {
+        if (request.getType() == ReportJobRequest.ReportType.STOCK) {
+            // Stock reports are point-in-time, dates must not split otherwise identical jobs
+            request.setStartDate(null);
+            request.setEndDate(null);
+        } else {
+            if (request.getStartDate() == null || request.getEndDate() == null) {
+                throw new RuntimeException("Start date and end date are required for summary reports");
+            }
+            if (request.getEndDate().isBefore(request.getStartDate())) {
+                throw new RuntimeException("End date must not be before start date");
+            }
+        }
+    }
+
+    private void run(ReportJob job) {
+        job.status = ReportJobDto.Status.RUNNING;
+        Path partial = resultDirectory.resolve(job.id + ".json.gz.part");
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try {
+            try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(partial)), 64 * 1024);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                if (job.request.getType() == ReportJobRequest.ReportType.STOCK) {
+                    writeStockReport(job, generator, rowWriter);
+                } else {
+                    writeSummaryReport(job, generator, rowWriter);
+                }
+                generator.writeEndArray();
+            }
+            Files.move(partial, job.resultFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            job.resultSize = Files.size(job.resultFile);
+            job.completedAt = LocalDateTime.now();
+            job.progress = 100;
+            job.status = ReportJobDto.Status.COMPLETED;
+        } catch (Exception e) {
+            log.error("Report job {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.completedAt = LocalDateTime.now();
+            job.status = ReportJobDto.Status.FAILED;
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // Nothing else to clean up
+            }
+        } finally {
+            // Later submissions want current figures; the finished job stays downloadable by id
+            jobsByDefinition.remove(job.definition, job);
+        }
+    }
+
+    private void writeStockReport(ReportJob job, JsonGenerator generator, ObjectWriter rowWriter) throws IOException {
+        int page = 0;
+        Page<StockReportDto> rows;
+        do {
+            rows = productService.getStockReportPage(page, STOCK_PAGE_SIZE);
+            for (StockReportDto row : rows) {
+                rowWriter.writeValue(generator, row);
+            }
+            page++;
+            job.progress = rows.getTotalPages() == 0 ? 100 : page * 100 / rows.getTotalPages();
+        } while (rows.hasNext());
+    }
+
+    private void writeSummaryReport(ReportJob job, JsonGenerator generator, ObjectWriter rowWriter) throws IOException {
+        // One month per query keeps each transaction short and gives meaningful progress
+        LocalDate start = job.request.getStartDate();
+        LocalDate end = job.request.getEndDate();
+        long totalMonths = ChronoUnit.MONTHS.between(start.withDayOfMonth(1), end.withDayOfMonth(1)) + 1;
+
+        long monthsDone = 0;
+        for (LocalDate chunkStart = start; !chunkStart.isAfter(end); ) {
+            LocalDate chunkEnd = chunkStart.withDayOfMonth(chunkStart.lengthOfMonth());
+            if (chunkEnd.isAfter(end)) {
+                chunkEnd = end;
+            }
+
+            List<TransactionSummaryDto> rows = transactionSummaries.summarize(chunkStart, chunkEnd,
+                    TransactionSummaries.Granularity.DAY, ZoneId.systemDefault(), Set.of());
+            for (TransactionSummaryDto row : rows) {
+                rowWriter.writeValue(generator, row);
+            }
+
+            monthsDone++;
+            job.progress = (int) (monthsDone * 100 / totalMonths);
+            chunkStart = chunkEnd.plusDays(1);
+        }
+    }
+
+    private class ReportJob {
+        private final String id;
+        private final String definition;
+        private final ReportJobRequest request;
+        private final Path resultFile;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile ReportJobDto.Status status = ReportJobDto.Status.QUEUED;
+        private volatile int progress;
+        private volatile Long resultSize;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+
+        private ReportJob(String id, String definition, ReportJobRequest request) {
+            this.id = id;
+            this.definition = definition;
+            this.request = request;
+            this.resultFile = resultDirectory.resolve(id + ".json.gz");
+        }
+
+        private LocalDateTime expiresAt() {
+            return completedAt != null ? completedAt.plusMinutes(ttlMinutes) : null;
+        }
+
+        private boolean isExpired() {
+            LocalDateTime expiresAt = expiresAt();
+            return expiresAt != null && expiresAt.isBefore(LocalDateTime.now());
+        }
+
+        private boolean isReusable() {
+            return status == ReportJobDto.Status.QUEUED || status == ReportJobDto.Status.RUNNING;
+        }
+
+        private ReportJobDto toDto() {
+            return new ReportJobDto(id, request.getType(), request.getStartDate(), request.getEndDate(),
+                    status, progress, resultSize, error, submittedAt, completedAt, expiresAt());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.inventory.management.backend.service;
+
+import com.inventory.management.backend.dto.ColumnarPayload;
+import com.inventory.management.backend.dto.FieldSelection;
+import com.inventory.management.backend.repository.SparseFieldset;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs list queries that select only the requested fields and shapes the rows either
+ * as one object per row or as one array per field.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SparseQueryService {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @FunctionalInterface
+    public interface Filter<T> {
+        Predicate toPredicate(Root<T> root, SparseFieldset.QueryContext query);
+    }
+
+    @FunctionalInterface
+    public interface Ordering<T> {
+        Order toOrder(Root<T> root, CriteriaBuilder builder);
+    }
+
+    public <T> Object query(SparseFieldset<T> fieldset, FieldSelection selection, Filter<T> filter, Ordering<T> ordering) {
+        List<String> names = fieldset.resolveNames(selection.getFields());
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = builder.createQuery(Object[].class);
+        Root<T> root = query.from(fieldset.getEntityType());
+        SparseFieldset.QueryContext context = new SparseFieldset.QueryContext(builder, query);
+
+        List<Selection<?>> selections = new ArrayList<>(names.size());
+        for (String name : names) {
+            selections.add(fieldset.getField(name).resolve(root, context));
+        }
+        query.multiselect(selections);
+        if (filter != null) {
+            query.where(filter.toPredicate(root, context));
+        }
+        if (ordering != null) {
+            query.orderBy(ordering.toOrder(root, builder));
+        }
+
+        List<Object[]> rows = entityManager.createQuery(query).getResultList();
+        return selection.getLayout() == FieldSelection.Layout.COLUMNS
+                ? toColumns(names, rows)
+                : toRows(names, rows);
+    }
+
+    private List<Map<String, Object>> toRows(List<String> names, List<Object[]> rows) {
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Map<String, Object> values = new LinkedHashMap<>(names.size() * 2);
+            for (int i = 0; i < names.size(); i++) {
+                values.put(names.get(i), row[i]);
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    private ColumnarPayload toColumns(List<String> names, List<Object[]> rows) {
+        Map<String, List<Object>> columns = new LinkedHashMap<>(names.size() * 2);
+        for (int i = 0; i < names.size(); i++) {
+            List<Object> column = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                column.add(row[i]);
+            }
+            columns.put(names.get(i), column);
+        }
+        return new ColumnarPayload(names, rows.size(), columns);
+    }
+}
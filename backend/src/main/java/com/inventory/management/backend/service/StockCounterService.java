@@ -0,0 +1,246 @@
+package com.inventory.management.backend.service;
+
+import com.inventory.management.backend.entity.Product;
+import com.inventory.management.backend.entity.ProductStockShard;
+import com.inventory.management.backend.repository.ProductRepository;
+import com.inventory.management.backend.repository.ProductStockShardRepository;
+import com.inventory.management.backend.event.StockChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Single place where product stock is read and moved. Products with more than one
+ * stock shard keep their quantity in {@link ProductStockShard} rows so concurrent
+ * movements lock different rows instead of all queuing on the product row.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockCounterService {
+    public static final int MAX_SHARDS = 64;
+
+    private final ProductRepository productRepository;
+    private final ProductStockShardRepository shardRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public static boolean isSharded(Product product) {
+        return product.getStockShards() != null && product.getStockShards() > 1;
+    }
+
+    public int getStock(Product product) {
+        if (!isSharded(product)) {
+            return product.getStock();
+        }
+        return shardRepository.sumQuantity(product.getId()).intValue();
+    }
+
+    public Map<Long, Integer> getStocks(Collection<Product> products) {
+        List<Long> shardedIds = products.stream()
+                .filter(StockCounterService::isSharded)
+                .map(Product::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, Integer> shardedStock = new HashMap<>();
+        if (!shardedIds.isEmpty()) {
+            for (Object[] row : shardRepository.sumQuantities(shardedIds)) {
+                shardedStock.put((Long) row[0], ((Number) row[1]).intValue());
+            }
+        }
+
+        Map<Long, Integer> stocks = new HashMap<>();
+        for (Product product : products) {
+            stocks.put(product.getId(), isSharded(product)
+                    ? shardedStock.getOrDefault(product.getId(), 0)
+                    : product.getStock());
+        }
+        return stocks;
+    }
+
+    public void increase(Product product, int quantity) {
+        if (!isSharded(product)) {
+            int previousStock = product.getStock();
+            product.setStock(previousStock + quantity);
+            productRepository.save(product);
+            publishChange(product, previousStock, product.getStock());
+            return;
+        }
+        if (shardRepository.increment(product.getId(), homeShard(product), quantity, catalogVersionService.next()) != 1) {
+            throw shardsReconfigured(product);
+        }
+        publishShardedChange(product, quantity);
+    }
+
+    public void decrease(Product product, int quantity) {
+        if (!isSharded(product)) {
+            if (product.getStock() < quantity) {
+                throw new RuntimeException("Insufficient stock. Available: " + product.getStock());
+            }
+            int previousStock = product.getStock();
+            product.setStock(previousStock - quantity);
+            productRepository.save(product);
+            publishChange(product, previousStock, product.getStock());
+            return;
+        }
+
+        long changeVersion = catalogVersionService.next();
+        int home = homeShard(product);
+        if (shardRepository.decrementIfAvailable(product.getId(), home, quantity, changeVersion) != 1) {
+            if (shardRepository.findQuantity(product.getId(), home) == null) {
+                throw shardsReconfigured(product);
+            }
+            borrowFromShards(product, quantity, changeVersion);
+        }
+        publishShardedChange(product, -quantity);
+    }
+
+    public void setStock(Product product, int newStock) {
+        int previousStock = getStock(product);
+        if (!isSharded(product)) {
+            product.setStock(newStock);
+            productRepository.save(product);
+        } else {
+            int shards = product.getStockShards();
+            long changeVersion = catalogVersionService.next();
+            for (int shardNo = 0; shardNo < shards; shardNo++) {
+                shardRepository.setQuantity(product.getId(), shardNo, shareOf(newStock, shards, shardNo), changeVersion);
+            }
+        }
+        publishChange(product, previousStock, newStock);
+    }
+
+    /**
+     * Moves the product's stock onto the given number of shards, or back onto the product
+     * row for one. The product row and its shard rows are locked first, so writes that
+     * committed before are counted and writes waiting on a shard row apply on top. A write
+     * whose shard row was removed fails with an optimistic lock conflict and is retried.
+     */
+    public void configureShards(Product product, int shards) {
+        if (shards < 1 || shards > MAX_SHARDS) {
+            throw new RuntimeException("Stock shards must be between 1 and " + MAX_SHARDS);
+        }
+
+        productRepository.lockById(product.getId());
+        entityManager.refresh(product);
+        List<ProductStockShard> existing = shardRepository.findByProductIdForUpdate(product.getId());
+        int currentStock = isSharded(product)
+                ? existing.stream().mapToInt(ProductStockShard::getQuantity).sum()
+                : product.getStock();
+
+        long changeVersion = catalogVersionService.next();
+        int kept = shards > 1 ? shards : 0;
+        shardRepository.deleteFromShard(product.getId(), kept);
+        for (int shardNo = 0; shardNo < kept; shardNo++) {
+            int quantity = shareOf(currentStock, shards, shardNo);
+            if (shardNo < existing.size()) {
+                shardRepository.setQuantity(product.getId(), shardNo, quantity, changeVersion);
+            } else {
+                ProductStockShard shard = new ProductStockShard();
+                shard.setProduct(product);
+                shard.setShardNo(shardNo);
+                shard.setQuantity(quantity);
+                shardRepository.save(shard);
+            }
+        }
+
+        product.setStockShards(shards);
+        product.setStock(currentStock);
+        productRepository.save(product);
+    }
+
+    /**
+     * Spreads a sharded product's stock evenly over its shards again, so decrements stop
+     * borrowing from siblings. The total does not change. Returns whether any shard moved.
+     */
+    public boolean rebalanceShards(Long productId) {
+        List<ProductStockShard> shards = shardRepository.findByProductIdForUpdate(productId);
+        if (shards.size() < 2) {
+            return false;
+        }
+        int total = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (ProductStockShard shard : shards) {
+            total += shard.getQuantity();
+            min = Math.min(min, shard.getQuantity());
+            max = Math.max(max, shard.getQuantity());
+        }
+        if (max - min <= 1) {
+            return false;
+        }
+
+        long changeVersion = catalogVersionService.next();
+        for (int i = 0; i < shards.size(); i++) {
+            shardRepository.setQuantity(productId, shards.get(i).getShardNo(), shareOf(total, shards.size(), i),
+                    changeVersion);
+        }
+        return true;
+    }
+
+    private void borrowFromShards(Product product, int quantity, long changeVersion) {
+        // Walk shards in ascending order so concurrent borrowers always lock rows in the same order
+        int remaining = quantity;
+        boolean progressed = true;
+        while (remaining > 0 && progressed) {
+            progressed = false;
+            for (int shardNo = 0; shardNo < product.getStockShards() && remaining > 0; shardNo++) {
+                Integer available = shardRepository.findQuantity(product.getId(), shardNo);
+                if (available == null || available <= 0) {
+                    continue;
+                }
+                int take = Math.min(available, remaining);
+                if (shardRepository.decrementIfAvailable(product.getId(), shardNo, take, changeVersion) == 1) {
+                    remaining -= take;
+                    progressed = true;
+                }
+            }
+        }
+
+        if (remaining > 0) {
+            Integer beyondLayout = shardRepository.findQuantity(product.getId(), product.getStockShards());
+            if (beyondLayout != null) {
+                throw shardsReconfigured(product);
+            }
+            // Throwing rolls back whatever was already borrowed from sibling shards
+            throw new RuntimeException("Insufficient stock. Available: " + (quantity - remaining
+                    + shardRepository.sumQuantity(product.getId()).intValue()));
+        }
+    }
+
+    // The shard layout changed under this write; the retry aspect reruns it against the new one
+    private static ObjectOptimisticLockingFailureException shardsReconfigured(Product product) {
+        return new ObjectOptimisticLockingFailureException(Product.class, product.getId());
+    }
+
+    private void publishShardedChange(Product product, int delta) {
+        int stock = shardRepository.sumQuantity(product.getId()).intValue();
+        publishChange(product, stock - delta, stock);
+    }
+
+    private void publishChange(Product product, int previousStock, int stock) {
+        int minimumStock = product.getMinimumStock() != null ? product.getMinimumStock() : 0;
+        eventPublisher.publishEvent(new StockChangedEvent(product.getId(), previousStock, stock, minimumStock));
+    }
+
+    private int homeShard(Product product) {
+        return (int) (Thread.currentThread().getId() % product.getStockShards());
+    }
+
+    private static int shareOf(int total, int shards, int shardNo) {
+        return total / shards + (shardNo < total % shards ? 1 : 0);
+    }
+}
@@ -1,11 +1,20 @@
 package com.inventory.management.backend.service;
 
+import com.inventory.management.backend.cache.CatalogStore;
+import com.inventory.management.backend.cache.SupplierRecord;
+import com.inventory.management.backend.dto.FieldSelection;
 import com.inventory.management.backend.dto.SupplierDto;
 import com.inventory.management.backend.entity.Supplier;
+import com.inventory.management.backend.event.SupplierChangedEvent;
+import com.inventory.management.backend.repository.SparseFieldset;
 import com.inventory.management.backend.repository.SupplierRepository;
+import com.inventory.management.backend.retry.RetryOnConflict;
+import jakarta.persistence.criteria.CriteriaBuilder;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -16,22 +25,39 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class SupplierService {
+    private static final SparseQueryService.Ordering<Supplier> BY_ID = (root, cb) -> cb.asc(root.get("id"));
+
     private final SupplierRepository supplierRepository;
+    private final CatalogStore catalogStore;
+    private final SparseQueryService sparseQueryService;
+    private final ApplicationEventPublisher eventPublisher;
     private final ModelMapper modelMapper;
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<SupplierDto> getAllSuppliers() {
+        if (catalogStore.isLoaded()) {
+            return toDtos(catalogStore.getSuppliers(false));
+        }
         return supplierRepository.findAll().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<SupplierDto> getActiveSuppliers() {
+        if (catalogStore.isLoaded()) {
+            return toDtos(catalogStore.getSuppliers(true));
+        }
         return supplierRepository.findByActiveTrue().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<SupplierDto> getSupplierById(Long id) {
+        if (catalogStore.isLoaded()) {
+            return Optional.ofNullable(catalogStore.getSupplier(id)).map(SupplierRecord::toDto);
+        }
         return supplierRepository.findById(id)
                 .map(this::convertToDto);
     }
@@ -42,6 +68,26 @@ public class SupplierService {
                 .collect(Collectors.toList());
     }
 
+    public Object getAllSuppliers(FieldSelection selection) {
+        return sparseQueryService.query(SparseFieldset.SUPPLIER, selection, null, BY_ID);
+    }
+
+    public Object getActiveSuppliers(FieldSelection selection) {
+        return sparseQueryService.query(SparseFieldset.SUPPLIER, selection,
+                (root, query) -> query.builder().isTrue(root.get("active")), BY_ID);
+    }
+
+    public Object searchSuppliers(String keyword, FieldSelection selection) {
+        String pattern = "%" + keyword.toLowerCase() + "%";
+        return sparseQueryService.query(SparseFieldset.SUPPLIER, selection,
+                (root, query) -> {
+                    CriteriaBuilder cb = query.builder();
+                    return cb.and(cb.isTrue(root.get("active")), cb.or(
+                            cb.like(cb.lower(root.get("name")), pattern),
+                            cb.like(cb.lower(root.get("contactPerson")), pattern)));
+                }, BY_ID);
+    }
+
     public SupplierDto createSupplier(SupplierDto supplierDto) {
         if (supplierRepository.existsByNameIgnoreCase(supplierDto.getName())) {
             throw new RuntimeException("Supplier with this name already exists");
@@ -51,9 +97,11 @@ public class SupplierService {
         supplier.setActive(true);
         
         Supplier savedSupplier = supplierRepository.save(supplier);
+        eventPublisher.publishEvent(new SupplierChangedEvent(savedSupplier.getId()));
         return convertToDto(savedSupplier);
     }
 
+    @RetryOnConflict
     public SupplierDto updateSupplier(Long id, SupplierDto supplierDto) {
         Supplier existingSupplier = supplierRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Supplier not found"));
@@ -72,14 +120,21 @@ public class SupplierService {
         existingSupplier.setActive(supplierDto.getActive());
 
         Supplier updatedSupplier = supplierRepository.save(existingSupplier);
+        eventPublisher.publishEvent(new SupplierChangedEvent(id));
         return convertToDto(updatedSupplier);
     }
 
+    @RetryOnConflict
     public void deleteSupplier(Long id) {
         Supplier supplier = supplierRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Supplier not found"));
         supplier.setActive(false);
         supplierRepository.save(supplier);
+        eventPublisher.publishEvent(new SupplierChangedEvent(id));
+    }
+
+    private List<SupplierDto> toDtos(List<SupplierRecord> records) {
+        return records.stream().map(SupplierRecord::toDto).collect(Collectors.toList());
     }
 
     private SupplierDto convertToDto(Supplier supplier) {
@@ -1,17 +1,28 @@
 package com.inventory.management.backend.service;
 
+import com.inventory.management.backend.analytics.SupplierAnalytics;
+import com.inventory.management.backend.cache.CatalogStore;
+import com.inventory.management.backend.cache.ProductRecord;
+import com.inventory.management.backend.dto.FieldSelection;
+import com.inventory.management.backend.dto.ScanTransactionRequest;
 import com.inventory.management.backend.dto.TransactionDto;
-import com.inventory.management.backend.dto.TransactionSummaryDto;
 import com.inventory.management.backend.entity.Product;
 import com.inventory.management.backend.entity.Supplier;
 import com.inventory.management.backend.entity.Transaction;
 import com.inventory.management.backend.entity.User;
+import com.inventory.management.backend.event.TransactionRecordedEvent;
 import com.inventory.management.backend.repository.ProductRepository;
+import com.inventory.management.backend.repository.SparseFieldset;
 import com.inventory.management.backend.repository.SupplierRepository;
 import com.inventory.management.backend.repository.TransactionRepository;
 import com.inventory.management.backend.repository.UserRepository;
+import com.inventory.management.backend.retry.RetryOnConflict;
+import com.inventory.management.backend.valuation.InventoryValuationService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +30,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -27,23 +42,61 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class TransactionService {
+    private static final SparseQueryService.Ordering<Transaction> BY_ID = (root, cb) -> cb.asc(root.get("id"));
+    private static final SparseQueryService.Ordering<Transaction> NEWEST_FIRST =
+            (root, cb) -> cb.desc(root.get("transactionDate"));
+
     private final TransactionRepository transactionRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final SupplierRepository supplierRepository;
+    private final StockCounterService stockCounterService;
+    private final InventoryValuationService inventoryValuationService;
+    private final SupplierAnalytics supplierAnalytics;
+    private final SparseQueryService sparseQueryService;
+    private final CatalogStore catalogStore;
+    private final ApplicationEventPublisher eventPublisher;
     private final ModelMapper modelMapper;
 
     public List<TransactionDto> getAllTransactions() {
-        return transactionRepository.findAll().stream()
+        return transactionRepository.findAllEffective().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Current version of a transaction: following replacements of the given id, empty
+     * once it has been reversed.
+     */
     public Optional<TransactionDto> getTransactionById(Long id) {
         return transactionRepository.findById(id)
+                .flatMap(this::effectiveVersion)
                 .map(this::convertToDto);
     }
 
+    /**
+     * Every journal entry of the correction chain the given id belongs to, oldest first.
+     */
+    public List<TransactionDto> getTransactionHistory(Long id) {
+        Transaction entry = transactionRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        while (entry.getCorrects() != null) {
+            entry = entry.getCorrects();
+        }
+
+        List<Transaction> history = new ArrayList<>();
+        Deque<Transaction> pending = new ArrayDeque<>(List.of(entry));
+        while (!pending.isEmpty()) {
+            Transaction next = pending.poll();
+            history.add(next);
+            pending.addAll(transactionRepository.findByCorrectsId(next.getId()));
+        }
+        history.sort(Comparator.comparing(Transaction::getId));
+        return history.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
     public List<TransactionDto> getTransactionsByProduct(Long productId) {
         return transactionRepository.findByProductIdOrderByTransactionDateDesc(productId).stream()
                 .map(this::convertToDto)
@@ -71,6 +124,35 @@ public class TransactionService {
                 .collect(Collectors.toList());
     }
 
+    public Object getAllTransactions(FieldSelection selection) {
+        return sparseQueryService.query(SparseFieldset.TRANSACTION, selection, SparseFieldset::effectiveTransaction, BY_ID);
+    }
+
+    public Object getTransactionsByProduct(Long productId, FieldSelection selection) {
+        return sparseQueryService.query(SparseFieldset.TRANSACTION, selection,
+                effective((root, query) -> query.builder().equal(root.get("product").get("id"), productId)), NEWEST_FIRST);
+    }
+
+    public Object getTransactionsByUser(Long userId, FieldSelection selection) {
+        return sparseQueryService.query(SparseFieldset.TRANSACTION, selection,
+                effective((root, query) -> query.builder().equal(root.get("user").get("id"), userId)), NEWEST_FIRST);
+    }
+
+    public Object getTransactionsByType(Transaction.TransactionType type, FieldSelection selection) {
+        return sparseQueryService.query(SparseFieldset.TRANSACTION, selection,
+                effective((root, query) -> query.builder().equal(root.get("type"), type)), NEWEST_FIRST);
+    }
+
+    public Object getTransactionsByDateRange(LocalDate startDate, LocalDate endDate, FieldSelection selection) {
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
+
+        return sparseQueryService.query(SparseFieldset.TRANSACTION, selection,
+                effective((root, query) -> query.builder().between(root.get("transactionDate"), startDateTime, endDateTime)),
+                NEWEST_FIRST);
+    }
+
+    @RetryOnConflict
     public TransactionDto createTransaction(TransactionDto transactionDto) {
         Product product = productRepository.findById(transactionDto.getProductId())
                 .orElseThrow(() -> new RuntimeException("Product not found"));
@@ -97,99 +179,198 @@ public class TransactionService {
             }
         }
 
-        // Validate stock for OUT transactions
-        if (transaction.getType() == Transaction.TransactionType.OUT) {
-            if (product.getStock() < transaction.getQuantity()) {
-                throw new RuntimeException("Insufficient stock. Available: " + product.getStock());
-            }
-        }
-
         Transaction savedTransaction = transactionRepository.save(transaction);
+        publishRecorded(savedTransaction);
 
-        // Update product stock
+        // Update product stock, OUT movements fail here when stock is insufficient
         updateProductStock(product, transaction);
+        inventoryValuationService.recordMovement(savedTransaction);
 
         return convertToDto(savedTransaction);
     }
 
-    public TransactionDto updateTransaction(Long id, TransactionDto transactionDto) {
-        Transaction existingTransaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
-
-        // Reverse the previous stock change
-        Product product = existingTransaction.getProduct();
-        reverseStockChange(product, existingTransaction);
+    /**
+     * Creates a transaction for a scanned SKU on behalf of the given user. The SKU is
+     * resolved case-insensitively against active products through the catalog store's
+     * SKU index, so the only queries are the ones the write itself needs.
+     */
+    @RetryOnConflict
+    public TransactionDto scanTransaction(ScanTransactionRequest request, Long userId) {
+        TransactionDto transactionDto = new TransactionDto();
+        transactionDto.setProductId(resolveSku(request.getSku()));
+        transactionDto.setType(request.getType());
+        transactionDto.setQuantity(request.getQuantity());
+        transactionDto.setUserId(userId);
+        transactionDto.setReferenceNumber(request.getReferenceNumber());
+        return createTransaction(transactionDto);
+    }
 
-        // Update transaction details
-        existingTransaction.setQuantity(transactionDto.getQuantity());
-        existingTransaction.setUnitPrice(transactionDto.getUnitPrice());
-        existingTransaction.setNotes(transactionDto.getNotes());
-        existingTransaction.setReferenceNumber(transactionDto.getReferenceNumber());
+    /**
+     * Corrects the current version of a transaction by appending a reversal of it and a
+     * replacement with the new values; the original entry is never modified.
+     */
+    @RetryOnConflict
+    public TransactionDto updateTransaction(Long id, TransactionDto transactionDto) {
+        Transaction current = currentVersion(id);
+        Product product = current.getProduct();
+
+        Transaction replacement = new Transaction();
+        replacement.setEntryKind(Transaction.EntryKind.REPLACEMENT);
+        replacement.setCorrects(current);
+        replacement.setProduct(product);
+        replacement.setType(current.getType());
+        replacement.setUser(current.getUser());
+        replacement.setSupplier(current.getSupplier());
+        replacement.setTransactionDate(current.getTransactionDate());
+        replacement.setQuantity(transactionDto.getQuantity());
+        replacement.setUnitPrice(transactionDto.getUnitPrice() != null
+                ? transactionDto.getUnitPrice()
+                : current.getUnitPrice());
+        replacement.setNotes(transactionDto.getNotes());
+        replacement.setReferenceNumber(transactionDto.getReferenceNumber());
 
         if (transactionDto.getSupplierId() != null) {
             Supplier supplier = supplierRepository.findById(transactionDto.getSupplierId())
                     .orElseThrow(() -> new RuntimeException("Supplier not found"));
-            existingTransaction.setSupplier(supplier);
-        }
-
-        // Validate stock for OUT transactions
-        if (existingTransaction.getType() == Transaction.TransactionType.OUT) {
-            if (product.getStock() < existingTransaction.getQuantity()) {
-                throw new RuntimeException("Insufficient stock. Available: " + product.getStock());
-            }
+            replacement.setSupplier(supplier);
         }
 
-        Transaction updatedTransaction = transactionRepository.save(existingTransaction);
+        append(reversalOf(current));
+        Transaction savedReplacement = append(replacement);
 
-        // Apply new stock change
-        updateProductStock(product, updatedTransaction);
+        // Apply only the net difference so the stock row or shard is written once
+        adjustStock(product, stockEffect(savedReplacement) - stockEffect(current));
+        inventoryValuationService.requestRebuild(product);
 
-        return convertToDto(updatedTransaction);
+        return convertToDto(savedReplacement);
     }
 
+    /**
+     * Cancels the current version of a transaction by appending a reversal of it.
+     */
+    @RetryOnConflict
     public void deleteTransaction(Long id) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        Transaction current = currentVersion(id);
+
+        append(reversalOf(current));
 
         // Reverse stock change
-        reverseStockChange(transaction.getProduct(), transaction);
+        reverseStockChange(current.getProduct(), current);
+        inventoryValuationService.requestRebuild(current.getProduct());
+    }
 
-        transactionRepository.delete(transaction);
+    private Long resolveSku(String sku) {
+        String scanned = sku.trim();
+        if (catalogStore.isLoaded()) {
+            ProductRecord product = catalogStore.getActiveProductBySku(scanned);
+            if (product != null) {
+                return product.id();
+            }
+        } else {
+            Optional<Product> product = productRepository.findFirstBySkuIgnoreCaseAndActiveTrue(scanned);
+            if (product.isPresent()) {
+                return product.get().getId();
+            }
+        }
+        throw new RuntimeException("No active product with SKU " + scanned);
     }
 
-    public List<TransactionSummaryDto> getTransactionSummary(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
+    private static SparseQueryService.Filter<Transaction> effective(SparseQueryService.Filter<Transaction> filter) {
+        return (root, query) -> query.builder().and(filter.toPredicate(root, query),
+                SparseFieldset.effectiveTransaction(root, query));
+    }
 
-        List<Object[]> results = transactionRepository.getTransactionSummaryByDateRange(startDateTime, endDateTime);
-        
-        return results.stream()
-                .map(this::convertToSummaryDto)
-                .collect(Collectors.toList());
+    private Transaction currentVersion(Long id) {
+        return transactionRepository.findById(id)
+                .flatMap(this::effectiveVersion)
+                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+    }
+
+    private Optional<Transaction> effectiveVersion(Transaction entry) {
+        if (entry.getEntryKind() == Transaction.EntryKind.REVERSAL) {
+            return Optional.empty();
+        }
+        Transaction current = entry;
+        while (true) {
+            List<Transaction> corrections = transactionRepository.findByCorrectsId(current.getId());
+            if (corrections.isEmpty()) {
+                return Optional.of(current);
+            }
+            Optional<Transaction> replacement = corrections.stream()
+                    .filter(correction -> correction.getEntryKind() == Transaction.EntryKind.REPLACEMENT)
+                    .findFirst();
+            if (replacement.isEmpty()) {
+                return Optional.empty();
+            }
+            current = replacement.get();
+        }
+    }
+
+    private Transaction reversalOf(Transaction entry) {
+        Transaction reversal = new Transaction();
+        reversal.setEntryKind(Transaction.EntryKind.REVERSAL);
+        reversal.setCorrects(entry);
+        reversal.setProduct(entry.getProduct());
+        reversal.setType(entry.getType());
+        reversal.setQuantity(entry.getQuantity());
+        reversal.setUnitPrice(entry.getUnitPrice());
+        reversal.setSupplier(entry.getSupplier());
+        reversal.setUser(entry.getUser());
+        reversal.setReferenceNumber(entry.getReferenceNumber());
+        reversal.setTransactionDate(entry.getTransactionDate());
+        return reversal;
+    }
+
+    private Transaction append(Transaction correction) {
+        try {
+            Transaction saved = transactionRepository.saveAndFlush(correction);
+            publishRecorded(saved);
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            // Another request corrected the same entry first; retrying re-reads the current version
+            throw new ObjectOptimisticLockingFailureException(Transaction.class, correction.getCorrects().getId(), e);
+        }
+    }
+
+    private void publishRecorded(Transaction transaction) {
+        Supplier supplier = transaction.getSupplier() != null
+                ? transaction.getSupplier()
+                : transaction.getProduct().getSupplier();
+        TransactionRecordedEvent event = new TransactionRecordedEvent(transaction.getId(),
+                transaction.getProduct().getId(), transaction.getUser().getId(),
+                supplier != null ? supplier.getId() : null, transaction.getType(),
+                transaction.getEntryKind() == Transaction.EntryKind.REVERSAL,
+                transaction.getQuantity(), transaction.getTotalPrice(), transaction.getTransactionDate());
+        // Supplier aggregates are adjusted in the same transaction as the entry
+        supplierAnalytics.record(event);
+        eventPublisher.publishEvent(event);
     }
 
     private void updateProductStock(Product product, Transaction transaction) {
-        int currentStock = product.getStock();
-        
         if (transaction.getType() == Transaction.TransactionType.IN) {
-            product.setStock(currentStock + transaction.getQuantity());
+            stockCounterService.increase(product, transaction.getQuantity());
         } else {
-            product.setStock(currentStock - transaction.getQuantity());
+            stockCounterService.decrease(product, transaction.getQuantity());
         }
-        
-        productRepository.save(product);
     }
 
     private void reverseStockChange(Product product, Transaction transaction) {
-        int currentStock = product.getStock();
-        
-        if (transaction.getType() == Transaction.TransactionType.IN) {
-            product.setStock(currentStock - transaction.getQuantity());
-        } else {
-            product.setStock(currentStock + transaction.getQuantity());
+        adjustStock(product, -stockEffect(transaction));
+    }
+
+    private void adjustStock(Product product, int delta) {
+        if (delta > 0) {
+            stockCounterService.increase(product, delta);
+        } else if (delta < 0) {
+            stockCounterService.decrease(product, -delta);
         }
-        
-        productRepository.save(product);
+    }
+
+    private int stockEffect(Transaction transaction) {
+        int effect = transaction.getType() == Transaction.TransactionType.IN
+                ? transaction.getQuantity()
+                : -transaction.getQuantity();
+        return transaction.getEntryKind() == Transaction.EntryKind.REVERSAL ? -effect : effect;
     }
 
     private TransactionDto convertToDto(Transaction transaction) {
@@ -203,6 +384,7 @@ public class TransactionService {
             dto.setSupplierId(transaction.getSupplier().getId());
             dto.setSupplierName(transaction.getSupplier().getName());
         }
+        dto.setCorrectsTransactionId(transaction.getCorrects() != null ? transaction.getCorrects().getId() : null);
         
         return dto;
     }
@@ -212,19 +394,10 @@ public class TransactionService {
         transaction.setProduct(null); // Will be set separately
         transaction.setUser(null); // Will be set separately
         transaction.setSupplier(null); // Will be set separately
+        transaction.setId(null);
+        transaction.setEntryKind(Transaction.EntryKind.ORIGINAL);
+        transaction.setCorrects(null);
+        transaction.setTransactionDate(null);
         return transaction;
     }
-
-    private TransactionSummaryDto convertToSummaryDto(Object[] result) {
-        TransactionSummaryDto dto = new TransactionSummaryDto();
-        dto.setDate(((java.sql.Date) result[0]).toLocalDate());
-        dto.setPeriod("DAILY");
-        dto.setTotalTransactions(((Number) result[1]).longValue());
-        dto.setInTransactions(((Number) result[2]).longValue());
-        dto.setOutTransactions(((Number) result[3]).longValue());
-        dto.setTotalInValue((BigDecimal) result[4]);
-        dto.setTotalOutValue((BigDecimal) result[5]);
-        dto.setNetValue(dto.getTotalInValue().subtract(dto.getTotalOutValue()));
-        return dto;
-    }
 }
@@ -2,9 +2,12 @@ package com.inventory.management.backend.service;
 
 import com.inventory.management.backend.dto.UserDto;
 import com.inventory.management.backend.entity.User;
+import com.inventory.management.backend.event.UserChangedEvent;
 import com.inventory.management.backend.repository.UserRepository;
+import com.inventory.management.backend.retry.RetryOnConflict;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +23,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final ModelMapper modelMapper;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
@@ -57,9 +61,11 @@ public class UserService {
         user.setActive(true);
         
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId()));
         return convertToDto(savedUser);
     }
 
+    @RetryOnConflict
     public UserDto updateUser(Long id, UserDto userDto) {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -89,14 +95,17 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(existingUser);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
         return convertToDto(updatedUser);
     }
 
+    @RetryOnConflict
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(false);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
     }
 
     public List<UserDto> getUsersByRole(User.Role role) {
@@ -0,0 +1,137 @@
+package com.inventory.management.backend.valuation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost state of one product: FIFO layers and a moving weighted-average unit cost. Issues
+ * beyond the layers on hand leave the quantity negative; the next receipts cover that
+ * shortfall first and only the rest becomes a layer, so the layers always add up to the
+ * positive part of the quantity.
+ */
+final class CostLedger {
+    private static final int COST_SCALE = 6;
+    private static final int VALUE_SCALE = 2;
+
+    private final long productId;
+    // Oldest first; fully issued layers stay until persisted so their rows can be deleted
+    private final List<Layer> layers;
+    private int head;
+    private int quantity;
+    private BigDecimal averageUnitCost;
+    private LocalDateTime lastMovementAt;
+
+    CostLedger(long productId, int quantity, BigDecimal averageUnitCost, LocalDateTime lastMovementAt,
+               List<Layer> layers) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.averageUnitCost = averageUnitCost;
+        this.lastMovementAt = lastMovementAt;
+        this.layers = new ArrayList<>(layers);
+    }
+
+    static CostLedger empty(long productId) {
+        return new CostLedger(productId, 0, BigDecimal.ZERO, null, List.of());
+    }
+
+    void receive(int amount, BigDecimal unitCost, Long sourceTransactionId, LocalDateTime at) {
+        if (quantity > 0) {
+            averageUnitCost = averageUnitCost.multiply(BigDecimal.valueOf(quantity))
+                    .add(unitCost.multiply(BigDecimal.valueOf(amount)))
+                    .divide(BigDecimal.valueOf((long) quantity + amount), COST_SCALE, RoundingMode.HALF_UP);
+        } else {
+            averageUnitCost = unitCost.setScale(COST_SCALE, RoundingMode.HALF_UP);
+        }
+        int layered = Math.min(amount, quantity + amount);
+        quantity += amount;
+        if (layered > 0) {
+            layers.add(new Layer(null, sourceTransactionId, at, layered, layered, unitCost));
+        }
+        moved(at);
+    }
+
+    void issue(int amount, LocalDateTime at) {
+        int remaining = amount;
+        while (remaining > 0 && head < layers.size()) {
+            Layer layer = layers.get(head);
+            int take = Math.min(layer.remaining, remaining);
+            layer.remaining -= take;
+            remaining -= take;
+            if (layer.remaining == 0) {
+                head++;
+            }
+        }
+        quantity -= amount;
+        moved(at);
+    }
+
+    long productId() {
+        return productId;
+    }
+
+    int quantity() {
+        return quantity;
+    }
+
+    BigDecimal averageUnitCost() {
+        return averageUnitCost;
+    }
+
+    BigDecimal averageValue() {
+        return averageUnitCost.multiply(BigDecimal.valueOf(Math.max(quantity, 0)))
+                .setScale(VALUE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    BigDecimal fifoValue() {
+        BigDecimal value = BigDecimal.ZERO;
+        for (int i = head; i < layers.size(); i++) {
+            Layer layer = layers.get(i);
+            value = value.add(layer.unitCost.multiply(BigDecimal.valueOf(layer.remaining)));
+        }
+        return value.setScale(VALUE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    LocalDateTime lastMovementAt() {
+        return lastMovementAt;
+    }
+
+    List<Layer> layers() {
+        return layers;
+    }
+
+    private void moved(LocalDateTime at) {
+        if (at != null && (lastMovementAt == null || at.isAfter(lastMovementAt))) {
+            lastMovementAt = at;
+        }
+    }
+
+    static final class Layer {
+        final Long id;
+        final Long sourceTransactionId;
+        final LocalDateTime receivedAt;
+        final int loadedRemaining;
+        final BigDecimal unitCost;
+        int remaining;
+
+        Layer(Long id, Long sourceTransactionId, LocalDateTime receivedAt, int loadedRemaining, int remaining,
+              BigDecimal unitCost) {
+            this.id = id;
+            this.sourceTransactionId = sourceTransactionId;
+            this.receivedAt = receivedAt;
+            this.loadedRemaining = loadedRemaining;
+            this.remaining = remaining;
+            this.unitCost = unitCost;
+        }
+
+        boolean isNew() {
+            return id == null;
+        }
+
+        boolean isChanged() {
+            return id != null && remaining != loadedRemaining;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.inventory.management.backend.valuation;
+
+import com.inventory.management.backend.entity.Product;
+import com.inventory.management.backend.entity.Transaction;
+import com.inventory.management.backend.entity.ValuationChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the cost of every product's stock precomputed under FIFO and moving weighted
+ * average. Receipts are costed at their transaction's unit price and issues at the cost
+ * of the stock they take.
+ * <p>
+ * Writers only queue what changed, in their own transaction and without touching the
+ * valuation rows, so movements of one product are not serialized by its valuation. The
+ * {@link ValuationFolder} folds queued changes in afterwards under each product's
+ * valuation row lock: new journal entries update the layers, while corrections, backdated
+ * entries and purchase price changes rebuild the product by replaying its effective
+ * journal in business order.
+ * <p>
+ * Stock that the journal does not explain, such as opening stock or a manual stock edit,
+ * is valued at the product's purchase price. A rebuild treats it as opening stock.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class InventoryValuationService {
+    private final ValuationStore store;
+
+    @Value("${inventory.valuation.method:FIFO}")
+    private Method method;
+
+    public enum Method {
+        FIFO, AVERAGE
+    }
+
+    /**
+     * Queues a new journal entry for valuation.
+     */
+    public void recordMovement(Transaction entry) {
+        store.enqueue(entry.getProduct().getId(), entry.getId(), ValuationChange.Kind.MOVEMENT);
+    }
+
+    /**
+     * Queues bringing the valuation in line with stock that was set without a journal entry.
+     */
+    public void requestReconcile(Product product) {
+        store.enqueue(product.getId(), null, ValuationChange.Kind.RECONCILE);
+    }
+
+    /**
+     * Queues a replay of the product's effective journal, for changes to its history or
+     * to the purchase price its unexplained stock is valued at.
+     */
+    public void requestRebuild(Product product) {
+        store.enqueue(product.getId(), null, ValuationChange.Kind.REBUILD);
+    }
+
+    /**
+     * Folds the queued changes of up to {@code limit} products, skipping products another
+     * fold holds. Returns the number of products folded.
+     */
+    public int fold(int limit) {
+        List<Long> candidates = store.pendingProducts(limit);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        Map<Long, ValuationStore.Locked> locked = store.tryLock(candidates);
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        List<Long> productIds = new ArrayList<>(locked.keySet());
+
+        Set<Long> rebuild = new HashSet<>();
+        Set<Long> reconcile = new HashSet<>();
+        List<Long> entryIds = new ArrayList<>();
+        locked.forEach((productId, row) -> {
+            if (row.created()) {
+                rebuild.add(productId);
+            }
+        });
+        for (ValuationStore.Change change : store.claim(productIds)) {
+            switch (change.kind()) {
+                case MOVEMENT -> entryIds.add(change.transactionId());
+                case RECONCILE -> reconcile.add(change.productId());
+                case REBUILD -> rebuild.add(change.productId());
+            }
+        }
+
+        // Entries corrected before they were folded are left to the correction's rebuild
+        Map<Long, List<ValuationStore.Movement>> movements = store.movements(entryIds);
+        reconcile.removeAll(rebuild);
+        Map<Long, ValuationStore.ProductState> stock = reconcile.isEmpty()
+                ? Map.of() : store.foldableStock(new ArrayList<>(reconcile));
+
+        List<CostLedger> ledgers = new ArrayList<>();
+        for (Long productId : productIds) {
+            if (rebuild.contains(productId)) {
+                continue;
+            }
+            ValuationStore.Locked row = locked.get(productId);
+            List<ValuationStore.Movement> entries = movements.getOrDefault(productId, List.of());
+            if (!entries.isEmpty() && row.lastMovementAt() != null
+                    && entries.get(0).at().isBefore(row.lastMovementAt())) {
+                rebuild.add(productId);
+                continue;
+            }
+            if (entries.isEmpty() && !stock.containsKey(productId)) {
+                continue;
+            }
+            CostLedger ledger = store.load(productId, row);
+            for (ValuationStore.Movement entry : entries) {
+                apply(ledger, entry.type(), entry.quantity(), entry.unitPrice(), entry.transactionId(), entry.at());
+            }
+            ValuationStore.ProductState state = stock.get(productId);
+            if (state != null) {
+                reconcile(ledger, state);
+            }
+            ledgers.add(ledger);
+        }
+        if (!ledgers.isEmpty()) {
+            store.save(ledgers);
+        }
+        if (!rebuild.isEmpty()) {
+            replay(store.history(productIds.stream().filter(rebuild::contains).toList()));
+        }
+        return productIds.size();
+    }
+
+    /**
+     * Replays the effective journal of a batch of products in one pass.
+     */
+    public int rebuild(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        store.lockAll(productIds);
+        return replay(store.history(productIds));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Valuation> getValuations(Collection<Long> productIds) {
+        return store.find(productIds);
+    }
+
+    public BigDecimal valueOf(Valuation valuation) {
+        return method == Method.AVERAGE ? valuation.averageValue() : valuation.fifoValue();
+    }
+
+    private static void reconcile(CostLedger ledger, ValuationStore.ProductState state) {
+        int delta = state.stock() - ledger.quantity();
+        if (delta > 0) {
+            ledger.receive(delta, state.priceIn(), null, LocalDateTime.now());
+        } else if (delta < 0) {
+            ledger.issue(-delta, LocalDateTime.now());
+        }
+    }
+
+    private int replay(List<ValuationStore.History> histories) {
+        List<CostLedger> ledgers = new ArrayList<>(histories.size());
+        for (ValuationStore.History history : histories) {
+            ValuationStore.ProductState product = history.product();
+            int net = 0;
+            for (ValuationStore.Movement movement : history.movements()) {
+                net += movement.type() == Transaction.TransactionType.IN ? movement.quantity() : -movement.quantity();
+            }
+
+            CostLedger ledger = CostLedger.empty(product.productId());
+            int opening = product.stock() - net;
+            if (opening > 0) {
+                ledger.receive(opening, product.priceIn(), null, product.createdAt());
+            }
+            // Movements still queued are left out here and folded in later like any new entry
+            for (ValuationStore.Movement movement : history.movements()) {
+                if (!movement.pending()) {
+                    apply(ledger, movement.type(), movement.quantity(),
+                            costOf(movement.unitPrice(), product.priceIn()), movement.transactionId(), movement.at());
+                }
+            }
+            if (opening < 0) {
+                // More left through the journal than the stock shows, e.g. after a manual stock edit
+                ledger.issue(-opening, null);
+            }
+            ledgers.add(ledger);
+        }
+
+        List<Long> productIds = ledgers.stream().map(CostLedger::productId).toList();
+        if (!productIds.isEmpty()) {
+            store.deleteLayers(productIds);
+            store.save(ledgers);
+        }
+        return ledgers.size();
+    }
+
+    private static void apply(CostLedger ledger, Transaction.TransactionType type, int quantity, BigDecimal unitCost,
+                              Long transactionId, LocalDateTime at) {
+        if (type == Transaction.TransactionType.IN) {
+            ledger.receive(quantity, unitCost, transactionId, at);
+        } else {
+            // The entry's unit price is the selling price, issues leave at the cost of the stock they take
+            ledger.issue(quantity, at);
+        }
+    }
+
+    private static BigDecimal costOf(BigDecimal unitPrice, BigDecimal priceIn) {
+        return unitPrice != null ? unitPrice : priceIn;
+    }
+}
@@ -0,0 +1,10 @@
+package com.inventory.management.backend.valuation;
+
+import java.math.BigDecimal;
+
+/**
+ * Precomputed cost of a product's stock under both methods.
+ */
+public record Valuation(long productId, int quantity, BigDecimal averageUnitCost, BigDecimal averageValue,
+                        BigDecimal fifoValue) {
+}
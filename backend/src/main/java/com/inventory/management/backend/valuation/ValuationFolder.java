@@ -0,0 +1,126 @@
+package com.inventory.management.backend.valuation;
+
+import com.inventory.management.backend.event.ProductChangedEvent;
+import com.inventory.management.backend.event.StockChangedEvent;
+import com.inventory.management.backend.event.TransactionRecordedEvent;
+import com.inventory.management.backend.workload.WorkloadClass;
+import com.inventory.management.backend.workload.WorkloadContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folds queued valuation changes in the background, a batch of products per transaction.
+ * Runs on every node; a product's valuation row lock keeps two folds off the same product
+ * and each fold skips products another one holds. Woken right after local commits,
+ * otherwise it checks every idle interval for changes queued by other nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ValuationFolder {
+    private final InventoryValuationService inventoryValuationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.valuation.fold.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.valuation.fold.batch-size:200}")
+    private int batchSize;
+
+    @Value("${inventory.valuation.fold.idle-ms:1000}")
+    private long idleMs;
+
+    private final Object signal = new Object();
+    private boolean signalled;
+    private volatile boolean running;
+    private Thread worker;
+    private Counter folded;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        folded = meterRegistry.counter("inventory.valuation.folded");
+        batchTimer = meterRegistry.timer("inventory.valuation.fold.batch");
+        running = true;
+        worker = new Thread(this::run, "valuation-folder");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        wakeUp();
+    }
+
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent event) {
+        wakeUp();
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        wakeUp();
+    }
+
+    public void wakeUp() {
+        synchronized (signal) {
+            signalled = true;
+            signal.notify();
+        }
+    }
+
+    private void run() {
+        // Background writes, kept off the pools requests wait on
+        WorkloadContext.set(WorkloadClass.BACKGROUND);
+        while (running) {
+            try {
+                // Keep going while there is work this node can take
+                int products;
+                do {
+                    long started = System.nanoTime();
+                    products = inventoryValuationService.fold(batchSize);
+                    if (products > 0) {
+                        folded.increment(products);
+                        batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    }
+                } while (running && products > 0);
+                synchronized (signal) {
+                    if (!signalled) {
+                        signal.wait(idleMs);
+                    }
+                    signalled = false;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Valuation fold failed, retrying in {} ms: {}", idleMs, e.getMessage());
+                try {
+                    Thread.sleep(idleMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.inventory.management.backend.valuation;
+
+import com.inventory.management.backend.jobs.ClusterJob;
+import com.inventory.management.backend.jobs.JobContext;
+import com.inventory.management.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rebuilds every product's valuation from the journal, a batch of products per
+ * transaction. Partitions run in parallel on all nodes. The first run builds the
+ * valuations of an existing catalog; later runs reconcile them against the journal.
+ */
+@Component
+@RequiredArgsConstructor
+public class ValuationRebuildJob implements ClusterJob {
+    public static final String NAME = "valuation-rebuild";
+
+    private final ProductRepository productRepository;
+    private final InventoryValuationService inventoryValuationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.valuation.rebuild.interval-ms:86400000}")
+    private long intervalMs;
+
+    @Value("${inventory.valuation.rebuild.partitions:8}")
+    private int partitions;
+
+    @Value("${inventory.valuation.rebuild.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.ofMillis(intervalMs);
+    }
+
+    @Override
+    public int partitions() {
+        return partitions;
+    }
+
+    @Override
+    public void run(JobContext context) {
+        while (!context.shouldStop()) {
+            List<Long> productIds = productRepository.findIdsInRange(context.checkpoint(), context.rangeEnd(),
+                    PageRequest.of(0, batchSize));
+            if (productIds.isEmpty()) {
+                return;
+            }
+            int rebuilt = inventoryValuationService.rebuild(productIds);
+            meterRegistry.counter("inventory.valuation.rebuilt").increment(rebuilt);
+            context.checkpoint(productIds.get(productIds.size() - 1));
+        }
+    }
+}
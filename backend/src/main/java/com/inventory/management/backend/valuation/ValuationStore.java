@@ -0,0 +1,293 @@
+package com.inventory.management.backend.valuation;
+
+import com.inventory.management.backend.entity.Transaction;
+import com.inventory.management.backend.entity.ValuationChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * product_valuations, cost_layers and the valuation_changes queue over plain JDBC, so
+ * folds and rebuilds write whole batches of products in a few statements.
+ */
+@Component
+@RequiredArgsConstructor
+class ValuationStore {
+    // Product ids are read in one pass over the whole table instead of an id list above this
+    private static final int SCAN_THRESHOLD = 10_000;
+
+    private static final String EFFECTIVE = "t.entry_kind <> 'REVERSAL' AND NOT EXISTS (SELECT 1 FROM transactions c "
+            + "WHERE c.corrects_transaction_id IS NOT NULL AND c.corrects_transaction_id = t.id)";
+
+    private static final String STOCK = "CASE WHEN p.stock_shards > 1 THEN COALESCE((SELECT SUM(s.quantity) "
+            + "FROM product_stock_shards s WHERE s.product_id = p.id), 0) ELSE p.stock END";
+
+    // One statement, so the stock and the journal come from the same snapshot
+    private static final String HISTORY = "WITH state AS (SELECT p.id, " + STOCK + " AS stock, p.price_in, "
+            + "p.created_at FROM products p WHERE p.id = ANY(?)) "
+            + "SELECT s.id, s.stock, s.price_in, s.created_at, t.id, t.type, t.quantity, t.unit_price, "
+            + "t.transaction_date, EXISTS (SELECT 1 FROM valuation_changes q WHERE q.transaction_id = t.id) "
+            + "FROM state s LEFT JOIN transactions t ON t.product_id = s.id AND " + EFFECTIVE
+            + " ORDER BY s.id, t.transaction_date, t.id";
+
+    private static final String MOVEMENTS = "SELECT t.product_id, t.id, t.type, t.quantity, "
+            + "COALESCE(t.unit_price, p.price_in), t.transaction_date FROM transactions t "
+            + "JOIN products p ON p.id = t.product_id WHERE t.id = ANY(?) AND " + EFFECTIVE
+            + " ORDER BY t.product_id, t.transaction_date, t.id";
+
+    // Stock less the queued movements not folded yet, again from one snapshot
+    private static final String FOLDABLE_STOCK = "SELECT p.id, " + STOCK + " - COALESCE((SELECT "
+            + "SUM(CASE WHEN t.type = 'IN' THEN t.quantity ELSE -t.quantity END) FROM valuation_changes q "
+            + "JOIN transactions t ON t.id = q.transaction_id WHERE q.product_id = p.id AND " + EFFECTIVE
+            + "), 0), p.price_in FROM products p WHERE p.id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    record Locked(boolean created, int quantity, BigDecimal averageUnitCost, LocalDateTime lastMovementAt) {
+    }
+
+    record ProductState(long productId, int stock, BigDecimal priceIn, LocalDateTime createdAt) {
+    }
+
+    // Pending while its queued change has not been folded yet
+    record Movement(long productId, long transactionId, Transaction.TransactionType type, int quantity,
+                    BigDecimal unitPrice, LocalDateTime at, boolean pending) {
+    }
+
+    record History(ProductState product, List<Movement> movements) {
+    }
+
+    record Change(long productId, Long transactionId, ValuationChange.Kind kind) {
+    }
+
+    void enqueue(long productId, Long transactionId, ValuationChange.Kind kind) {
+        jdbcTemplate.update("INSERT INTO valuation_changes (product_id, transaction_id, kind) VALUES (?, ?, ?)",
+                productId, transactionId, kind.name());
+    }
+
+    /**
+     * Products with queued changes, the longest waiting first.
+     */
+    List<Long> pendingProducts(int limit) {
+        return jdbcTemplate.queryForList("SELECT product_id FROM valuation_changes GROUP BY product_id "
+                + "ORDER BY MIN(id) LIMIT ?", Long.class, limit);
+    }
+
+    /**
+     * Locks the valuation rows of the products no one else holds, creating missing ones.
+     */
+    Map<Long, Locked> tryLock(List<Long> productIds) {
+        Long[] ids = productIds.stream().sorted().toArray(Long[]::new);
+        Set<Long> created = new HashSet<>(jdbcTemplate.query("INSERT INTO product_valuations (product_id, "
+                + "quantity, average_unit_cost, average_value, fifo_value, updated_at) SELECT id, 0, 0, 0, 0, now() "
+                + "FROM unnest(?) AS id ORDER BY id ON CONFLICT (product_id) DO NOTHING RETURNING product_id",
+                ps -> ps.setArray(1, bigints(ps, ids)), (rs, rowNum) -> rs.getLong(1)));
+        Map<Long, Locked> locked = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT product_id, quantity, average_unit_cost, last_movement_at FROM product_valuations "
+                + "WHERE product_id = ANY(?) ORDER BY product_id FOR UPDATE SKIP LOCKED",
+                ps -> ps.setArray(1, bigints(ps, ids)), rs -> {
+                    locked.put(rs.getLong(1), new Locked(created.contains(rs.getLong(1)), rs.getInt(2),
+                            rs.getBigDecimal(3), rs.getObject(4, LocalDateTime.class)));
+                });
+        return locked;
+    }
+
+    /**
+     * Takes every committed change of the products off the queue; their valuation rows must
+     * be locked.
+     */
+    List<Change> claim(List<Long> productIds) {
+        return jdbcTemplate.query("DELETE FROM valuation_changes WHERE product_id = ANY(?) "
+                + "RETURNING product_id, transaction_id, kind",
+                ps -> ps.setArray(1, bigints(ps, productIds.toArray(Long[]::new))),
+                (rs, rowNum) -> new Change(rs.getLong(1), (Long) rs.getObject(2),
+                        ValuationChange.Kind.valueOf(rs.getString(3))));
+    }
+
+    /**
+     * The entries that are still effective, grouped by product in business order, costed
+     * at the purchase price where they have no unit price.
+     */
+    Map<Long, List<Movement>> movements(List<Long> transactionIds) {
+        Map<Long, List<Movement>> movements = new HashMap<>();
+        if (transactionIds.isEmpty()) {
+            return movements;
+        }
+        jdbcTemplate.query(MOVEMENTS, ps -> ps.setArray(1, bigints(ps, transactionIds.toArray(Long[]::new))),
+                rs -> {
+                    Movement movement = new Movement(rs.getLong(1), rs.getLong(2),
+                            Transaction.TransactionType.valueOf(rs.getString(3)), rs.getInt(4), rs.getBigDecimal(5),
+                            rs.getObject(6, LocalDateTime.class), false);
+                    movements.computeIfAbsent(movement.productId(), id -> new ArrayList<>()).add(movement);
+                });
+        return movements;
+    }
+
+    /**
+     * Current stock and purchase price per product, the stock less its queued movements.
+     */
+    Map<Long, ProductState> foldableStock(List<Long> productIds) {
+        Map<Long, ProductState> states = new HashMap<>();
+        jdbcTemplate.query(FOLDABLE_STOCK, ps -> ps.setArray(1, bigints(ps, productIds.toArray(Long[]::new))),
+                rs -> {
+                    states.put(rs.getLong(1), new ProductState(rs.getLong(1), rs.getInt(2), rs.getBigDecimal(3),
+                            null));
+                });
+        return states;
+    }
+
+    /**
+     * Locks the valuation rows of several products in id order, creating missing ones.
+     */
+    void lockAll(List<Long> productIds) {
+        Long[] ids = productIds.stream().sorted().toArray(Long[]::new);
+        jdbcTemplate.update("INSERT INTO product_valuations (product_id, quantity, average_unit_cost, "
+                + "average_value, fifo_value, updated_at) SELECT id, 0, 0, 0, 0, now() FROM unnest(?) AS id "
+                + "ORDER BY id ON CONFLICT (product_id) DO NOTHING", ps -> ps.setArray(1, bigints(ps, ids)));
+        jdbcTemplate.query("SELECT product_id FROM product_valuations WHERE product_id = ANY(?) "
+                + "ORDER BY product_id FOR UPDATE", ps -> ps.setArray(1, bigints(ps, ids)), rs -> {
+        });
+    }
+
+    CostLedger load(long productId, Locked locked) {
+        List<CostLedger.Layer> layers = jdbcTemplate.query("SELECT id, source_transaction_id, received_at, "
+                + "remaining_quantity, unit_cost FROM cost_layers WHERE product_id = ? ORDER BY received_at, id",
+                (rs, rowNum) -> new CostLedger.Layer(rs.getLong(1), (Long) rs.getObject(2),
+                        rs.getObject(3, LocalDateTime.class), rs.getInt(4), rs.getInt(4), rs.getBigDecimal(5)),
+                productId);
+        return new CostLedger(productId, locked.quantity(), locked.averageUnitCost(), locked.lastMovementAt(), layers);
+    }
+
+    /**
+     * Stock, purchase price and effective journal of each product in business order.
+     */
+    List<History> history(List<Long> productIds) {
+        List<History> histories = new ArrayList<>(productIds.size());
+        jdbcTemplate.query(HISTORY, ps -> ps.setArray(1, bigints(ps, productIds.toArray(Long[]::new))), rs -> {
+            long productId = rs.getLong(1);
+            if (histories.isEmpty() || histories.get(histories.size() - 1).product().productId() != productId) {
+                histories.add(new History(new ProductState(productId, rs.getInt(2), rs.getBigDecimal(3),
+                        rs.getObject(4, LocalDateTime.class)), new ArrayList<>()));
+            }
+            if (rs.getObject(5) != null) {
+                histories.get(histories.size() - 1).movements().add(new Movement(productId, rs.getLong(5),
+                        Transaction.TransactionType.valueOf(rs.getString(6)), rs.getInt(7), rs.getBigDecimal(8),
+                        rs.getObject(9, LocalDateTime.class), rs.getBoolean(10)));
+            }
+        });
+        return histories;
+    }
+
+    void deleteLayers(List<Long> productIds) {
+        jdbcTemplate.update("DELETE FROM cost_layers WHERE product_id = ANY(?)",
+                ps -> ps.setArray(1, bigints(ps, productIds.toArray(Long[]::new))));
+    }
+
+    /**
+     * Writes the ledgers' layer changes and valuation rows; the rows must be locked. Each
+     * kind of change goes out as one statement over arrays, whatever the batch size.
+     */
+    void save(List<CostLedger> ledgers) {
+        List<Long> deletes = new ArrayList<>();
+        List<Long> updatedIds = new ArrayList<>();
+        List<Integer> updatedRemaining = new ArrayList<>();
+        List<CostLedger.Layer> inserts = new ArrayList<>();
+        List<Long> insertProductIds = new ArrayList<>();
+        for (CostLedger ledger : ledgers) {
+            for (CostLedger.Layer layer : ledger.layers()) {
+                if (layer.isNew() && layer.remaining > 0) {
+                    inserts.add(layer);
+                    insertProductIds.add(ledger.productId());
+                } else if (layer.isChanged() && layer.remaining == 0) {
+                    deletes.add(layer.id);
+                } else if (layer.isChanged()) {
+                    updatedIds.add(layer.id);
+                    updatedRemaining.add(layer.remaining);
+                }
+            }
+        }
+
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM cost_layers WHERE id = ANY(?)",
+                    ps -> ps.setArray(1, bigints(ps, deletes.toArray(Long[]::new))));
+        }
+        if (!updatedIds.isEmpty()) {
+            jdbcTemplate.update("UPDATE cost_layers l SET remaining_quantity = u.remaining "
+                    + "FROM unnest(?, ?) AS u(id, remaining) WHERE l.id = u.id", ps -> {
+                ps.setArray(1, bigints(ps, updatedIds.toArray(Long[]::new)));
+                ps.setArray(2, ps.getConnection().createArrayOf("integer", updatedRemaining.toArray()));
+            });
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO cost_layers (product_id, source_transaction_id, received_at, "
+                    + "remaining_quantity, unit_cost) SELECT * FROM unnest(?, ?, ?, ?, ?)", ps -> {
+                ps.setArray(1, bigints(ps, insertProductIds.toArray(Long[]::new)));
+                ps.setArray(2, bigints(ps, inserts.stream().map(layer -> layer.sourceTransactionId)
+                        .toArray(Long[]::new)));
+                ps.setArray(3, ps.getConnection().createArrayOf("timestamp", inserts.stream()
+                        .map(layer -> layer.receivedAt != null ? Timestamp.valueOf(layer.receivedAt) : null)
+                        .toArray()));
+                ps.setArray(4, ps.getConnection().createArrayOf("integer", inserts.stream()
+                        .map(layer -> layer.remaining).toArray()));
+                ps.setArray(5, ps.getConnection().createArrayOf("numeric", inserts.stream()
+                        .map(layer -> layer.unitCost).toArray()));
+            });
+        }
+        jdbcTemplate.update("UPDATE product_valuations v SET quantity = u.quantity, "
+                + "average_unit_cost = u.average_unit_cost, average_value = u.average_value, "
+                + "fifo_value = u.fifo_value, last_movement_at = u.last_movement_at, updated_at = now() "
+                + "FROM unnest(?, ?, ?, ?, ?, ?) AS u(product_id, quantity, average_unit_cost, average_value, "
+                + "fifo_value, last_movement_at) WHERE v.product_id = u.product_id", ps -> {
+            ps.setArray(1, bigints(ps, ledgers.stream().map(CostLedger::productId).toArray(Long[]::new)));
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", ledgers.stream()
+                    .map(CostLedger::quantity).toArray()));
+            ps.setArray(3, ps.getConnection().createArrayOf("numeric", ledgers.stream()
+                    .map(CostLedger::averageUnitCost).toArray()));
+            ps.setArray(4, ps.getConnection().createArrayOf("numeric", ledgers.stream()
+                    .map(CostLedger::averageValue).toArray()));
+            ps.setArray(5, ps.getConnection().createArrayOf("numeric", ledgers.stream()
+                    .map(CostLedger::fifoValue).toArray()));
+            ps.setArray(6, ps.getConnection().createArrayOf("timestamp", ledgers.stream()
+                    .map(ledger -> ledger.lastMovementAt() != null ? Timestamp.valueOf(ledger.lastMovementAt()) : null)
+                    .toArray()));
+        });
+    }
+
+    Map<Long, Valuation> find(Collection<Long> productIds) {
+        String select = "SELECT product_id, quantity, average_unit_cost, average_value, fifo_value "
+                + "FROM product_valuations";
+        Map<Long, Valuation> valuations = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return valuations;
+        }
+        RowCallbackHandler collect = rs -> valuations.put(rs.getLong(1), new Valuation(rs.getLong(1), rs.getInt(2),
+                rs.getBigDecimal(3), rs.getBigDecimal(4), rs.getBigDecimal(5)));
+        if (productIds.size() > SCAN_THRESHOLD) {
+            jdbcTemplate.query(select, collect);
+        } else {
+            jdbcTemplate.query(select + " WHERE product_id = ANY(?)",
+                    ps -> ps.setArray(1, bigints(ps, productIds.toArray(Long[]::new))), collect);
+        }
+        return valuations;
+    }
+
+    private static Array bigints(PreparedStatement ps, Long[] ids) throws SQLException {
+        return ps.getConnection().createArrayOf("bigint", ids);
+    }
+}
@@ -0,0 +1,16 @@
+package com.inventory.management.backend.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose response only depends on the product catalog, so it can be
+ * answered with 304 Not Modified from the in-memory catalog version, before the
+ * handler touches the database.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CatalogETag {
+}
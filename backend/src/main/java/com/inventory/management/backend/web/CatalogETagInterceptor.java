@@ -0,0 +1,41 @@
+package com.inventory.management.backend.web;
+
+import com.inventory.management.backend.service.CatalogVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Objects;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogETagInterceptor implements HandlerInterceptor {
+    private static final String ABC_FILTER = "abc";
+    private static final String XYZ_FILTER = "xyz";
+
+    private final CatalogVersionService catalogVersionService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !method.hasMethodAnnotation(CatalogETag.class)) {
+            return true;
+        }
+        // Class filters read product_classifications, which the catalog version does not cover
+        if (request.getParameter(ABC_FILTER) != null || request.getParameter(XYZ_FILTER) != null) {
+            return true;
+        }
+
+        // JSON, CBOR and Smile bodies of the same version are different representations
+        String representation = Integer.toHexString(Objects.hashCode(request.getHeader(HttpHeaders.ACCEPT)));
+        String etag = "\"" + catalogVersionService.getVersion() + "-" + representation + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,23 @@
+package com.inventory.management.backend.web;
+
+import com.inventory.management.backend.dto.FieldSelection;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Function;
+
+/**
+ * Answers a list endpoint that takes {@code fields=} and {@code layout=}; an unknown field
+ * or layout is a bad request.
+ */
+public final class SparseResponses {
+    private SparseResponses() {
+    }
+
+    public static ResponseEntity<?> of(String fields, String layout, Function<FieldSelection, Object> query) {
+        try {
+            return ResponseEntity.ok(query.apply(FieldSelection.of(fields, layout)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+}
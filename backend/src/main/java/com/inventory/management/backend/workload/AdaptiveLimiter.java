@@ -0,0 +1,191 @@
+package com.inventory.management.backend.workload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-wide concurrency limit that adapts to observed latency (AIMD). Each workload
+ * class collects its latencies in a window; when the window's {@code latency-percentile}
+ * is above the class's target latency the limit is cut by {@code backoff-ratio}, and
+ * when it is within target while the server was busy the limit grows by {@code 1/limit}
+ * per request in the window. One slow request therefore moves nothing on its own.
+ * Each class may only fill its share of the limit, so as the limit shrinks reports are
+ * turned away first, then reads, and writes last.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdaptiveLimiter {
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.admission.initial-limit:64}")
+    private int initialLimit;
+
+    @Value("${inventory.admission.min-limit:8}")
+    private int minLimit;
+
+    @Value("${inventory.admission.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${inventory.admission.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${inventory.admission.latency-percentile:0.9}")
+    private double latencyPercentile;
+
+    @Value("${inventory.admission.window-samples:100}")
+    private int windowSamples;
+
+    @Value("${inventory.admission.min-samples:10}")
+    private int minSamples;
+
+    @Value("${inventory.admission.window-ms:1000}")
+    private long windowMs;
+
+    private final Map<WorkloadClass, Group> groups = new EnumMap<>(WorkloadClass.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private boolean decreased;
+    private long lastDecreaseNanos;
+
+    @PostConstruct
+    void start() {
+        limit = initialLimit;
+        Gauge.builder("inventory.admission.capacity", this, AdaptiveLimiter::getLimit).register(meterRegistry);
+
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            if (!workload.admitsRequests()) {
+                continue;
+            }
+            String prefix = "inventory.admission." + workload.key() + ".";
+            Group group = new Group(
+                    environment.getRequiredProperty(prefix + "share", Double.class),
+                    TimeUnit.MILLISECONDS.toNanos(environment.getRequiredProperty(prefix + "target-latency-ms", Long.class)),
+                    Counter.builder("inventory.admission.rejected").tag("workload", workload.key()).register(meterRegistry),
+                    windowSamples);
+            groups.put(workload, group);
+
+            Gauge.builder("inventory.admission.limit", this, limiter -> limiter.allowed(group))
+                    .tag("workload", workload.key())
+                    .register(meterRegistry);
+            Gauge.builder("inventory.admission.inflight", group.inFlight, AtomicInteger::get)
+                    .tag("workload", workload.key())
+                    .register(meterRegistry);
+            Gauge.builder("inventory.admission.latency", group, g -> g.percentileNanos / 1e6)
+                    .tag("workload", workload.key())
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public boolean tryAcquire(WorkloadClass workload) {
+        Group group = groups.get(workload);
+        int allowed = allowed(group);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                group.rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                group.inFlight.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends an admitted request. Only requests that did real work should be passed as
+     * samples; a request rejected further down says nothing about the server's latency.
+     */
+    public void release(WorkloadClass workload, long latencyNanos, boolean sample) {
+        Group group = groups.get(workload);
+        int wasInFlight = inFlight.getAndDecrement();
+        group.inFlight.decrementAndGet();
+        if (sample) {
+            adjust(group, latencyNanos, wasInFlight);
+        }
+    }
+
+    private synchronized void adjust(Group group, long latencyNanos, int wasInFlight) {
+        long now = System.nanoTime();
+        if (decreased && now - latencyNanos - lastDecreaseNanos < 0) {
+            // Admitted under the limit before the last cut, it says nothing about the current one
+            return;
+        }
+        if (group.count == 0) {
+            group.windowStartedNanos = now;
+        }
+        group.window[group.count++] = latencyNanos;
+        group.peakInFlight = Math.max(group.peakInFlight, wasInFlight);
+        boolean windowClosed = group.count == group.window.length
+                || (group.count >= minSamples && now - group.windowStartedNanos >= TimeUnit.MILLISECONDS.toNanos(windowMs));
+        if (!windowClosed) {
+            return;
+        }
+
+        group.percentileNanos = group.percentile(latencyPercentile);
+        if (group.percentileNanos > group.targetLatencyNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            decreased = true;
+            lastDecreaseNanos = now;
+            groups.values().forEach(Group::clear);
+        } else {
+            // Only grow while the limit is actually being used
+            if (group.peakInFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + group.count / limit);
+            }
+            group.clear();
+        }
+    }
+
+    private int allowed(Group group) {
+        return Math.max(1, (int) (limit * group.share));
+    }
+
+    private static final class Group {
+        private final double share;
+        private final long targetLatencyNanos;
+        private final Counter rejected;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final long[] window;
+        private int count;
+        private long windowStartedNanos;
+        private int peakInFlight;
+        private double percentileNanos;
+
+        private Group(double share, long targetLatencyNanos, Counter rejected, int windowSamples) {
+            this.share = share;
+            this.targetLatencyNanos = targetLatencyNanos;
+            this.rejected = rejected;
+            this.window = new long[windowSamples];
+        }
+
+        private long percentile(double quantile) {
+            long[] sorted = Arrays.copyOf(window, count);
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, (int) Math.ceil(quantile * count) - 1)];
+        }
+
+        private void clear() {
+            count = 0;
+            peakInFlight = 0;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.inventory.management.backend.workload;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load before authentication: requests beyond the {@link AdaptiveLimiter}'s limit
+ * for their workload class get 503 at once instead of queueing until they time out.
+ */
+@RequiredArgsConstructor
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private final AdaptiveLimiter limiter;
+    private final WorkloadClassifier workloadClassifier;
+    private final boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        WorkloadClass workload = workloadClassifier.classify(request);
+        if (!limiter.tryAcquire(workload)) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Error: Server is overloaded, please retry later");
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            // Streams and bulkhead rejections carry no latency signal
+            boolean sample = completed && !request.isAsyncStarted()
+                    && response.getStatus() != HttpStatus.SERVICE_UNAVAILABLE.value();
+            limiter.release(workload, System.nanoTime() - started, sample);
+        }
+    }
+}
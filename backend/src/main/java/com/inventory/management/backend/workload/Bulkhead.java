@@ -0,0 +1,96 @@
+package com.inventory.management.backend.workload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit of one {@link WorkloadClass}: up to {@code maxConcurrent} requests run,
+ * up to {@code queueSize} more wait at most {@code queueTimeoutMs} for a slot, and
+ * everything beyond that is turned away at once.
+ */
+public class Bulkhead {
+    private final WorkloadClass workload;
+    private final int maxConcurrent;
+    private final int queueSize;
+    private final long queueTimeoutMs;
+    private final int retryAfterSeconds;
+
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer queueWait;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public Bulkhead(WorkloadClass workload, int maxConcurrent, int queueSize, long queueTimeoutMs,
+                    int retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.workload = workload;
+        this.maxConcurrent = maxConcurrent;
+        this.queueSize = queueSize;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.permits = new Semaphore(maxConcurrent);
+
+        String tag = workload.key();
+        Gauge.builder("inventory.bulkhead.active", this, Bulkhead::active).tag("workload", tag).register(meterRegistry);
+        Gauge.builder("inventory.bulkhead.queued", queued, AtomicInteger::get).tag("workload", tag).register(meterRegistry);
+        Gauge.builder("inventory.bulkhead.limit", this, bulkhead -> bulkhead.maxConcurrent)
+                .tag("workload", tag)
+                .register(meterRegistry);
+        queueWait = Timer.builder("inventory.bulkhead.queue.wait").tag("workload", tag).register(meterRegistry);
+        rejectedQueueFull = Counter.builder("inventory.bulkhead.rejected")
+                .tag("workload", tag).tag("reason", "queue_full")
+                .register(meterRegistry);
+        rejectedTimeout = Counter.builder("inventory.bulkhead.rejected")
+                .tag("workload", tag).tag("reason", "timeout")
+                .register(meterRegistry);
+    }
+
+    public boolean tryEnter() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > queueSize) {
+            queued.decrementAndGet();
+            rejectedQueueFull.increment();
+            return false;
+        }
+
+        long started = System.nanoTime();
+        try {
+            if (permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            rejectedTimeout.increment();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejectedTimeout.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+            queueWait.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public WorkloadClass getWorkload() {
+        return workload;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
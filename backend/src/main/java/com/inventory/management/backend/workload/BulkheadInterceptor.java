@@ -0,0 +1,96 @@
+package com.inventory.management.backend.workload;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admits each request through the {@link Bulkhead} of its workload class and binds the
+ * class to the thread for connection routing. A saturated class answers 503 with
+ * Retry-After right away instead of tying up a server thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+    private static final String BULKHEAD_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".bulkhead";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<WorkloadClass, Bulkhead> bulkheads = new EnumMap<>(WorkloadClass.class);
+
+    @PostConstruct
+    void start() {
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            if (!workload.admitsRequests()) {
+                continue;
+            }
+            String prefix = "inventory.workload." + workload.key() + ".";
+            bulkheads.put(workload, new Bulkhead(workload,
+                    environment.getRequiredProperty(prefix + "max-concurrent", Integer.class),
+                    environment.getRequiredProperty(prefix + "queue-size", Integer.class),
+                    environment.getRequiredProperty(prefix + "queue-timeout-ms", Long.class),
+                    environment.getRequiredProperty(prefix + "retry-after-seconds", Integer.class),
+                    meterRegistry));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // Async redispatches only render a result, the admission happened on the first dispatch
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+
+        WorkloadClass workload = WorkloadClassifier.classify(method, request);
+        Bulkhead bulkhead = bulkheads.get(workload);
+        if (!bulkhead.tryEnter()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(bulkhead.getRetryAfterSeconds()));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Error: Too many " + workload.key() + " requests, please retry later");
+            return false;
+        }
+
+        request.setAttribute(BULKHEAD_ATTRIBUTE, bulkhead);
+        WorkloadContext.set(workload);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // Streaming responses hand the thread back here, they must not hold a slot for their lifetime
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        Bulkhead bulkhead = (Bulkhead) request.getAttribute(BULKHEAD_ATTRIBUTE);
+        if (bulkhead != null) {
+            request.removeAttribute(BULKHEAD_ATTRIBUTE);
+            bulkhead.exit();
+        }
+        WorkloadContext.clear();
+    }
+}
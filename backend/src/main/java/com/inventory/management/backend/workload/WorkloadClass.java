@@ -0,0 +1,37 @@
+package com.inventory.management.backend.workload;
+
+import java.util.Locale;
+
+/**
+ * Kinds of work that get their own concurrency limit and connection pool, so a burst of
+ * one kind cannot take the threads or connections another kind needs.
+ */
+public enum WorkloadClass {
+    // Stock movements and other writes, e.g. scanner POST /transactions
+    WRITE(true),
+    // Interactive lookups and lists
+    READ(true),
+    // Large scans and exports
+    REPORT(true),
+    // Cluster jobs, the valuation folder and queued report jobs
+    BACKGROUND(false),
+    // Catalog refreshes a committing thread runs while it still holds its own connection
+    REFRESH(false);
+
+    private final boolean admitsRequests;
+
+    WorkloadClass(boolean admitsRequests) {
+        this.admitsRequests = admitsRequests;
+    }
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Whether requests can be of this class, so it needs a bulkhead and an admission share.
+     */
+    public boolean admitsRequests() {
+        return admitsRequests;
+    }
+}
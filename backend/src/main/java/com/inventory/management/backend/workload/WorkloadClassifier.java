@@ -0,0 +1,66 @@
+package com.inventory.management.backend.workload;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.RequestPath;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+/**
+ * Decides the {@link WorkloadClass} of a request: {@link Workload} on the handler method
+ * or its controller, otherwise read for GET and HEAD and write for everything else.
+ */
+@Component
+public class WorkloadClassifier {
+    private final HandlerMapping handlerMapping;
+
+    public WorkloadClassifier(@Qualifier("requestMappingHandlerMapping") HandlerMapping handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    public static WorkloadClass classify(HandlerMethod method, HttpServletRequest request) {
+        Workload workload = method.getMethodAnnotation(Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), Workload.class);
+        }
+        return workload != null ? workload.value() : byHttpMethod(request);
+    }
+
+    /**
+     * Classifies a request before it reaches the dispatcher, e.g. from a servlet filter,
+     * by looking up the handler it will be mapped to.
+     */
+    public WorkloadClass classify(HttpServletRequest request) {
+        RequestPath previousPath = ServletRequestPathUtils.hasParsedRequestPath(request)
+                ? ServletRequestPathUtils.getParsedRequestPath(request)
+                : null;
+        try {
+            ServletRequestPathUtils.parseAndCache(request);
+            HandlerExecutionChain chain = handlerMapping.getHandler(request);
+            if (chain != null && chain.getHandler() instanceof HandlerMethod method) {
+                return classify(method, request);
+            }
+        } catch (Exception e) {
+            // Unmapped or invalid requests fail later in the dispatcher, classify them by method
+        } finally {
+            if (previousPath != null) {
+                ServletRequestPathUtils.setParsedRequestPath(previousPath, request);
+            } else {
+                ServletRequestPathUtils.clearParsedRequestPath(request);
+            }
+        }
+        return byHttpMethod(request);
+    }
+
+    private static WorkloadClass byHttpMethod(HttpServletRequest request) {
+        String httpMethod = request.getMethod();
+        return HttpMethod.GET.matches(httpMethod) || HttpMethod.HEAD.matches(httpMethod)
+                ? WorkloadClass.READ
+                : WorkloadClass.WRITE;
+    }
+}
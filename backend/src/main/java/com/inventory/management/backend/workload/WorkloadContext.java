@@ -0,0 +1,24 @@
+package com.inventory.management.backend.workload;
+
+/**
+ * Workload class of the work running on the current thread, used to pick its
+ * connection pool.
+ */
+public final class WorkloadContext {
+    private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static WorkloadClass current() {
+        return CURRENT.get();
+    }
+
+    public static void set(WorkloadClass workload) {
+        CURRENT.set(workload);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
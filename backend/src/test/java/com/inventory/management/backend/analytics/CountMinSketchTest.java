@@ -0,0 +1,79 @@
+package com.inventory.management.backend.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CountMinSketchTest {
+    private static final int WIDTH = 256;
+    private static final int DEPTH = 4;
+
+    @Test
+    void neverUndercountsAndRarelyOvercountsBeyondTheBound() {
+        CountMinSketch sketch = new CountMinSketch(WIDTH, DEPTH);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        long total = 0;
+        for (int i = 0; i < 50_000; i++) {
+            // Skewed like stock movements: a few keys take most of the weight
+            long key = (long) Math.floor(Math.pow(random.nextDouble(), 3) * 5_000);
+            long weight = 1 + random.nextInt(10);
+            sketch.add(key, weight);
+            exact.merge(key, weight, Long::sum);
+            total += weight;
+        }
+
+        long bound = (long) Math.ceil(sketch.relativeError() * total);
+        int overBound = 0;
+        for (Map.Entry<Long, Long> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertThat(estimate).isGreaterThanOrEqualTo(entry.getValue());
+            if (estimate - entry.getValue() > bound) {
+                overBound++;
+            }
+        }
+        assertThat((double) overBound / exact.size()).isLessThanOrEqualTo(Math.exp(-DEPTH));
+    }
+
+    @Test
+    void negativeWeightsCancelEarlierIncrements() {
+        CountMinSketch sketch = new CountMinSketch(WIDTH, DEPTH);
+        sketch.add(7, 10);
+        sketch.add(7, -4);
+
+        assertThat(sketch.estimate(7)).isEqualTo(6);
+    }
+
+    @Test
+    void mergingAndUnmergingIsExact() {
+        CountMinSketch window = new CountMinSketch(WIDTH, DEPTH);
+        CountMinSketch bucket = new CountMinSketch(WIDTH, DEPTH);
+        for (long key = 0; key < 1_000; key++) {
+            window.add(key, key % 7);
+            bucket.add(key * 31, 3);
+        }
+        long[] before = new long[1_000];
+        for (int key = 0; key < before.length; key++) {
+            before[key] = window.estimate(key);
+        }
+
+        window.merge(bucket, 1);
+        assertThat(window.estimate(31)).isGreaterThanOrEqualTo(3 + 31 % 7);
+        window.merge(bucket, -1);
+
+        for (int key = 0; key < before.length; key++) {
+            assertThat(window.estimate(key)).isEqualTo(before[key]);
+        }
+    }
+
+    @Test
+    void rejectsAWidthThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new CountMinSketch(1000, DEPTH)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CountMinSketch(WIDTH, 9)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
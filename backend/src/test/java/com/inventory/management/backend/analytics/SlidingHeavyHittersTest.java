@@ -0,0 +1,75 @@
+package com.inventory.management.backend.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingHeavyHittersTest {
+    private static final long BUCKET = 1_000;
+
+    private final SlidingHeavyHitters hitters = new SlidingHeavyHitters(BUCKET, 3, 16, 1024, 4);
+
+    @Test
+    void ranksByWeightAcrossBucketsAndBreaksTiesByKey() {
+        hitters.add(3, 5, 0, 0);
+        hitters.add(1, 7, 1_000, 1_000);
+        hitters.add(3, 4, 2_000, 2_000);
+        hitters.add(2, 7, 2_500, 2_500);
+
+        SlidingHeavyHitters.Result result = hitters.top(2, 2_500);
+
+        assertThat(result.top()).containsExactly(
+                new SlidingHeavyHitters.Estimate(3, 9), new SlidingHeavyHitters.Estimate(1, 7));
+        assertThat(result.windowTotal()).isEqualTo(23);
+    }
+
+    @Test
+    void bucketsLeaveTheWindowOnceTheyAreBucketCountOld() {
+        hitters.add(1, 10, 0, 0);
+        hitters.add(2, 5, 2_500, 2_500);
+
+        assertThat(hitters.top(5, 2_999).top()).extracting(SlidingHeavyHitters.Estimate::key).containsExactly(1L, 2L);
+
+        SlidingHeavyHitters.Result later = hitters.top(5, 3_000);
+        assertThat(later.top()).containsExactly(new SlidingHeavyHitters.Estimate(2, 5));
+        assertThat(later.windowTotal()).isEqualTo(5);
+    }
+
+    @Test
+    void takingBackAMovementRemovesItsWeight() {
+        hitters.add(1, 10, 500, 600);
+        hitters.add(2, 4, 500, 600);
+        hitters.add(1, -10, 500, 700);
+
+        SlidingHeavyHitters.Result result = hitters.top(5, 800);
+        assertThat(result.top()).containsExactly(new SlidingHeavyHitters.Estimate(2, 4));
+        assertThat(result.windowTotal()).isEqualTo(4);
+    }
+
+    @Test
+    void countsFutureTimesAsNowAndIgnoresTimesBeforeTheWindow() {
+        hitters.add(1, 3, 10_000, 5_000);
+        hitters.add(2, 8, 1_999, 5_000);
+
+        SlidingHeavyHitters.Result result = hitters.top(5, 5_000);
+        assertThat(result.top()).containsExactly(new SlidingHeavyHitters.Estimate(1, 3));
+
+        // Counted in the current bucket, so it leaves with it
+        assertThat(hitters.top(5, 7_999).top()).hasSize(1);
+        assertThat(hitters.top(5, 8_000).top()).isEmpty();
+    }
+
+    @Test
+    void reportsTheOvercountBoundForTheWindowTotal() {
+        for (long key = 1; key <= 100; key++) {
+            hitters.add(key, 10, 0, 0);
+        }
+
+        SlidingHeavyHitters.Result result = hitters.top(3, 0);
+        assertThat(result.windowTotal()).isEqualTo(1_000);
+        assertThat(result.maxOverestimate()).isEqualTo((long) Math.ceil(Math.E / 1024 * 1_000));
+        for (SlidingHeavyHitters.Estimate estimate : result.top()) {
+            assertThat(estimate.weight()).isBetween(10L, 10L + result.maxOverestimate());
+        }
+    }
+}
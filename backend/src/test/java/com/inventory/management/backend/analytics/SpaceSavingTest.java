@@ -0,0 +1,96 @@
+package com.inventory.management.backend.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTest {
+
+    private static long[] keys(SpaceSaving summary) {
+        long[] keys = new long[summary.size()];
+        summary.copyKeys(keys, 0);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    @Test
+    void aNewKeyTakesOverTheSmallestCounter() {
+        SpaceSaving summary = new SpaceSaving(3);
+        summary.add(1, 5);
+        summary.add(2, 3);
+        summary.add(3, 1);
+
+        summary.add(4, 1);
+        assertThat(keys(summary)).containsExactly(1, 2, 4);
+
+        // Key 4 inherited the evicted weight, 1 + 1, so it is now the smallest
+        summary.add(5, 1);
+        assertThat(keys(summary)).containsExactly(1, 2, 5);
+
+        // Key 5 holds 2 + 1 = 3, tied with key 2; either may go, key 1 may not
+        summary.add(6, 1);
+        assertThat(keys(summary)).contains(1, 6).hasSize(3);
+    }
+
+    @Test
+    void takenBackWeightMakesACounterTheNextToBeEvicted() {
+        SpaceSaving summary = new SpaceSaving(3);
+        summary.add(1, 5);
+        summary.add(2, 3);
+        summary.add(3, 4);
+
+        summary.add(1, -5);
+        summary.add(4, 1);
+
+        assertThat(keys(summary)).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    void ignoresTakingBackAnUntrackedKey() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.add(1, -3);
+
+        assertThat(summary.size()).isZero();
+    }
+
+    @Test
+    void keepsEveryKeyAboveTotalOverCapacity() {
+        int capacity = 32;
+        SpaceSaving summary = new SpaceSaving(capacity);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(7);
+        long total = 0;
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(10) < 3 ? 1 + random.nextInt(5) : 100 + random.nextInt(10_000);
+            summary.add(key, 1);
+            exact.merge(key, 1L, Long::sum);
+            total++;
+        }
+
+        long threshold = total / capacity;
+        long[] tracked = keys(summary);
+        exact.forEach((key, weight) -> {
+            if (weight > threshold) {
+                assertThat(Arrays.binarySearch(tracked, key)).as("key %d with weight %d", key, weight)
+                        .isGreaterThanOrEqualTo(0);
+            }
+        });
+        assertThat(exact.values().stream().filter(weight -> weight > threshold)).hasSize(5);
+    }
+
+    @Test
+    void clearDropsAllCounters() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.add(1, 1);
+        summary.add(2, 1);
+        summary.clear();
+        summary.add(3, 1);
+
+        assertThat(keys(summary)).containsExactly(3);
+    }
+}
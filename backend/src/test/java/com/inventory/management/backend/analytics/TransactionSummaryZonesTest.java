@@ -0,0 +1,161 @@
+package com.inventory.management.backend.analytics;
+
+import com.inventory.management.backend.dto.ProductDto;
+import com.inventory.management.backend.dto.TransactionSummaryDto;
+import com.inventory.management.backend.entity.User;
+import com.inventory.management.backend.repository.UserRepository;
+import com.inventory.management.backend.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Periods are cut by PostgreSQL in the requested zone; entries are written straight to
+ * the journal at fixed instants so each one sits just inside a period boundary.
+ */
+@SpringBootTest
+class TransactionSummaryZonesTest {
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+    private static final Set<TransactionSummaries.Dimension> BY_USER = Set.of(TransactionSummaries.Dimension.USER);
+
+    @Autowired
+    private TransactionSummaries transactionSummaries;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long productId;
+
+    @BeforeEach
+    void createProduct() {
+        ProductDto product = new ProductDto();
+        product.setName("Zoned SKU " + System.nanoTime());
+        product.setPriceIn(new BigDecimal("1.00"));
+        product.setPriceOut(new BigDecimal("2.00"));
+        product.setStock(0);
+        productId = productService.createProduct(product).getId();
+    }
+
+    private Long createUser() {
+        User user = new User();
+        user.setUsername("zoned-" + System.nanoTime());
+        user.setPasswordHash("x");
+        user.setRole(User.Role.STAFF);
+        user.setFullName("Zoned");
+        return userRepository.save(user).getId();
+    }
+
+    private void enter(Long userId, String instant) {
+        // Entry dates are stored as local times of the zone the application runs in
+        LocalDateTime stored = LocalDateTime.ofInstant(Instant.parse(instant), ZoneId.systemDefault());
+        jdbcTemplate.update("INSERT INTO transactions (product_id, user_id, type, entry_kind, quantity, total_price, "
+                        + "transaction_date, recorded_at) VALUES (?, ?, 'IN', 'ORIGINAL', 1, 1.00, ?, ?)",
+                productId, userId, Timestamp.valueOf(stored), Timestamp.valueOf(stored));
+    }
+
+    private static List<TransactionSummaryDto> rowsOf(List<TransactionSummaryDto> summary, Long userId) {
+        return summary.stream().filter(row -> userId.equals(row.getUserId())).toList();
+    }
+
+    @Test
+    void cutsDaysAtLocalMidnightAcrossTheSpringForwardChange() {
+        Long userId = createUser();
+        // 00:30 CET and 23:30 CEST on 29 March, then 00:30 CEST on the 30th
+        enter(userId, "2026-03-28T23:30:00Z");
+        enter(userId, "2026-03-29T21:30:00Z");
+        enter(userId, "2026-03-29T22:30:00Z");
+
+        List<TransactionSummaryDto> days = rowsOf(transactionSummaries.summarize(LocalDate.of(2026, 3, 29),
+                LocalDate.of(2026, 3, 30), TransactionSummaries.Granularity.DAY, BERLIN, BY_USER), userId);
+
+        assertThat(days).extracting(TransactionSummaryDto::getPeriodStart).containsExactly(
+                OffsetDateTime.parse("2026-03-29T00:00+01:00"), OffsetDateTime.parse("2026-03-30T00:00+02:00"));
+        assertThat(days).extracting(TransactionSummaryDto::getTotalTransactions).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void theDayClocksGoBackHasTwentyFiveHours() {
+        Long userId = createUser();
+        // The first and the repeated 02:30 on 25 October
+        enter(userId, "2026-10-25T00:30:00Z");
+        enter(userId, "2026-10-25T01:30:00Z");
+
+        List<TransactionSummaryDto> hours = rowsOf(transactionSummaries.summarize(LocalDate.of(2026, 10, 25),
+                LocalDate.of(2026, 10, 25), TransactionSummaries.Granularity.HOUR, BERLIN, BY_USER), userId);
+
+        assertThat(hours).hasSize(25);
+        assertThat(hours.get(2).getPeriodStart()).isEqualTo(OffsetDateTime.parse("2026-10-25T02:00+02:00"));
+        assertThat(hours.get(3).getPeriodStart()).isEqualTo(OffsetDateTime.parse("2026-10-25T02:00+01:00"));
+        assertThat(hours.get(2).getTotalTransactions()).isEqualTo(1L);
+        assertThat(hours.get(3).getTotalTransactions()).isEqualTo(1L);
+    }
+
+    @Test
+    void offsetZonesAreCutEastOfGreenwichForAPositiveOffset() {
+        Long userId = createUser();
+        // 23:45 on 1 June and 00:15 on 2 June at +05:30
+        enter(userId, "2026-06-01T18:15:00Z");
+        enter(userId, "2026-06-01T18:45:00Z");
+
+        List<TransactionSummaryDto> days = rowsOf(transactionSummaries.summarize(LocalDate.of(2026, 6, 1),
+                LocalDate.of(2026, 6, 2), TransactionSummaries.Granularity.DAY, ZoneOffset.of("+05:30"), BY_USER),
+                userId);
+
+        assertThat(days).extracting(TransactionSummaryDto::getPeriodStart).containsExactly(
+                OffsetDateTime.parse("2026-06-01T00:00+05:30"), OffsetDateTime.parse("2026-06-02T00:00+05:30"));
+        assertThat(days).extracting(TransactionSummaryDto::getTotalTransactions).containsExactly(1L, 1L);
+    }
+
+    @Test
+    void passesOffsetsToPostgresWithThePosixSign() {
+        assertThat(TransactionSummaryStore.postgresZone(ZoneOffset.of("+05:30"))).isEqualTo("-05:30");
+        assertThat(TransactionSummaryStore.postgresZone(ZoneOffset.of("-03:00"))).isEqualTo("+03:00");
+        assertThat(TransactionSummaryStore.postgresZone(ZoneOffset.UTC)).isEqualTo("UTC");
+        assertThat(TransactionSummaryStore.postgresZone(ZoneId.of("UTC+02:00"))).isEqualTo("-02:00");
+        assertThat(TransactionSummaryStore.postgresZone(BERLIN)).isEqualTo("Europe/Berlin");
+    }
+
+    @Test
+    void rejectsSummariesWithMoreRowsThanTheCap() {
+        enter(createUser(), "2026-04-01T10:00:00Z");
+        enter(createUser(), "2026-04-02T10:00:00Z");
+        Object target = AopTestUtils.getTargetObject(transactionSummaries);
+        Object maxRows = ReflectionTestUtils.getField(target, "maxRows");
+        // Two days for each of at least two users
+        ReflectionTestUtils.setField(target, "maxRows", 3);
+        try {
+            assertThat(transactionSummaries.summarize(LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 2),
+                    TransactionSummaries.Granularity.DAY, ZoneOffset.UTC, Set.of())).hasSize(2);
+            assertThatThrownBy(() -> transactionSummaries.summarize(LocalDate.of(2026, 4, 1),
+                    LocalDate.of(2026, 4, 2), TransactionSummaries.Granularity.DAY, ZoneOffset.UTC, BY_USER))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageStartingWith("More than 3 rows");
+        } finally {
+            ReflectionTestUtils.setField(target, "maxRows", maxRows);
+        }
+    }
+}
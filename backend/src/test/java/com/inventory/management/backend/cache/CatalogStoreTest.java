@@ -0,0 +1,113 @@
+package com.inventory.management.backend.cache;
+
+import com.inventory.management.backend.coherence.RemoteChanges;
+import com.inventory.management.backend.dto.ProductDto;
+import com.inventory.management.backend.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Local commits refresh the store right after commit; rows written elsewhere are picked
+ * up when the coherence bus reports them, and never replaced by an older read.
+ */
+@SpringBootTest
+class CatalogStoreTest {
+    @Autowired
+    private CatalogStore catalogStore;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ProductDto createProduct(String category) {
+        ProductDto product = new ProductDto();
+        long unique = System.nanoTime();
+        product.setName("Cataloged " + unique);
+        product.setCategory(category);
+        product.setSku("CAT-" + unique);
+        product.setPriceIn(new BigDecimal("1.00"));
+        product.setPriceOut(new BigDecimal("2.50"));
+        product.setStock(4);
+        return productService.createProduct(product);
+    }
+
+    private static RemoteChanges productChanged(long productId) {
+        return new RemoteChanges(0, Set.of(productId), Set.of(), Set.of(), Set.of());
+    }
+
+    private long freshnessOf(long productId) {
+        return catalogStore.getProduct(productId).freshness();
+    }
+
+    @Test
+    void refreshesAndReindexesProductsAfterALocalCommit() {
+        String before = "Before " + System.nanoTime();
+        String after = "After " + System.nanoTime();
+        ProductDto product = createProduct(before);
+        long id = product.getId();
+
+        ProductRecord created = catalogStore.getProduct(id);
+        assertThat(created.stock()).isEqualTo(4);
+        assertThat(created.priceOutCents()).isEqualTo(250);
+        assertThat(catalogStore.getActiveProductBySku(product.getSku().toLowerCase())).isEqualTo(created);
+        assertThat(catalogStore.getActiveProductsByCategory(before)).extracting(ProductRecord::id).containsExactly(id);
+
+        product.setCategory(after);
+        product.setActive(true);
+        productService.updateProduct(id, product);
+
+        assertThat(catalogStore.getProduct(id).category()).isEqualTo(after);
+        assertThat(catalogStore.getActiveProductsByCategory(before)).isEmpty();
+        assertThat(catalogStore.getActiveProductsByCategory(after)).extracting(ProductRecord::id).containsExactly(id);
+
+        product.setActive(false);
+        productService.updateProduct(id, product);
+
+        assertThat(catalogStore.getProduct(id).active()).isFalse();
+        assertThat(catalogStore.getActiveProductsByCategory(after)).isEmpty();
+        assertThat(catalogStore.getActiveProductBySku(product.getSku())).isNull();
+        assertThat(catalogStore.getActiveProducts()).extracting(ProductRecord::id).doesNotContain(id);
+    }
+
+    @Test
+    void reloadsProductsChangedOnAnotherNode() {
+        long id = createProduct("Remote " + System.nanoTime()).getId();
+        long freshness = freshnessOf(id);
+
+        // Another node's commit: the row changes without a local event
+        jdbcTemplate.update("UPDATE products SET name = ?, change_version = ? WHERE id = ?",
+                "Renamed elsewhere", freshness + 100, id);
+        assertThat(catalogStore.getProduct(id).name()).isNotEqualTo("Renamed elsewhere");
+
+        catalogStore.onRemoteChanges(productChanged(id));
+
+        assertThat(catalogStore.getProduct(id).name()).isEqualTo("Renamed elsewhere");
+        assertThat(freshnessOf(id)).isEqualTo(freshness + 100);
+    }
+
+    @Test
+    void keepsTheNewerRecordWhenARefreshReadsAnOlderRow() {
+        long id = createProduct("Stale " + System.nanoTime()).getId();
+        long freshness = freshnessOf(id);
+        jdbcTemplate.update("UPDATE products SET name = ?, change_version = ? WHERE id = ?",
+                "Newer", freshness + 100, id);
+        catalogStore.onRemoteChanges(productChanged(id));
+
+        // A read that started before the newer commit and finishes after it
+        jdbcTemplate.update("UPDATE products SET name = ?, change_version = ? WHERE id = ?",
+                "Older", freshness + 50, id);
+        catalogStore.onRemoteChanges(productChanged(id));
+
+        assertThat(catalogStore.getProduct(id).name()).isEqualTo("Newer");
+        assertThat(freshnessOf(id)).isEqualTo(freshness + 100);
+    }
+}
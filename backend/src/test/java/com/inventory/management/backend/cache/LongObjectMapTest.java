@@ -0,0 +1,173 @@
+package com.inventory.management.backend.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongObjectMapTest {
+
+    /**
+     * Slot a key lands in when it is alone in a table of 16 slots.
+     */
+    private static int homeSlot(long key) {
+        LongObjectMap<String> probe = new LongObjectMap<>(8);
+        probe.put(key, "probe");
+        long[] keys = (long[]) ReflectionTestUtils.getField(probe, "keys");
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        throw new AssertionError("Key " + key + " not stored");
+    }
+
+    private static List<Long> keysWithHome(int slot, int count) {
+        List<Long> keys = new ArrayList<>();
+        for (long key = 1; keys.size() < count; key++) {
+            if (homeSlot(key) == slot) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    @Test
+    void putsGetsAndOverwrites() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        assertThat(map.put(7L, "a")).isNull();
+        assertThat(map.put(-3L, "b")).isNull();
+        assertThat(map.put(7L, "c")).isEqualTo("a");
+
+        assertThat(map.get(7L)).isEqualTo("c");
+        assertThat(map.get(-3L)).isEqualTo("b");
+        assertThat(map.get(8L)).isNull();
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsTheReservedKey() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        assertThatThrownBy(() -> map.put(0L, "a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> map.get(0L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void growsPastHalfFullAndKeepsEveryEntry() {
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        assertThat(map.capacity()).isEqualTo(32);
+
+        for (long key = 1; key <= 1_000; key++) {
+            map.put(key, key * 10);
+        }
+
+        assertThat(map.size()).isEqualTo(1_000);
+        assertThat(map.capacity()).isEqualTo(2_048);
+        for (long key = 1; key <= 1_000; key++) {
+            assertThat(map.get(key)).isEqualTo(key * 10);
+        }
+    }
+
+    @Test
+    void sizesTheTableForTheExpectedEntries() {
+        assertThat(new LongObjectMap<>(8).capacity()).isEqualTo(16);
+        assertThat(new LongObjectMap<>(9).capacity()).isEqualTo(32);
+    }
+
+    @Test
+    void removesAndReportsTheRemovedValue() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(1L, "a");
+        map.put(2L, "b");
+
+        assertThat(map.remove(1L)).isEqualTo("a");
+        assertThat(map.remove(1L)).isNull();
+        assertThat(map.remove(99L)).isNull();
+        assertThat(map.get(1L)).isNull();
+        assertThat(map.get(2L)).isEqualTo("b");
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removingInsideARunThatWrapsKeepsLaterEntriesReachable() {
+        LongObjectMap<String> map = new LongObjectMap<>(8);
+        // Three keys homed in the last slot fill slots 15, 0 and 1; the one homed at 0 lands in 2
+        List<Long> last = keysWithHome(15, 3);
+        long first = keysWithHome(0, 1).get(0);
+        for (long key : last) {
+            map.put(key, "last-" + key);
+        }
+        map.put(first, "first");
+        long[] keys = (long[]) ReflectionTestUtils.getField(map, "keys");
+        assertThat(keys[15]).isEqualTo(last.get(0));
+        assertThat(keys[0]).isEqualTo(last.get(1));
+        assertThat(keys[2]).isEqualTo(first);
+
+        map.remove(last.get(0));
+
+        // The run shifts back across the end of the table without leaving a gap
+        assertThat(keys[15]).isEqualTo(last.get(1));
+        assertThat(keys[0]).isEqualTo(last.get(2));
+        assertThat(keys[1]).isEqualTo(first);
+        assertThat(keys[2]).isZero();
+        assertThat(map.get(last.get(1))).isEqualTo("last-" + last.get(1));
+        assertThat(map.get(last.get(2))).isEqualTo("last-" + last.get(2));
+        assertThat(map.get(first)).isEqualTo("first");
+
+        map.remove(last.get(2));
+
+        // The key homed at 0 moves into its home slot, the one homed at 15 stays put
+        assertThat(keys[15]).isEqualTo(last.get(1));
+        assertThat(keys[0]).isEqualTo(first);
+        assertThat(keys[1]).isZero();
+        assertThat(map.get(first)).isEqualTo("first");
+        assertThat(map.get(last.get(1))).isEqualTo("last-" + last.get(1));
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void matchesAHashMapUnderRandomPutsAndRemoves() {
+        Random random = new Random(42);
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+
+        // Few distinct keys keep the table small and its probe runs long and wrapping
+        for (int i = 0; i < 20_000; i++) {
+            long key = 1 + random.nextInt(24);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                long value = random.nextLong();
+                assertThat(map.put(key, value)).isEqualTo(expected.put(key, value));
+            }
+            assertThat(map.size()).isEqualTo(expected.size());
+            for (long probe = 1; probe <= 24; probe++) {
+                assertThat(map.get(probe)).isEqualTo(expected.get(probe));
+            }
+        }
+    }
+
+    @Test
+    void clearsEveryEntry() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(1L, "a");
+        map.put(2L, "b");
+
+        map.clear();
+
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.get(1L)).isNull();
+        List<String> values = new ArrayList<>();
+        map.forEachValue(values::add);
+        assertThat(values).isEmpty();
+    }
+}
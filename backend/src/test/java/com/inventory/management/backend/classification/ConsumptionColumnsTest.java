@@ -0,0 +1,102 @@
+package com.inventory.management.backend.classification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ConsumptionColumnsTest {
+
+    private static ConsumptionColumns columns(int size, int periods) {
+        ConsumptionColumns columns = new ConsumptionColumns(size, periods);
+        for (int i = 0; i < size; i++) {
+            columns.productIds[i] = 10L * (i + 1);
+            columns.unitCost[i] = 1;
+        }
+        return columns;
+    }
+
+    @Test
+    void splitsAbcByCumulativeShareOfValue() {
+        ConsumptionColumns columns = columns(6, 1);
+        int[] quantities = {10, 50, 5, 30, 5, 0};
+        for (int i = 0; i < quantities.length; i++) {
+            columns.add(i, 0, quantities[i]);
+        }
+
+        columns.classify(0.8, 0.95, 0.5, 1.0);
+
+        // 50 and 30 reach 80% of 100; 10 and both 5s reach 95%, ties at the cutoff included
+        assertThat(columns.abc).containsExactly(ConsumptionColumns.B, ConsumptionColumns.A, ConsumptionColumns.B,
+                ConsumptionColumns.A, ConsumptionColumns.B, ConsumptionColumns.C);
+    }
+
+    @Test
+    void valuesConsumptionAtUnitCost() {
+        ConsumptionColumns columns = columns(2, 1);
+        columns.unitCost[0] = 10;
+        columns.add(0, 0, 10);
+        columns.add(1, 0, 90);
+
+        columns.classify(0.5, 0.9, 0.5, 1.0);
+
+        assertThat(columns.value).containsExactly(100, 90);
+        assertThat(columns.abc).containsExactly(ConsumptionColumns.A, ConsumptionColumns.B);
+    }
+
+    @Test
+    void everythingIsCWithoutConsumption() {
+        ConsumptionColumns columns = columns(3, 2);
+
+        columns.classify(0.8, 0.95, 0.5, 1.0);
+
+        assertThat(columns.abc).containsOnly(ConsumptionColumns.C);
+        assertThat(columns.xyz).containsOnly(ConsumptionColumns.Z);
+    }
+
+    @Test
+    void splitsXyzByCoefficientOfVariationPerPeriod() {
+        ConsumptionColumns columns = columns(5, 4);
+        int[][] demand = {
+                {5, 5, 5, 5},   // cv 0
+                {10, 0, 10, 0}, // cv 1, on the Y cutoff
+                {20, 0, 0, 0},  // cv sqrt(3)
+                {0, 0, 0, 0},   // no demand
+                {0, 0, 5, 5},   // created in period 2, steady since
+        };
+        for (int i = 0; i < demand.length; i++) {
+            for (int period = 0; period < 4; period++) {
+                columns.add(i, period, demand[i][period]);
+            }
+        }
+        columns.firstPeriod[4] = 2;
+
+        columns.classify(0.8, 0.95, 0.5, 1.0);
+
+        assertThat(columns.xyz).containsExactly(ConsumptionColumns.X, ConsumptionColumns.Y, ConsumptionColumns.Z,
+                ConsumptionColumns.Z, ConsumptionColumns.X);
+        assertThat(columns.demandCv[1]).isCloseTo(1, within(1e-12));
+        assertThat(columns.demandCv[2]).isCloseTo(Math.sqrt(3), within(1e-12));
+        assertThat(columns.demandCv[3]).isNaN();
+    }
+
+    @Test
+    void anEarlierMovementMovesTheFirstPeriodBack() {
+        ConsumptionColumns columns = columns(1, 4);
+        columns.firstPeriod[0] = 3;
+
+        columns.add(0, 1, 4);
+
+        assertThat(columns.firstPeriod[0]).isEqualTo(1);
+    }
+
+    @Test
+    void findsOrdinalsByProductId() {
+        ConsumptionColumns columns = columns(3, 1);
+
+        assertThat(Arrays.stream(new long[]{10, 20, 30, 25}).mapToInt(columns::ordinal))
+                .containsExactly(0, 1, 2, -1);
+    }
+}
@@ -0,0 +1,120 @@
+package com.inventory.management.backend.coalesce;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingAspectTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Query target = new Query();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private RequestCoalescingAspect aspect;
+    private Query query;
+
+    static class Query {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch leaderRunning = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Coalesced
+        public String run(String argument) throws InterruptedException {
+            if (calls.incrementAndGet() == 1) {
+                leaderRunning.countDown();
+                release.await();
+            }
+            return argument + "#" + calls.get();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        aspect = new RequestCoalescingAspect(meterRegistry);
+        ReflectionTestUtils.setField(aspect, "enabled", true);
+        ReflectionTestUtils.setField(aspect, "joinTimeoutMs", 60_000L);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        query = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        target.release.countDown();
+        executor.shutdownNow();
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.counter("inventory.coalesce.calls", "operation", "Query.run", "outcome", outcome).count();
+    }
+
+    @Test
+    void callersWithEqualArgumentsShareOneExecution() throws Exception {
+        Future<String> leader = executor.submit(() -> query.run("a"));
+        target.leaderRunning.await();
+        Future<String> joined = executor.submit(() -> query.run("a"));
+        while (outcome("joined") == 0) {
+            Thread.sleep(5);
+        }
+
+        target.release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("a#1");
+        assertThat(joined.get(5, TimeUnit.SECONDS)).isEqualTo("a#1");
+        assertThat(target.calls).hasValue(1);
+    }
+
+    @Test
+    void aCallerThatWaitedTooLongRunsTheQueryItself() throws Exception {
+        ReflectionTestUtils.setField(aspect, "joinTimeoutMs", 50L);
+        Future<String> leader = executor.submit(() -> query.run("a"));
+        target.leaderRunning.await();
+
+        assertThat(query.run("a")).isEqualTo("a#2");
+        assertThat(outcome("timed-out")).isEqualTo(1);
+
+        target.release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("a#2");
+    }
+
+    @Test
+    void anInterruptedCallerKeepsItsInterruptAndTheCause() throws Exception {
+        Future<String> leader = executor.submit(() -> query.run("a"));
+        target.leaderRunning.await();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicReference<Boolean> interrupted = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                query.run("a");
+            } catch (Throwable e) {
+                failure.set(e);
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        caller.start();
+        while (outcome("joined") == 0) {
+            Thread.sleep(5);
+        }
+
+        caller.interrupt();
+        caller.join(5_000);
+
+        assertThat(failure.get()).isInstanceOf(RuntimeException.class)
+                .hasCauseInstanceOf(InterruptedException.class);
+        assertThat(interrupted.get()).isTrue();
+        target.release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("a#1");
+    }
+}
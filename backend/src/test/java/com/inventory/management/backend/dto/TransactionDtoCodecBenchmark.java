@@ -0,0 +1,89 @@
+package com.inventory.management.backend.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.management.backend.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Encode/decode cost and payload size of a 10k row transaction list in JSON, CBOR and
+ * Smile, built the same way as the HTTP converters' mappers.
+ * Not picked up by the default surefire includes; run it explicitly with
+ * {@code mvn test -Dtest=TransactionDtoCodecBenchmark}.
+ */
+class TransactionDtoCodecBenchmark {
+    private static final int ROWS = 10_000;
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int MEASURED_ROUNDS = 50;
+    private static final TypeReference<List<TransactionDto>> LIST_TYPE = new TypeReference<>() {
+    };
+
+    @Test
+    void compareEncodings() throws Exception {
+        List<TransactionDto> transactions = sampleTransactions();
+
+        System.out.printf("%-6s %10s %12s %12s%n", "format", "bytes", "encode ms", "decode ms");
+        measure("json", Jackson2ObjectMapperBuilder.json().build(), transactions);
+        measure("cbor", Jackson2ObjectMapperBuilder.cbor().build(), transactions);
+        measure("smile", Jackson2ObjectMapperBuilder.smile().build(), transactions);
+    }
+
+    private void measure(String format, ObjectMapper mapper, List<TransactionDto> transactions) throws Exception {
+        byte[] encoded = mapper.writeValueAsBytes(transactions);
+        assertEquals(transactions, mapper.readValue(encoded, LIST_TYPE));
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(transactions), LIST_TYPE);
+        }
+
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            encoded = mapper.writeValueAsBytes(transactions);
+            long encodedAt = System.nanoTime();
+            mapper.readValue(encoded, LIST_TYPE);
+            decodeNanos += System.nanoTime() - encodedAt;
+            encodeNanos += encodedAt - start;
+        }
+
+        System.out.printf("%-6s %10d %12.2f %12.2f%n", format, encoded.length,
+                encodeNanos / 1e6 / MEASURED_ROUNDS, decodeNanos / 1e6 / MEASURED_ROUNDS);
+    }
+
+    private List<TransactionDto> sampleTransactions() {
+        List<TransactionDto> transactions = new ArrayList<>(ROWS);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int i = 0; i < ROWS; i++) {
+            int quantity = 1 + i % 50;
+            BigDecimal unitPrice = BigDecimal.valueOf(1_000 + i % 997, 2);
+            boolean outgoing = i % 3 == 0;
+            transactions.add(new TransactionDto(
+                    (long) i + 1,
+                    (long) i % 500 + 1,
+                    "Product " + (i % 500 + 1),
+                    outgoing ? Transaction.TransactionType.OUT : Transaction.TransactionType.IN,
+                    quantity,
+                    unitPrice,
+                    unitPrice.multiply(BigDecimal.valueOf(quantity)),
+                    outgoing ? null : (long) i % 20 + 1,
+                    outgoing ? null : "Supplier " + (i % 20 + 1),
+                    (long) i % 5 + 1,
+                    "staff" + (i % 5 + 1),
+                    i % 10 == 0 ? "Restock after weekly count" : null,
+                    "REF-" + (100_000 + i),
+                    start.plusMinutes(i * 7L),
+                    Transaction.EntryKind.ORIGINAL,
+                    null));
+        }
+        return transactions;
+    }
+}
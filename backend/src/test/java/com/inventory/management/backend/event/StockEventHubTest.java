@@ -0,0 +1,141 @@
+package com.inventory.management.backend.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockEventHubTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StockEventHub hub = new StockEventHub(meterRegistry);
+    private final AsyncContext context = mock(AsyncContext.class);
+    private final Stream stream = new Stream();
+
+    /**
+     * Non-blocking output that accepts writes until it is told the client stopped reading.
+     */
+    static class Stream extends ServletOutputStream {
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        volatile boolean ready = true;
+        WriteListener listener;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            listener = writeListener;
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            if (!ready) {
+                throw new IllegalStateException("Not ready");
+            }
+            written.write(b);
+        }
+
+        synchronized String text() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+
+        void resume() throws Exception {
+            ready = true;
+            listener.onWritePossible();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(hub, "bufferSize", 2);
+        ReflectionTestUtils.setField(hub, "dispatcherThreads", 1);
+        ReflectionTestUtils.setField(hub, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(hub, "sendTimeoutMs", 50L);
+        hub.start();
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(request.startAsync(any(), any())).thenReturn(context);
+        when(response.getOutputStream()).thenReturn(stream);
+        hub.subscribe(request, response);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.stop();
+    }
+
+    @Test
+    void writesEventsAsServerSentEvents() throws Exception {
+        hub.onStockChanged(new StockChangedEvent(7L, 10, 4, 5));
+
+        waitFor(() -> stream.text().contains("event: low-stock"));
+        assertThat(stream.text()).isEqualTo(
+                "event: stock\ndata: {\"productId\":7,\"stock\":4,\"minimumStock\":5}\n\n"
+                        + "event: low-stock\ndata: {\"productId\":7,\"lowStock\":true,\"stock\":4,\"minimumStock\":5}\n\n");
+    }
+
+    @Test
+    void keepsTheNewestEventsWhileTheClientIsNotReading() throws Exception {
+        stream.ready = false;
+        for (long productId = 1; productId <= 4; productId++) {
+            hub.onProductChanged(new ProductChangedEvent(productId, ProductChangedEvent.ChangeType.UPDATED));
+        }
+
+        stream.resume();
+
+        waitFor(() -> stream.text().contains("\"productId\":4"));
+        assertThat(stream.text()).doesNotContain("\"productId\":1,").doesNotContain("\"productId\":2,")
+                .contains("\"productId\":3,");
+        assertThat(meterRegistry.counter("inventory.events.dropped").count()).isEqualTo(2);
+    }
+
+    @Test
+    void disconnectsAClientThatStaysStalledPastTheSendTimeout() throws Exception {
+        stream.ready = false;
+        hub.onProductChanged(new ProductChangedEvent(1L, ProductChangedEvent.ChangeType.UPDATED));
+
+        hub.evictStalledSubscribers();
+        verify(context, never()).complete();
+
+        Thread.sleep(100);
+        hub.evictStalledSubscribers();
+        verify(context).complete();
+        assertThat(meterRegistry.counter("inventory.events.evicted").count()).isEqualTo(1);
+    }
+}
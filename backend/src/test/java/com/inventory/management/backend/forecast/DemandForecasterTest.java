@@ -0,0 +1,109 @@
+package com.inventory.management.backend.forecast;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class DemandForecasterTest {
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private static DemandBatch batch(int products, int days) {
+        long[] productIds = new long[products];
+        for (int i = 0; i < products; i++) {
+            productIds[i] = i + 1;
+        }
+        return new DemandBatch(productIds, days);
+    }
+
+    @Test
+    void steadyDemandNeedsNoSafetyStock() {
+        DemandBatch batch = batch(1, 30);
+        Arrays.fill(batch.demand, 5);
+
+        new DemandForecaster(0.3, 7, 14, 1.65).forecast(batch, pool);
+
+        assertThat(batch.dailyDemand[0]).isEqualTo(5);
+        assertThat(batch.demandStdDev[0]).isZero();
+        assertThat(batch.safetyStock[0]).isZero();
+        assertThat(batch.reorderPoint[0]).isEqualTo(35);
+        assertThat(batch.orderUpTo[0]).isEqualTo(105);
+    }
+
+    @Test
+    void seedsFromTheWarmupDaysThenSmoothsLevelAndVariance() {
+        DemandBatch batch = batch(1, 16);
+        for (int day = 0; day < 14; day++) {
+            batch.demand[day] = day % 2 == 0 ? 4 : 6;
+        }
+        batch.demand[14] = 9;
+        batch.demand[15] = 7;
+
+        new DemandForecaster(0.5, 4, 3, 2).forecast(batch, pool);
+
+        // Warmup: level 5, variance 1. Day 14: error 4, variance 8.5, level 7. Day 15: error 0, variance 4.25
+        assertThat(batch.dailyDemand[0]).isEqualTo(7);
+        assertThat(batch.demandStdDev[0]).isCloseTo(Math.sqrt(4.25), within(1e-9));
+        double safety = 2 * Math.sqrt(4.25) * Math.sqrt(4);
+        assertThat(batch.safetyStock[0]).isEqualTo((int) Math.ceil(safety));
+        assertThat(batch.reorderPoint[0]).isEqualTo((int) Math.ceil(7 * 4 + safety));
+        assertThat(batch.orderUpTo[0]).isEqualTo((int) Math.ceil(7 * 7 + safety));
+    }
+
+    @Test
+    void ignoresDaysBeforeTheProductExisted() {
+        DemandBatch batch = batch(1, 30);
+        Arrays.fill(batch.demand, 0, 20, 100);
+        Arrays.fill(batch.demand, 20, 30, 2);
+        batch.firstDay[0] = 20;
+
+        new DemandForecaster(0.3, 5, 5, 1.65).forecast(batch, pool);
+
+        assertThat(batch.historyDays(0)).isEqualTo(10);
+        assertThat(batch.dailyDemand[0]).isEqualTo(2);
+        assertThat(batch.reorderPoint[0]).isEqualTo(10);
+    }
+
+    @Test
+    void leavesProductsWithoutHistoryAtZero() {
+        DemandBatch batch = batch(1, 30);
+        batch.firstDay[0] = 30;
+
+        new DemandForecaster(0.3, 5, 5, 1.65).forecast(batch, pool);
+
+        assertThat(batch.dailyDemand[0]).isZero();
+        assertThat(batch.reorderPoint[0]).isZero();
+        assertThat(batch.orderUpTo[0]).isZero();
+    }
+
+    @Test
+    void forecastsEveryProductOfABatchSplitAcrossTasks() {
+        DemandBatch batch = batch(1_000, 20);
+        for (int i = 0; i < batch.size; i++) {
+            Arrays.fill(batch.demand, i * batch.days, (i + 1) * batch.days, i % 10);
+        }
+
+        new DemandForecaster(0.3, 3, 4, 1.65).forecast(batch, pool);
+
+        for (int i = 0; i < batch.size; i++) {
+            assertThat(batch.reorderPoint[i]).as("product %d", i).isEqualTo(3 * (i % 10));
+            assertThat(batch.orderUpTo[i]).as("product %d", i).isEqualTo(7 * (i % 10));
+        }
+    }
+
+    @Test
+    void rejectsSmoothingOutsideTheUnitInterval() {
+        assertThatThrownBy(() -> new DemandForecaster(0, 7, 14, 1.65)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DemandForecaster(1.5, 7, 14, 1.65)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
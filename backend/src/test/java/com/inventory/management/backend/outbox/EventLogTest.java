@@ -0,0 +1,143 @@
+package com.inventory.management.backend.outbox;
+
+import com.inventory.management.backend.entity.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventLogTest {
+    private static final LocalDateTime OCCURRED_AT = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @TempDir
+    Path directory;
+
+    private EventLog eventLog;
+
+    @AfterEach
+    void tearDown() {
+        if (eventLog != null) {
+            eventLog.close();
+        }
+    }
+
+    private EventLog open(long segmentBytes) throws Exception {
+        if (eventLog != null) {
+            eventLog.close();
+        }
+        eventLog = new EventLog(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(eventLog, "directory", directory.toString());
+        ReflectionTestUtils.setField(eventLog, "segmentBytes", segmentBytes);
+        ReflectionTestUtils.setField(eventLog, "retainedSegments", 16);
+        eventLog.open();
+        return eventLog;
+    }
+
+    private static List<OutboxEvent> events(long firstId, long lastId) {
+        return LongStream.rangeClosed(firstId, lastId)
+                .mapToObj(id -> new OutboxEvent(id, "stock.level", id * 10, "{\"productId\":" + id * 10 + "}",
+                        OCCURRED_AT))
+                .toList();
+    }
+
+    private static List<Long> eventIds(EventLog.Page page) {
+        return page.events().stream().map(EventLog.LoggedEvent::eventId).toList();
+    }
+
+    private Path lastSegment() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().reduce((first, second) -> second).orElseThrow();
+        }
+    }
+
+    private void appendRaw(byte[] bytes) throws Exception {
+        Files.write(lastSegment(), bytes, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    void dropsAHalfWrittenFrameAtTheTailOnOpen() throws Exception {
+        long end = open(1 << 20).append(events(1, 3));
+        // Header and the first bytes of a body that never made it to disk in full
+        appendRaw(ByteBuffer.allocate(12).putInt(100).putInt(0).putInt(42).array());
+
+        EventLog reopened = open(1 << 20);
+
+        assertThat(reopened.getEndOffset()).isEqualTo(end);
+        assertThat(Files.size(lastSegment())).isEqualTo(end);
+        assertThat(eventIds(reopened.read(0, 10))).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void dropsACompleteFrameWhoseChecksumDoesNotMatch() throws Exception {
+        long end = open(1 << 20).append(events(1, 2));
+        byte[] body = {1, 2, 3, 4};
+        appendRaw(ByteBuffer.allocate(8 + body.length).putInt(body.length).putInt(12345).put(body).array());
+
+        EventLog reopened = open(1 << 20);
+
+        assertThat(reopened.getEndOffset()).isEqualTo(end);
+        assertThat(eventIds(reopened.read(0, 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void dropsAHeaderCutShortAtTheTail() throws Exception {
+        long end = open(1 << 20).append(events(1, 1));
+        appendRaw(new byte[]{0, 0, 0});
+
+        assertThat(open(1 << 20).getEndOffset()).isEqualTo(end);
+    }
+
+    @Test
+    void appendsAfterRecoveryContinueAtTheLastCompleteEvent() throws Exception {
+        long end = open(1 << 20).append(events(1, 2));
+        appendRaw(ByteBuffer.allocate(8).putInt(64).putInt(0).array());
+
+        EventLog reopened = open(1 << 20);
+        reopened.append(events(3, 4));
+
+        EventLog.Page page = reopened.read(0, 10);
+        assertThat(eventIds(page)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(page.events().get(2).offset()).isEqualTo(end);
+        assertThat(page.nextOffset()).isEqualTo(reopened.getEndOffset());
+    }
+
+    @Test
+    void recoversOnlyTheActiveSegmentAndKeepsOffsetsAcrossSegments() throws Exception {
+        EventLog log = open(200);
+        log.append(events(1, 10));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isGreaterThan(1);
+        }
+        long end = log.getEndOffset();
+        appendRaw(new byte[]{0, 0, 0, 9, 1});
+
+        EventLog reopened = open(200);
+
+        assertThat(reopened.getEndOffset()).isEqualTo(end);
+        EventLog.Page first = reopened.read(0, 4);
+        assertThat(eventIds(first)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(eventIds(reopened.read(first.nextOffset(), 100))).containsExactly(5L, 6L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void rejectsAnOffsetInsideAnEvent() throws Exception {
+        EventLog log = open(1 << 20);
+        log.append(events(1, 2));
+
+        assertThatThrownBy(() -> log.read(3, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> log.read(log.getEndOffset() + 1, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,70 @@
+package com.inventory.management.backend.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OptimisticLockRetryAspectTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Writer target = new Writer();
+    private Writer writer;
+
+    static class Writer {
+        final AtomicInteger calls = new AtomicInteger();
+        int conflicts;
+
+        @RetryOnConflict
+        public String write() {
+            if (calls.incrementAndGet() <= conflicts) {
+                throw new ObjectOptimisticLockingFailureException(Writer.class, 1L);
+            }
+            return "written";
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(mock(Cache.class));
+        OptimisticLockRetryAspect aspect = new OptimisticLockRetryAspect(meterRegistry, entityManagerFactory);
+        ReflectionTestUtils.setField(aspect, "maxAttempts", 3);
+        ReflectionTestUtils.setField(aspect, "initialBackoffMs", 0L);
+        ReflectionTestUtils.setField(aspect, "maxBackoffMs", 0L);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        writer = factory.getProxy();
+    }
+
+    @Test
+    void retriesUntilTheWriteWins() {
+        target.conflicts = 2;
+
+        assertThat(writer.write()).isEqualTo("written");
+        assertThat(target.calls).hasValue(3);
+    }
+
+    @Test
+    void keepsTheLastConflictAsCauseWhenAttemptsRunOut() {
+        target.conflicts = Integer.MAX_VALUE;
+
+        assertThatThrownBy(writer::write)
+                .hasMessageContaining("Concurrent update conflict on OptimisticLockRetryAspectTest$Writer")
+                .hasCauseInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(target.calls).hasValue(3);
+        assertThat(meterRegistry.counter("inventory.optimistic_lock.exhausted",
+                "entity", "OptimisticLockRetryAspectTest$Writer", "operation", "Writer.write").count()).isEqualTo(1);
+    }
+}
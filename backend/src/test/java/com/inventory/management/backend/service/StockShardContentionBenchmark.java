@@ -0,0 +1,105 @@
+package com.inventory.management.backend.service;
+
+import com.inventory.management.backend.entity.Product;
+import com.inventory.management.backend.entity.ProductStockShard;
+import com.inventory.management.backend.repository.ProductRepository;
+import com.inventory.management.backend.repository.ProductStockShardRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contention benchmark for sharded stock counters against the configured database.
+ * The single-shard baseline is one counter row taking the same atomic conditional
+ * UPDATE, i.e. the best an unsharded product row can do.
+ * Not picked up by the default surefire includes; run it explicitly with
+ * {@code mvn test -Dtest=StockShardContentionBenchmark}.
+ */
+@SpringBootTest
+class StockShardContentionBenchmark {
+    private static final int THREADS = 32;
+    private static final int MOVEMENTS_PER_THREAD = 500;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+
+    @Autowired
+    private StockCounterService stockCounterService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compareOneAndSixteenShards() throws Exception {
+        double single = run(1);
+        double sharded = run(16);
+        System.out.printf("stock movements/s: 1 shard = %.0f, 16 shards = %.0f (x%.2f)%n",
+                single, sharded, sharded / single);
+    }
+
+    private double run(int shards) throws Exception {
+        int initialStock = THREADS * MOVEMENTS_PER_THREAD;
+        Long productId = transactionTemplate.execute(status -> {
+            Product product = new Product();
+            product.setName("Benchmark SKU x" + shards);
+            product.setPriceIn(BigDecimal.ONE);
+            product.setPriceOut(BigDecimal.TEN);
+            product.setStock(initialStock);
+            Product saved = productRepository.save(product);
+            if (shards > 1) {
+                stockCounterService.configureShards(saved, shards);
+            } else {
+                shardRepository.save(new ProductStockShard(null, saved, 0, initialStock, null));
+            }
+            return saved.getId();
+        });
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int n = 0; n < MOVEMENTS_PER_THREAD; n++) {
+                    transactionTemplate.executeWithoutResult(status -> decrementOne(product));
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsed = System.nanoTime() - began;
+        executor.shutdown();
+
+        assertEquals(0L, shardRepository.sumQuantity(productId));
+
+        return (double) initialStock * 1_000_000_000L / elapsed;
+    }
+
+    private void decrementOne(Product product) {
+        if (StockCounterService.isSharded(product)) {
+            stockCounterService.decrease(product, 1);
+        } else {
+            assertEquals(1, shardRepository.decrementIfAvailable(product.getId(), 0, 1, 0L));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.inventory.management.backend.service;
+
+import com.inventory.management.backend.dto.TransactionDto;
+import com.inventory.management.backend.entity.Product;
+import com.inventory.management.backend.entity.Transaction;
+import com.inventory.management.backend.entity.User;
+import com.inventory.management.backend.repository.ProductRepository;
+import com.inventory.management.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stock movements racing shard reconfigurations must neither be lost nor counted twice.
+ */
+@SpringBootTest
+class StockShardReconfigurationTest {
+    private static final int WRITERS = 4;
+    private static final int MOVEMENTS_PER_WRITER = 40;
+    private static final int INITIAL_STOCK = 100;
+    private static final int[] LAYOUTS = {4, 1, 8, 2, 1, 3};
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private StockCounterService stockCounterService;
+
+    @Test
+    void noMovementIsLostWhileShardsAreReconfigured() throws Exception {
+        User user = new User();
+        user.setUsername("shard-writer-" + System.nanoTime());
+        user.setPasswordHash("x");
+        user.setRole(User.Role.STAFF);
+        user.setFullName("Shard Writer");
+        Long userId = userRepository.save(user).getId();
+
+        Product product = new Product();
+        product.setName("Reconfigured SKU " + System.nanoTime());
+        product.setPriceIn(BigDecimal.ONE);
+        product.setPriceOut(BigDecimal.TEN);
+        product.setStock(INITIAL_STOCK);
+        Long productId = productRepository.save(product).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int n = 0; n < MOVEMENTS_PER_WRITER; n++) {
+                    TransactionDto movement = new TransactionDto();
+                    movement.setProductId(productId);
+                    movement.setUserId(userId);
+                    movement.setType(Transaction.TransactionType.IN);
+                    movement.setQuantity(1);
+                    try {
+                        transactionService.createTransaction(movement);
+                        booked.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Retries ran out; the movement rolled back as a whole
+                    }
+                }
+                return null;
+            }));
+        }
+        Future<Integer> reconfigurations = executor.submit(() -> {
+            start.await();
+            int done = 0;
+            while (writing.get()) {
+                try {
+                    productService.configureStockShards(productId, LAYOUTS[done % LAYOUTS.length]);
+                    done++;
+                } catch (RuntimeException e) {
+                    // Gave up on a conflict; the next layout is tried
+                }
+            }
+            return done;
+        });
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        writing.set(false);
+        int configured = reconfigurations.get();
+        executor.shutdown();
+
+        Product reloaded = productRepository.findById(productId).orElseThrow();
+        assertThat(configured).isPositive();
+        assertThat(booked.get()).isPositive();
+        assertThat(stockCounterService.getStock(reloaded)).isEqualTo(INITIAL_STOCK + booked.get());
+    }
+}
@@ -0,0 +1,142 @@
+package com.inventory.management.backend.valuation;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CostLedgerTest {
+    private static final LocalDateTime DAY_1 = LocalDateTime.of(2026, 5, 1, 9, 0);
+    private static final LocalDateTime DAY_2 = DAY_1.plusDays(1);
+    private static final LocalDateTime DAY_3 = DAY_1.plusDays(2);
+
+    private static BigDecimal money(String value) {
+        return new BigDecimal(value);
+    }
+
+    @Test
+    void issuesTakeTheOldestLayersFirst() {
+        CostLedger ledger = CostLedger.empty(1);
+        ledger.receive(10, money("1.00"), 1L, DAY_1);
+        ledger.receive(10, money("2.00"), 2L, DAY_2);
+
+        ledger.issue(15, DAY_3);
+
+        assertThat(ledger.quantity()).isEqualTo(5);
+        assertThat(ledger.fifoValue()).isEqualByComparingTo("10.00");
+        assertThat(ledger.layers().get(0).remaining).isZero();
+        assertThat(ledger.layers().get(1).remaining).isEqualTo(5);
+    }
+
+    @Test
+    void movingAverageIsWeightedByTheQuantityOnHand() {
+        CostLedger ledger = CostLedger.empty(1);
+        ledger.receive(10, money("1.00"), 1L, DAY_1);
+        ledger.issue(5, DAY_2);
+        ledger.receive(5, money("4.00"), 2L, DAY_3);
+
+        // (5 x 1.00 + 5 x 4.00) / 10
+        assertThat(ledger.averageUnitCost()).isEqualByComparingTo("2.50");
+        assertThat(ledger.averageValue()).isEqualByComparingTo("25.00");
+        assertThat(ledger.fifoValue()).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void issuesLeaveTheAverageUnitCostUnchanged() {
+        CostLedger ledger = CostLedger.empty(1);
+        ledger.receive(3, money("1.00"), 1L, DAY_1);
+        ledger.receive(1, money("2.00"), 2L, DAY_1);
+
+        ledger.issue(2, DAY_2);
+
+        assertThat(ledger.averageUnitCost()).isEqualByComparingTo("1.25");
+        assertThat(ledger.averageValue()).isEqualByComparingTo("2.50");
+        // FIFO keeps the last unit at 1.00 and the one at 2.00
+        assertThat(ledger.fifoValue()).isEqualByComparingTo("3.00");
+    }
+
+    @Test
+    void roundsTheAverageToSixPlacesAndValuesToCents() {
+        CostLedger ledger = CostLedger.empty(1);
+        ledger.receive(1, money("1.00"), 1L, DAY_1);
+        ledger.receive(2, money("1.00"), 2L, DAY_1);
+        ledger.receive(3, money("2.00"), 3L, DAY_1);
+
+        // 9.00 / 6 units
+        assertThat(ledger.averageUnitCost()).isEqualTo(money("1.500000"));
+        ledger.receive(1, money("0.01"), 4L, DAY_1);
+        assertThat(ledger.averageUnitCost()).isEqualTo(money("1.287143"));
+        assertThat(ledger.averageValue()).isEqualTo(money("9.01"));
+    }
+
+    @Test
+    void issuingMoreThanOnHandLeavesAShortfallWithNoValue() {
+        CostLedger ledger = CostLedger.empty(1);
+        ledger.receive(5, money("1.00"), 1L, DAY_1);
+
+        ledger.issue(8, DAY_2);
+
+        assertThat(ledger.quantity()).isEqualTo(-3);
+        assertThat(ledger.fifoValue()).isEqualByComparingTo("0");
+        assertThat(ledger.averageValue()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void receiptsCoverTheShortfallBeforeLayering() {
+        CostLedger ledger = CostLedger.empty(1);
+        ledger.receive(5, money("1.00"), 1L, DAY_1);
+        ledger.issue(8, DAY_2);
+
+        ledger.receive(10, money("2.00"), 2L, DAY_3);
+
+        assertThat(ledger.quantity()).isEqualTo(7);
+        List<CostLedger.Layer> open = ledger.layers().stream().filter(layer -> layer.remaining > 0).toList();
+        assertThat(open).hasSize(1);
+        assertThat(open.get(0).remaining).isEqualTo(7);
+        assertThat(open.get(0).sourceTransactionId).isEqualTo(2L);
+        assertThat(ledger.fifoValue()).isEqualByComparingTo("14.00");
+        // The average restarts at the receipt's cost once the quantity was not positive
+        assertThat(ledger.averageUnitCost()).isEqualByComparingTo("2.00");
+        assertThat(ledger.averageValue()).isEqualByComparingTo("14.00");
+    }
+
+    @Test
+    void aReceiptSmallerThanTheShortfallAddsNoLayer() {
+        CostLedger ledger = CostLedger.empty(1);
+        ledger.issue(4, DAY_1);
+
+        ledger.receive(3, money("2.00"), 1L, DAY_2);
+
+        assertThat(ledger.quantity()).isEqualTo(-1);
+        assertThat(ledger.layers()).isEmpty();
+        assertThat(ledger.fifoValue()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void marksLoadedLayersThatChangedForSaving() {
+        CostLedger.Layer loaded = new CostLedger.Layer(7L, 1L, DAY_1, 4, 4, money("1.00"));
+        CostLedger.Layer untouched = new CostLedger.Layer(8L, 2L, DAY_2, 5, 5, money("1.00"));
+        CostLedger ledger = new CostLedger(1, 9, money("1.00"), DAY_2, List.of(loaded, untouched));
+
+        ledger.issue(3, DAY_3);
+        ledger.receive(2, money("3.00"), 3L, DAY_3);
+
+        assertThat(loaded.isChanged()).isTrue();
+        assertThat(untouched.isChanged()).isFalse();
+        assertThat(ledger.layers().get(2).isNew()).isTrue();
+        assertThat(ledger.fifoValue()).isEqualByComparingTo("12.00");
+    }
+
+    @Test
+    void keepsTheNewestMovementDate() {
+        CostLedger ledger = CostLedger.empty(1);
+        ledger.receive(5, money("1.00"), 1L, DAY_2);
+        ledger.issue(1, DAY_1);
+        ledger.issue(1, null);
+
+        assertThat(ledger.lastMovementAt()).isEqualTo(DAY_2);
+    }
+}
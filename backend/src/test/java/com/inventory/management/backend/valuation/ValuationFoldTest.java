@@ -0,0 +1,131 @@
+package com.inventory.management.backend.valuation;
+
+import com.inventory.management.backend.dto.ProductDto;
+import com.inventory.management.backend.dto.TransactionDto;
+import com.inventory.management.backend.entity.Transaction;
+import com.inventory.management.backend.entity.User;
+import com.inventory.management.backend.repository.UserRepository;
+import com.inventory.management.backend.service.ProductService;
+import com.inventory.management.backend.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Movements only queue their valuation change; the folder must bring the valuation to the
+ * value a replay of the journal gives.
+ */
+@SpringBootTest
+class ValuationFoldTest {
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private InventoryValuationService inventoryValuationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Valuation waitFor(Long productId, Predicate<Valuation> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        Valuation valuation = null;
+        while (System.nanoTime() < deadline) {
+            valuation = inventoryValuationService.getValuations(List.of(productId)).get(productId);
+            if (valuation != null && condition.test(valuation)) {
+                return valuation;
+            }
+            Thread.sleep(10);
+        }
+        return valuation;
+    }
+
+    private TransactionDto movement(Long productId, Long userId, Transaction.TransactionType type, int quantity,
+                                    String unitPrice) {
+        TransactionDto movement = new TransactionDto();
+        movement.setProductId(productId);
+        movement.setUserId(userId);
+        movement.setType(type);
+        movement.setQuantity(quantity);
+        movement.setUnitPrice(unitPrice != null ? new BigDecimal(unitPrice) : null);
+        return movement;
+    }
+
+    @Test
+    void foldsMovementsAndRevaluesOpeningStockWhenThePurchasePriceChanges() throws Exception {
+        User user = new User();
+        user.setUsername("valuer-" + System.nanoTime());
+        user.setPasswordHash("x");
+        user.setRole(User.Role.STAFF);
+        user.setFullName("Valuer");
+        Long userId = userRepository.save(user).getId();
+
+        ProductDto product = new ProductDto();
+        product.setName("Valued SKU " + System.nanoTime());
+        product.setPriceIn(new BigDecimal("1.00"));
+        product.setPriceOut(new BigDecimal("5.00"));
+        product.setStock(10);
+        product = productService.createProduct(product);
+        Long productId = product.getId();
+
+        transactionService.createTransaction(movement(productId, userId, Transaction.TransactionType.IN, 5, "2.00"));
+        transactionService.createTransaction(movement(productId, userId, Transaction.TransactionType.OUT, 3, null));
+
+        // 7 opening units at 1.00 and the 5 received at 2.00
+        Valuation folded = waitFor(productId, valuation -> valuation.quantity() == 12);
+        assertThat(folded.quantity()).isEqualTo(12);
+        assertThat(folded.fifoValue()).isEqualByComparingTo("17.00");
+
+        product.setPriceIn(new BigDecimal("1.50"));
+        product.setActive(true);
+        productService.updateProduct(productId, product);
+
+        Valuation repriced = waitFor(productId,
+                valuation -> valuation.fifoValue().compareTo(new BigDecimal("20.50")) == 0);
+        assertThat(repriced.fifoValue()).isEqualByComparingTo("20.50");
+        assertThat(repriced.quantity()).isEqualTo(12);
+    }
+
+    @Test
+    void correctionsRebuildFromTheEffectiveJournal() throws Exception {
+        User user = new User();
+        user.setUsername("corrector-" + System.nanoTime());
+        user.setPasswordHash("x");
+        user.setRole(User.Role.STAFF);
+        user.setFullName("Corrector");
+        Long userId = userRepository.save(user).getId();
+
+        ProductDto product = new ProductDto();
+        product.setName("Corrected SKU " + System.nanoTime());
+        product.setPriceIn(new BigDecimal("1.00"));
+        product.setPriceOut(new BigDecimal("5.00"));
+        product.setStock(0);
+        Long productId = productService.createProduct(product).getId();
+
+        TransactionDto first = transactionService.createTransaction(
+                movement(productId, userId, Transaction.TransactionType.IN, 4, "3.00"));
+        transactionService.createTransaction(movement(productId, userId, Transaction.TransactionType.IN, 4, "1.00"));
+        waitFor(productId, valuation -> valuation.quantity() == 8);
+
+        TransactionDto correction = new TransactionDto();
+        correction.setQuantity(2);
+        transactionService.updateTransaction(first.getId(), correction);
+        // The corrected receipt keeps its place as the oldest layer
+        transactionService.createTransaction(movement(productId, userId, Transaction.TransactionType.OUT, 3, null));
+
+        Valuation folded = waitFor(productId, valuation -> valuation.quantity() == 3);
+        assertThat(folded.quantity()).isEqualTo(3);
+        assertThat(folded.fifoValue()).isEqualByComparingTo("3.00");
+        assertThat(folded.averageUnitCost()).isEqualByComparingTo(new BigDecimal("10.00")
+                .divide(new BigDecimal("6"), 6, RoundingMode.HALF_UP));
+    }
+}
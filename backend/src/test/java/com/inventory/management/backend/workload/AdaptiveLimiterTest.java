@@ -0,0 +1,112 @@
+package com.inventory.management.backend.workload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveLimiterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    private AdaptiveLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("inventory.admission.write.share", "1.0")
+                .withProperty("inventory.admission.write.target-latency-ms", "250")
+                .withProperty("inventory.admission.read.share", "0.8")
+                .withProperty("inventory.admission.read.target-latency-ms", "250")
+                .withProperty("inventory.admission.report.share", "0.4")
+                .withProperty("inventory.admission.report.target-latency-ms", "10000");
+        limiter = new AdaptiveLimiter(environment, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(limiter, "initialLimit", 64);
+        ReflectionTestUtils.setField(limiter, "minLimit", 8);
+        ReflectionTestUtils.setField(limiter, "maxLimit", 200);
+        ReflectionTestUtils.setField(limiter, "backoffRatio", 0.5);
+        ReflectionTestUtils.setField(limiter, "latencyPercentile", 0.9);
+        ReflectionTestUtils.setField(limiter, "windowSamples", 10);
+        ReflectionTestUtils.setField(limiter, "minSamples", 10);
+        ReflectionTestUtils.setField(limiter, "windowMs", 60_000L);
+        limiter.start();
+    }
+
+    private void finish(WorkloadClass workload, long latencyNanos) {
+        assertThat(limiter.tryAcquire(workload)).isTrue();
+        limiter.release(workload, latencyNanos, true);
+    }
+
+    @Test
+    void oneSlowRequestInAWindowLeavesTheLimitAlone() {
+        finish(WorkloadClass.WRITE, SLOW);
+        for (int i = 0; i < 9; i++) {
+            finish(WorkloadClass.WRITE, FAST);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(64);
+    }
+
+    @Test
+    void cutsWhenTheWindowPercentileIsOverTarget() {
+        for (int i = 0; i < 8; i++) {
+            finish(WorkloadClass.WRITE, FAST);
+        }
+        finish(WorkloadClass.WRITE, SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(64);
+
+        finish(WorkloadClass.WRITE, SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(32);
+    }
+
+    @Test
+    void requestsAdmittedBeforeACutDoNotCutAgain() {
+        for (int i = 0; i < 10; i++) {
+            finish(WorkloadClass.READ, SLOW);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(32);
+
+        // Stragglers that started before the cut
+        for (int i = 0; i < 10; i++) {
+            finish(WorkloadClass.READ, SLOW);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(32);
+    }
+
+    @Test
+    void judgesEachClassAgainstItsOwnTarget() {
+        for (int i = 0; i < 10; i++) {
+            finish(WorkloadClass.REPORT, SLOW);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(64);
+
+        for (int i = 0; i < 9; i++) {
+            finish(WorkloadClass.READ, SLOW);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(64);
+        finish(WorkloadClass.READ, SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(32);
+    }
+
+    @Test
+    void growsByOnePerLimitOfFastRequestsWhileBusy() {
+        for (int i = 0; i < 40; i++) {
+            assertThat(limiter.tryAcquire(WorkloadClass.WRITE)).isTrue();
+        }
+        for (int i = 0; i < 10; i++) {
+            limiter.release(WorkloadClass.WRITE, FAST, true);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(64 + 10 / 64.0);
+
+        // Windows that used less than half the limit do not grow it
+        for (int i = 0; i < 30; i++) {
+            limiter.release(WorkloadClass.WRITE, FAST, true);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(64 + 10 / 64.0);
+    }
+}
@@ -53,6 +53,8 @@ export interface Transaction {
   notes?: string;
   referenceNumber?: string;
   transactionDate: string;
+  entryKind?: 'ORIGINAL' | 'REVERSAL' | 'REPLACEMENT';
+  correctsTransactionId?: number;
 }
 
 export interface StockReport {
@@ -67,11 +69,22 @@ export interface StockReport {
   supplierName?: string;
   lowStock: boolean;
   stockValue: number;
+  averageUnitCost?: number;
+  averageCostValue?: number;
+  fifoValue?: number;
+  abcClass?: 'A' | 'B' | 'C';
+  xyzClass?: 'X' | 'Y' | 'Z';
 }
 
 export interface TransactionSummary {
   date: string;
-  period: string;
+  periodStart: string;
+  period: 'HOURLY' | 'DAILY' | 'WEEKLY' | 'MONTHLY' | 'QUARTERLY';
+  category?: string;
+  supplierId?: number;
+  supplierName?: string;
+  userId?: number;
+  username?: string;
   totalTransactions: number;
   inTransactions: number;
   outTransactions: number;
@@ -80,6 +93,19 @@ export interface TransactionSummary {
   netValue: number;
 }
 
+export interface TopMover {
+  id: number;
+  name?: string;
+  sku?: string;
+  amount: number;
+  maxOverestimate: number;
+}
+
+export interface StreamTicket {
+  ticket: string;
+  expiresInSeconds: number;
+}
+
 export interface LoginRequest {
   username: string;
   password: string;
@@ -146,3 +172,10 @@ export interface CreateTransactionRequest {
   notes?: string;
   referenceNumber?: string;
 }
+
+export interface ScanTransactionRequest {
+  sku: string;
+  type: 'IN' | 'OUT';
+  quantity: number;
+  referenceNumber?: string;
+}
@@ -7,12 +7,15 @@ import type {
   Transaction, 
   StockReport, 
   TransactionSummary,
+  TopMover,
+  StreamTicket,
   LoginRequest, 
   LoginResponse,
   CreateUserRequest,
   CreateSupplierRequest,
   CreateProductRequest,
-  CreateTransactionRequest
+  CreateTransactionRequest,
+  ScanTransactionRequest
 } from '../types';
 
 const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
@@ -51,6 +54,25 @@ api.interceptors.response.use(
   }
 );
 
+// Columnar list responses (?layout=columns) carry one array per field
+export interface ColumnarPayload {
+  fields: string[];
+  rowCount: number;
+  columns: Record<string, unknown[]>;
+}
+
+export const fromColumnar = <T>(payload: ColumnarPayload): T[] => {
+  const rows: T[] = [];
+  for (let i = 0; i < payload.rowCount; i++) {
+    const row: Record<string, unknown> = {};
+    for (const field of payload.fields) {
+      row[field] = payload.columns[field][i];
+    }
+    rows.push(row as T);
+  }
+  return rows;
+};
+
 // Auth API
 export const authApi = {
   login: (credentials: LoginRequest): Promise<AxiosResponse<LoginResponse>> =>
@@ -119,6 +141,9 @@ export const productsApi = {
   getActive: (): Promise<AxiosResponse<Product[]>> =>
     api.get('/products/active'),
   
+  getColumns: (fields: (keyof Product)[]): Promise<AxiosResponse<ColumnarPayload>> =>
+    api.get('/products', { params: { fields: fields.join(','), layout: 'columns' } }),
+  
   getById: (id: number): Promise<AxiosResponse<Product>> =>
     api.get(`/products/${id}`),
   
@@ -155,9 +180,15 @@ export const transactionsApi = {
   getAll: (): Promise<AxiosResponse<Transaction[]>> =>
     api.get('/transactions'),
   
+  getColumns: (fields: (keyof Transaction)[]): Promise<AxiosResponse<ColumnarPayload>> =>
+    api.get('/transactions', { params: { fields: fields.join(','), layout: 'columns' } }),
+  
   getById: (id: number): Promise<AxiosResponse<Transaction>> =>
     api.get(`/transactions/${id}`),
   
+  getHistory: (id: number): Promise<AxiosResponse<Transaction[]>> =>
+    api.get(`/transactions/${id}/history`),
+  
   getByProduct: (productId: number): Promise<AxiosResponse<Transaction[]>> =>
     api.get(`/transactions/product/${productId}`),
   
@@ -173,6 +204,9 @@ export const transactionsApi = {
   create: (transactionData: CreateTransactionRequest): Promise<AxiosResponse<Transaction>> =>
     api.post('/transactions', transactionData),
   
+  scan: (scanData: ScanTransactionRequest): Promise<AxiosResponse<Transaction>> =>
+    api.post('/transactions/scan', scanData),
+  
   update: (id: number, transactionData: Partial<Transaction>): Promise<AxiosResponse<Transaction>> =>
     api.put(`/transactions/${id}`, transactionData),
   
@@ -187,6 +221,26 @@ export const reportsApi = {
   
   getTransactionSummary: (startDate: string, endDate: string): Promise<AxiosResponse<TransactionSummary[]>> =>
     api.get(`/reports/summary?startDate=${startDate}&endDate=${endDate}`),
+
+  getTopMovers: (
+    by: 'PRODUCT' | 'USER' | 'SUPPLIER' = 'PRODUCT',
+    metric: 'QUANTITY' | 'VALUE' = 'QUANTITY',
+    window: 'HOUR' | 'DAY' = 'HOUR',
+    limit = 20,
+  ): Promise<AxiosResponse<TopMover[]>> =>
+    api.get(`/reports/top-movers?by=${by}&metric=${metric}&window=${window}&limit=${limit}`),
+};
+
+// Events API
+export const eventsApi = {
+  issueStockStreamTicket: (): Promise<AxiosResponse<StreamTicket>> =>
+    api.post('/events/stock/ticket'),
+
+  // EventSource cannot send headers, so the stream is opened with a single-use ticket instead of the token
+  openStockStream: async (): Promise<EventSource> => {
+    const { data } = await eventsApi.issueStockStreamTicket();
+    return new EventSource(`${API_BASE_URL}/events/stock?ticket=${encodeURIComponent(data.ticket)}`);
+  },
 };
 
 export default api;